@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StreamTokenizer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles PROJ.4 authority files into the binary catalogues read by <code>Proj4FileReader</code>
+ * in proj4j core.
+ * This is run by exec-maven-plugin when the <code>proj4j-epsg</code> module is built:
+ * <pre>
+ * CatalogWriter &lt;definition directory&gt; &lt;catalogue directory&gt; &lt;file name&gt;...
+ * </pre>
+ * Each named authority file in the definition directory is compiled
+ * into a catalogue of the same name in the catalogue directory.
+ * <p>
+ * This is a separate module with no dependencies,
+ * since proj4j core depends on <code>proj4j-epsg</code> for its tests.
+ * It parses authority files in the same way as <code>Proj4FileReader</code>,
+ * and writes the format described by <code>org.locationtech.proj4j.io.Catalog</code>;
+ * the tests of proj4j core check that the catalogues agree with the files.
+ */
+public final class CatalogWriter {
+
+    // these must match Catalog in proj4j core
+    static final byte[] MAGIC = "PROJ4CAT".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+
+    private CatalogWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            // not System.exit, since exec-maven-plugin runs this in the Maven JVM
+            throw new IllegalArgumentException(
+                    "Usage: CatalogWriter <definition directory> <catalogue directory> <file name>...");
+        }
+        File outDir = new File(args[1]);
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            throw new IOException("Unable to create directory: " + outDir);
+        }
+        for (int i = 2; i < args.length; i++) {
+            Map<String, String[]> definitions;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(new File(args[0], args[i])), StandardCharsets.UTF_8))) {
+                definitions = read(reader);
+            }
+            try (OutputStream out = new FileOutputStream(new File(outDir, args[i]))) {
+                write(definitions, out);
+            }
+        }
+    }
+
+    /**
+     * Reads all the definitions in an authority file.
+     *
+     * @param reader the authority file
+     * @return the parameters of each code, in file order
+     * @throws IOException if the file could not be read or parsed
+     */
+    public static Map<String, String[]> read(BufferedReader reader) throws IOException {
+        StreamTokenizer t = createTokenizer(reader);
+        Map<String, String[]> definitions = new LinkedHashMap<>();
+
+        t.nextToken();
+        while (t.ttype == '<') {
+            String code = parseCode(t);
+            List<String> params = parseParameters(t);
+            // the first definition of a name is the one used
+            definitions.putIfAbsent(code, params.toArray(new String[0]));
+        }
+        return definitions;
+    }
+
+    private static StreamTokenizer createTokenizer(BufferedReader reader) {
+        StreamTokenizer t = new StreamTokenizer(reader);
+        t.commentChar('#');
+        t.ordinaryChars('0', '9');
+        t.ordinaryChars('.', '.');
+        t.ordinaryChars('-', '-');
+        t.ordinaryChars('+', '+');
+        t.wordChars('0', '9');
+        t.wordChars('\'', '\'');
+        t.wordChars('"', '"');
+        t.wordChars('_', '_');
+        t.wordChars('.', '.');
+        t.wordChars('-', '-');
+        t.wordChars('+', '+');
+        t.wordChars(',', ',');
+        t.wordChars('@', '@');
+        return t;
+    }
+
+    private static String parseCode(StreamTokenizer t) throws IOException {
+        t.nextToken();
+        if (t.ttype != StreamTokenizer.TT_WORD)
+            throw new IOException(t.lineno() + ": Word expected after '<'");
+        String code = t.sval;
+        t.nextToken();
+        if (t.ttype != '>')
+            throw new IOException(t.lineno() + ": '>' expected");
+        t.nextToken();
+        return code;
+    }
+
+    private static List<String> parseParameters(StreamTokenizer t) throws IOException {
+        List<String> params = new ArrayList<>();
+        while (t.ttype != '<') {
+            if (t.ttype == '+')
+                t.nextToken();
+            if (t.ttype != StreamTokenizer.TT_WORD)
+                throw new IOException(t.lineno() + ": Word expected after '+'");
+            String key = t.sval.startsWith("+") ? t.sval : "+" + t.sval;
+            t.nextToken();
+            if (t.ttype == '=') {
+                // the value is not checked, as in proj4 hack +nadgrids=@null
+                t.nextToken();
+                String value = t.sval;
+                t.nextToken();
+                params.add(value != null ? key + "=" + value : key);
+            } else {
+                params.add(key);
+            }
+        }
+        t.nextToken();
+        if (t.ttype != '>')
+            throw new IOException(t.lineno() + ": '<>' expected");
+        t.nextToken();
+        return params;
+    }
+
+    /**
+     * Writes a catalogue of definitions.
+     *
+     * @param definitions the parameters of each code
+     * @param out the stream to write to, which is not closed
+     * @throws IOException if the catalogue could not be written
+     */
+    public static void write(Map<String, String[]> definitions, OutputStream out) throws IOException {
+        List<byte[]> codes = new ArrayList<>(definitions.size());
+        for (String code : definitions.keySet()) {
+            codes.add(code.getBytes(StandardCharsets.UTF_8));
+        }
+        codes.sort(CatalogWriter::compare);
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<byte[]> params = new ArrayList<>();
+        List<int[]> indices = new ArrayList<>(codes.size());
+        for (byte[] code : codes) {
+            String[] args = definitions.get(new String(code, StandardCharsets.UTF_8));
+            int[] index = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                Integer id = dictionary.get(args[i]);
+                if (id == null) {
+                    id = params.size();
+                    dictionary.put(args[i], id);
+                    params.add(args[i].getBytes(StandardCharsets.UTF_8));
+                }
+                index[i] = id;
+            }
+            indices.add(index);
+        }
+        if (params.size() > 0xffff) {
+            throw new IOException("Too many distinct parameters for a catalogue: " + params.size());
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.write(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(params.size());
+        data.writeInt(codes.size());
+        writeOffsets(data, params);
+        writeOffsets(data, codes);
+        int offset = 0;
+        data.writeInt(offset);
+        for (int[] index : indices) {
+            offset += index.length;
+            data.writeInt(offset);
+        }
+        for (byte[] param : params) {
+            data.write(param);
+        }
+        for (byte[] code : codes) {
+            data.write(code);
+        }
+        for (int[] index : indices) {
+            for (int id : index) {
+                data.writeShort(id);
+            }
+        }
+        data.flush();
+    }
+
+    private static void writeOffsets(DataOutputStream data, List<byte[]> values) throws IOException {
+        int offset = 0;
+        data.writeInt(offset);
+        for (byte[] value : values) {
+            offset += value.length;
+            data.writeInt(offset);
+        }
+    }
+
+    // the order in which Catalog searches for codes
+    private static int compare(byte[] a, byte[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            int c = (a[i] & 0xff) - (b[i] & 0xff);
+            if (c != 0) return c;
+        }
+        return a.length - b.length;
+    }
+}
@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+
+/**
+ * A {@link CoordinateTransform} which approximates another transform
+ * by piecewise bilinear interpolation over a rectangular extent
+ * of the source {@link CoordinateReferenceSystem}.
+ * <p>
+ * At construction time the exact transform is evaluated at the corners of the extent,
+ * and the extent is recursively divided into quadrants
+ * until interpolating between the corners of each cell agrees with the exact transform
+ * to within the requested maximum error.
+ * The agreement is checked at the centre, the edge midpoints and the quarter points of each cell,
+ * so the error bound is estimated at these sample points
+ * and is not guaranteed elsewhere in the cell.
+ * Cells which cannot meet the error bound within {@link #MAX_DEPTH} subdivisions
+ * or the {@link #MAX_CELLS} budget, or in which the exact transform fails,
+ * are marked so that points falling in them are transformed exactly.
+ * Points outside the extent are also transformed exactly.
+ * <p>
+ * This is similar to the approximate transformer used by the GDAL warper,
+ * and is intended for transforming large numbers of points in a limited area,
+ * such as raster pixels or densely-vertexed geometries.
+ * <p>
+ * Only the horizontal ordinates are approximated.
+ * Points transformed by interpolation have their Z ordinate cleared.
+ */
+public class ApproximateCoordinateTransform implements CoordinateTransform {
+
+    /**
+     * The maximum number of times the extent is subdivided
+     */
+    public static final int MAX_DEPTH = 12;
+
+    /**
+     * The maximum number of cells the extent is divided into.
+     * Error bounds which would need more cells than this to satisfy
+     * (for instance a millimetre tolerance over a whole country)
+     * leave some cells to be transformed exactly.
+     */
+    public static final int MAX_CELLS = 1 << 16;
+
+    // fractional positions within a cell at which the interpolation error is checked
+    private static final double[][] CHECK_POINTS = {
+            {0.5, 0}, {0, 0.5}, {1, 0.5}, {0.5, 1}, {0.5, 0.5},
+            {0.25, 0.25}, {0.75, 0.25}, {0.25, 0.75}, {0.75, 0.75}
+    };
+
+    private final CoordinateTransform transform;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final double maxError;
+    private final Cell root;
+
+    private int cellCount;
+
+    /**
+     * Creates an approximation of a transform over a given extent.
+     *
+     * @param transform the exact transform to approximate
+     * @param minX the minimum x ordinate of the extent, in source CRS units
+     * @param minY the minimum y ordinate of the extent, in source CRS units
+     * @param maxX the maximum x ordinate of the extent, in source CRS units
+     * @param maxY the maximum y ordinate of the extent, in source CRS units
+     * @param maxError the maximum distance between approximated and exact points, in target CRS units,
+     *                 as estimated at sample points within each cell
+     * @throws IllegalArgumentException if the extent is empty or the maximum error is not positive
+     */
+    public ApproximateCoordinateTransform(CoordinateTransform transform,
+                                          double minX, double minY, double maxX, double maxY,
+                                          double maxError) {
+        if (!(minX < maxX && minY < maxY))
+            throw new IllegalArgumentException("Invalid extent: " + minX + "," + minY + " " + maxX + "," + maxY);
+        if (!(maxError > 0))
+            throw new IllegalArgumentException("Maximum error must be positive: " + maxError);
+        this.transform = transform;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxError = maxError;
+
+        root = build();
+    }
+
+    @Override
+    public CoordinateReferenceSystem getSourceCRS() {
+        return transform.getSourceCRS();
+    }
+
+    @Override
+    public CoordinateReferenceSystem getTargetCRS() {
+        return transform.getTargetCRS();
+    }
+
+    /**
+     * Gets the exact transform which this transform approximates.
+     *
+     * @return the exact transform
+     */
+    public CoordinateTransform getExactTransform() {
+        return transform;
+    }
+
+    public double getMaxError() {
+        return maxError;
+    }
+
+    /**
+     * Gets the number of leaf cells the extent was divided into.
+     *
+     * @return the number of cells
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    @Override
+    public ProjCoordinate transform(ProjCoordinate src, ProjCoordinate tgt)
+            throws Proj4jException {
+        Cell cell = findCell(src.x, src.y);
+        if (cell == null || cell.corners == null) {
+            return transform.transform(src, tgt);
+        }
+        double x = src.x;
+        double y = src.y;
+        tgt.x = cell.interpolate(x, y, 0);
+        tgt.y = cell.interpolate(x, y, 1);
+        tgt.clearZ();
+        return tgt;
+    }
+
+    @Override
+    public void transform(double[] xy, int offset, int count)
+            throws Proj4jException {
+        ProjCoordinate pt = null;
+        for (int i = offset, end = offset + 2 * count; i < end; i += 2) {
+            double x = xy[i];
+            double y = xy[i + 1];
+            Cell cell = findCell(x, y);
+            if (cell != null && cell.corners != null) {
+                xy[i] = cell.interpolate(x, y, 0);
+                xy[i + 1] = cell.interpolate(x, y, 1);
+            } else {
+                if (pt == null) pt = new ProjCoordinate();
+                pt.setValue(x, y);
+                transform.transform(pt, pt);
+                xy[i] = pt.x;
+                xy[i + 1] = pt.y;
+            }
+        }
+    }
+
+    @Override
+    public void transform(double[] xs, double[] ys, double[] zs, int offset, int n)
+            throws Proj4jException {
+        ProjCoordinate pt = null;
+        for (int i = offset, end = offset + n; i < end; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            Cell cell = findCell(x, y);
+            if (cell != null && cell.corners != null) {
+                xs[i] = cell.interpolate(x, y, 0);
+                ys[i] = cell.interpolate(x, y, 1);
+                if (zs != null) zs[i] = Double.NaN;
+            } else {
+                if (pt == null) pt = new ProjCoordinate();
+                pt.setValue(x, y, zs == null ? Double.NaN : zs[i]);
+                transform.transform(pt, pt);
+                xs[i] = pt.x;
+                ys[i] = pt.y;
+                if (zs != null) zs[i] = pt.z;
+            }
+        }
+    }
+
+    private Cell findCell(double x, double y) {
+        // also rejects NaN ordinates
+        if (!(x >= minX && x <= maxX && y >= minY && y <= maxY)) {
+            return null;
+        }
+        Cell cell = root;
+        while (cell.children != null) {
+            int quadrant = (x < cell.midX() ? 0 : 1) + (y < cell.midY() ? 0 : 2);
+            cell = cell.children[quadrant];
+        }
+        return cell;
+    }
+
+    /**
+     * Builds the cell tree covering the extent.
+     * Cells are subdivided breadth-first, so that if the cell budget is exhausted
+     * the remaining detail is spread evenly over the extent rather than
+     * concentrated in the first quadrants visited.
+     */
+    private Cell build() {
+        Cell root = new Cell(minX, minY, maxX, maxY);
+        ArrayDeque<Pending> queue = new ArrayDeque<>();
+        queue.add(new Pending(root, 0,
+                exact(minX, minY), exact(maxX, minY), exact(minX, maxY), exact(maxX, maxY)));
+        cellCount = 1;
+
+        while (!queue.isEmpty()) {
+            Pending p = queue.poll();
+            Cell cell = p.cell;
+            double xm = cell.midX();
+            double ym = cell.midY();
+            double[] centre = exact(xm, ym);
+
+            boolean cornersValid = p.c00 != null && p.c10 != null && p.c01 != null && p.c11 != null;
+            if (!cornersValid && centre == null) {
+                // the exact transform is undefined over (most of) this cell
+                continue;
+            }
+            if (cornersValid) {
+                cell.corners = new double[]{
+                        p.c00[0], p.c00[1], p.c10[0], p.c10[1],
+                        p.c01[0], p.c01[1], p.c11[0], p.c11[1]};
+                if (withinError(cell)) continue;
+                cell.corners = null;
+            }
+            if (p.depth >= MAX_DEPTH || cellCount + 3 > MAX_CELLS) {
+                // points in this cell are transformed exactly
+                continue;
+            }
+
+            double[] bottom = exact(xm, cell.y0);
+            double[] left = exact(cell.x0, ym);
+            double[] right = exact(cell.x1, ym);
+            double[] top = exact(xm, cell.y1);
+            cell.children = new Cell[]{
+                    new Cell(cell.x0, cell.y0, xm, ym),
+                    new Cell(xm, cell.y0, cell.x1, ym),
+                    new Cell(cell.x0, ym, xm, cell.y1),
+                    new Cell(xm, ym, cell.x1, cell.y1)
+            };
+            cellCount += 3;
+            int depth = p.depth + 1;
+            queue.add(new Pending(cell.children[0], depth, p.c00, bottom, left, centre));
+            queue.add(new Pending(cell.children[1], depth, bottom, p.c10, centre, right));
+            queue.add(new Pending(cell.children[2], depth, left, centre, p.c01, top));
+            queue.add(new Pending(cell.children[3], depth, centre, right, top, p.c11));
+        }
+        return root;
+    }
+
+    private boolean withinError(Cell cell) {
+        double maxErrorSq = maxError * maxError;
+        for (double[] check : CHECK_POINTS) {
+            double x = cell.x0 + check[0] * (cell.x1 - cell.x0);
+            double y = cell.y0 + check[1] * (cell.y1 - cell.y0);
+            double[] p = exact(x, y);
+            if (p == null) return false;
+            double dx = cell.interpolate(x, y, 0) - p[0];
+            double dy = cell.interpolate(x, y, 1) - p[1];
+            // negated test so that NaN errors fail
+            if (!(dx * dx + dy * dy <= maxErrorSq)) return false;
+        }
+        return true;
+    }
+
+    private double[] exact(double x, double y) {
+        ProjCoordinate p = new ProjCoordinate(x, y);
+        try {
+            transform.transform(p, p);
+        } catch (Proj4jException e) {
+            return null;
+        }
+        if (Double.isNaN(p.x) || Double.isNaN(p.y) || Double.isInfinite(p.x) || Double.isInfinite(p.y)) {
+            return null;
+        }
+        return new double[]{p.x, p.y};
+    }
+
+    /**
+     * A cell waiting to be checked during construction,
+     * with the exactly-transformed target ordinates of its corners
+     * (<code>null</code> where the exact transform failed).
+     */
+    private static final class Pending {
+        final Cell cell;
+        final int depth;
+        final double[] c00;
+        final double[] c10;
+        final double[] c01;
+        final double[] c11;
+
+        Pending(Cell cell, int depth, double[] c00, double[] c10, double[] c01, double[] c11) {
+            this.cell = cell;
+            this.depth = depth;
+            this.c00 = c00;
+            this.c10 = c10;
+            this.c01 = c01;
+            this.c11 = c11;
+        }
+    }
+
+    /**
+     * A rectangular cell of the source extent.
+     * A leaf cell holds the exactly-transformed target ordinates of its corners,
+     * or <code>null</code> if points within it must be transformed exactly.
+     */
+    private static final class Cell implements Serializable {
+        final double x0;
+        final double y0;
+        final double x1;
+        final double y1;
+        // x,y of corners (x0,y0), (x1,y0), (x0,y1), (x1,y1)
+        double[] corners;
+        Cell[] children;
+
+        Cell(double x0, double y0, double x1, double y1) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+        }
+
+        double midX() {
+            return (x0 + x1) / 2;
+        }
+
+        double midY() {
+            return (y0 + y1) / 2;
+        }
+
+        double interpolate(double x, double y, int ordinate) {
+            double u = (x - x0) / (x1 - x0);
+            double v = (y - y0) / (y1 - y0);
+            double[] c = corners;
+            return (1 - v) * ((1 - u) * c[ordinate] + u * c[2 + ordinate])
+                    + v * ((1 - u) * c[4 + ordinate] + u * c[6 + ordinate]);
+        }
+    }
+}
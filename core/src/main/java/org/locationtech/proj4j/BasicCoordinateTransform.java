@@ -15,7 +15,14 @@
  */
 package org.locationtech.proj4j;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.locationtech.proj4j.datum.*;
+import org.locationtech.proj4j.proj.Projection;
 
 /**
  * Represents the operation of transforming
@@ -42,22 +49,31 @@ import org.locationtech.proj4j.datum.*;
  * <p>
  * Information about the transformation procedure is pre-computed
  * and cached in this object for efficient computation.
+ * At construction time the transform is compiled into a list of steps
+ * containing only the operations which this pair of CRSs actually requires
+ * (for instance, axis order and prime meridian adjustments are omitted
+ * when they are identities).
+ * The compiled steps can be inspected with {@link #getSteps()}.
+ * <p>
+ * The array forms of <code>transform</code> run each of the steps
+ * over a block of points before moving on to the next step,
+ * rather than running all steps for one point at a time.
  *
  * @author Martin Davis
  * @see CoordinateTransformFactory
  */
 public class BasicCoordinateTransform implements CoordinateTransform {
 
+    // number of points handled at a time by the interleaved array transform
+    private static final int BLOCK_SIZE = 1024;
+
+    private static final PrimeMeridian GREENWICH = PrimeMeridian.forName("greenwich");
+
     private final CoordinateReferenceSystem srcCRS;
     private final CoordinateReferenceSystem tgtCRS;
 
     // precomputed information
-    private final boolean doInverseProjection;
-    private final boolean doForwardProjection;
-    private final boolean doDatumTransform;
-    private final boolean transformViaGeocentric;
-    private GeocentricConverter srcGeoConv;
-    private GeocentricConverter tgtGeoConv;
+    private final Step[] steps;
 
     /**
      * Creates a transformation from a source {@link CoordinateReferenceSystem}
@@ -74,50 +90,108 @@ public class BasicCoordinateTransform implements CoordinateTransform {
         // compute strategy for transformation at initialization time, to make transformation more efficient
         // this may include precomputing sets of parameters
 
-        doInverseProjection = (srcCRS != CoordinateReferenceSystem.CS_GEO);
-        doForwardProjection = (tgtCRS != CoordinateReferenceSystem.CS_GEO);
-        doDatumTransform = doInverseProjection && doForwardProjection
+        boolean doInverseProjection = (srcCRS != CoordinateReferenceSystem.CS_GEO);
+        boolean doForwardProjection = (tgtCRS != CoordinateReferenceSystem.CS_GEO);
+        boolean doDatumTransform = doInverseProjection && doForwardProjection
                 && srcCRS.getDatum() != tgtCRS.getDatum();
 
-        boolean geocentric = false;
+        List<Step> steps = new ArrayList<>();
+        Projection srcProj = srcCRS.getProjection();
+        Projection tgtProj = tgtCRS.getProjection();
+
+        if (srcProj != null && !AxisOrder.ENU.equals(srcProj.getAxisOrder())) {
+            steps.add(new AxisToENU(srcProj.getAxisOrder()));
+        }
+        if (doInverseProjection) {
+            steps.add(new InverseProjection(srcProj));
+        }
+        if (srcProj != null && !GREENWICH.equals(srcProj.getPrimeMeridian())) {
+            steps.add(new ToGreenwich(srcProj.getPrimeMeridian()));
+        }
+
+        // fixes bug where computed Z value sticks around
+        steps.add(new ClearZ());
 
         if (doDatumTransform) {
+            addDatumSteps(srcCRS.getDatum(), tgtCRS.getDatum(), steps);
+        }
 
-            boolean isEllipsoidEqual = srcCRS.getDatum().getEllipsoid().isEqual(tgtCRS.getDatum().getEllipsoid());
-            geocentric = ! isEllipsoidEqual || srcCRS.getDatum().hasTransformToWGS84()
-                    || tgtCRS.getDatum().hasTransformToWGS84();
+        if (tgtProj != null && !GREENWICH.equals(tgtProj.getPrimeMeridian())) {
+            steps.add(new FromGreenwich(tgtProj.getPrimeMeridian()));
+        }
+        if (doForwardProjection) {
+            steps.add(new ForwardProjection(tgtProj));
+        }
+        if (tgtProj != null && !AxisOrder.ENU.equals(tgtProj.getAxisOrder())) {
+            steps.add(new AxisFromENU(tgtProj.getAxisOrder()));
+        }
 
-            if (geocentric) {
-                srcGeoConv = new GeocentricConverter(srcCRS.getDatum().getEllipsoid());
-                tgtGeoConv = new GeocentricConverter(tgtCRS.getDatum().getEllipsoid());
+        this.steps = steps.toArray(new Step[0]);
+    }
 
-                int srcTransformType = srcCRS.getDatum().getTransformType();
-                int tgtTransformType = tgtCRS.getDatum().getTransformType();
+    /**
+     * Adds the steps which convert long/lat/z coordinates in radians
+     * from the source datum to the target datum.
+     */
+    private static void addDatumSteps(Datum srcDatum, Datum tgtDatum, List<Step> steps) {
+        /* -------------------------------------------------------------------- */
+        /*      Short cut if the datums are identical.                          */
+        /* -------------------------------------------------------------------- */
+        if (srcDatum.isEqual(tgtDatum)
+                || srcDatum.getTransformType() == Datum.TYPE_UNKNOWN
+                || tgtDatum.getTransformType() == Datum.TYPE_UNKNOWN)
+            return;
 
-                if (srcTransformType == Datum.TYPE_GRIDSHIFT || tgtTransformType == Datum.TYPE_GRIDSHIFT) {
+        int srcTransformType = srcDatum.getTransformType();
+        int tgtTransformType = tgtDatum.getTransformType();
 
-	                if (srcTransformType == Datum.TYPE_GRIDSHIFT) {
-	                    srcGeoConv.overrideWithWGS84Params();
-	                }
+        boolean isEllipsoidEqual = srcDatum.getEllipsoid().isEqual(tgtDatum.getEllipsoid());
+        boolean geocentric = ! isEllipsoidEqual || srcDatum.hasTransformToWGS84()
+                || tgtDatum.hasTransformToWGS84();
+        GeocentricConverter srcGeoConv = null;
+        GeocentricConverter tgtGeoConv = null;
 
-	                if (tgtTransformType == Datum.TYPE_GRIDSHIFT) {
-	                    tgtGeoConv.overrideWithWGS84Params();
-	                }
+        if (geocentric) {
+            srcGeoConv = new GeocentricConverter(srcDatum.getEllipsoid());
+            tgtGeoConv = new GeocentricConverter(tgtDatum.getEllipsoid());
 
-	                // After WGS84 params override, check if geocentric transform is still required
-	                // https://github.com/OSGeo/PROJ/blob/5.2.0/src/pj_transform.c#L892
-	                if(srcGeoConv.isEqual(tgtGeoConv)) {
-	                    geocentric = false;
-	                    srcGeoConv = null;
-	                    tgtGeoConv = null;
-	                }
+            if (srcTransformType == Datum.TYPE_GRIDSHIFT) {
+                srcGeoConv.overrideWithWGS84Params();
+            }
 
-                }
+            if (tgtTransformType == Datum.TYPE_GRIDSHIFT) {
+                tgtGeoConv.overrideWithWGS84Params();
+            }
+
+            // After WGS84 params override, check if geocentric transform is still required
+            // https://github.com/OSGeo/PROJ/blob/5.2.0/src/pj_transform.c#L892
+            if ((srcTransformType == Datum.TYPE_GRIDSHIFT || tgtTransformType == Datum.TYPE_GRIDSHIFT)
+                    && srcGeoConv.isEqual(tgtGeoConv)) {
+                geocentric = false;
             }
+        }
+
+        /* -------------------------------------------------------------------- */
+        /*	If this datum requires grid shifts, then apply it to geodetic    */
+        /*      coordinates.                                                    */
+        /* -------------------------------------------------------------------- */
+        if (srcTransformType == Datum.TYPE_GRIDSHIFT && !srcDatum.hasNullGrids()) {
+            steps.add(new GridShift(srcDatum, false));
+        }
 
+        /* ==================================================================== */
+        /*      Do we need to go through geocentric coordinates?                */
+        /* ==================================================================== */
+        if (geocentric) {
+            steps.add(new GeocentricShift(srcGeoConv, srcDatum, tgtGeoConv, tgtDatum));
         }
 
-        transformViaGeocentric = geocentric;
+        /* -------------------------------------------------------------------- */
+        /*      Apply grid shift to destination if required.                    */
+        /* -------------------------------------------------------------------- */
+        if (tgtTransformType == Datum.TYPE_GRIDSHIFT && !tgtDatum.hasNullGrids()) {
+            steps.add(new GridShift(tgtDatum, true));
+        }
     }
 
     @Override
@@ -130,6 +204,31 @@ public class BasicCoordinateTransform implements CoordinateTransform {
         return tgtCRS;
     }
 
+    /**
+     * Gets a description of each of the steps this transform applies,
+     * in the order in which they are applied.
+     * Steps which would have no effect for the given pair of CRSs are not included.
+     *
+     * @return the list of step descriptions
+     */
+    public List<String> getSteps() {
+        List<String> names = new ArrayList<>(steps.length);
+        for (Step step : steps) {
+            names.add(step.toString());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Tests whether this transform consists only of an inverse projection
+     * followed by a projection, with no datum, axis order or prime meridian steps.
+     */
+    boolean isProjectionOnly() {
+        return steps.length == 3
+                && steps[0] instanceof InverseProjection
+                && steps[1] instanceof ClearZ
+                && steps[2] instanceof ForwardProjection;
+    }
 
     /**
      * Transforms a coordinate from the source {@link CoordinateReferenceSystem}
@@ -145,62 +244,272 @@ public class BasicCoordinateTransform implements CoordinateTransform {
 	public ProjCoordinate transform(ProjCoordinate src, ProjCoordinate tgt)
             throws Proj4jException {
     	tgt.setValue(src);
-        srcCRS.getProjection().getAxisOrder().toENU(tgt);
-
         // NOTE: this method may be called many times, so needs to be as efficient as possible
-        if (doInverseProjection) {
-            // inverse project to geographic
-            srcCRS.getProjection().inverseProjectRadians(tgt, tgt);
+        for (Step step : steps) {
+            step.apply(tgt);
         }
+        return tgt;
+    }
 
-        srcCRS.getProjection().getPrimeMeridian().toGreenwich(tgt);
+    /**
+     * Transforms an array of interleaved x,y ordinates in place
+     * from the source {@link CoordinateReferenceSystem} to the target one.
+     * Points are processed in blocks, with each transformation step
+     * applied to the whole block in turn.
+     *
+     * @param xy the array of ordinates, stored as x0, y0, x1, y1, ...
+     * @param offset the index in the array of the x ordinate of the first point
+     * @param count the number of points to transform
+     * @throws Proj4jException if a computation error is encountered
+     */
+    @Override
+    public void transform(double[] xy, int offset, int count)
+            throws Proj4jException {
+        int blockSize = Math.min(count, BLOCK_SIZE);
+        double[] xs = new double[blockSize];
+        double[] ys = new double[blockSize];
+        for (int start = 0; start < count; start += blockSize) {
+            int n = Math.min(blockSize, count - start);
+            int base = offset + 2 * start;
+            for (int i = 0; i < n; i++) {
+                xs[i] = xy[base + 2 * i];
+                ys[i] = xy[base + 2 * i + 1];
+            }
+            transform(xs, ys, null, n);
+            for (int i = 0; i < n; i++) {
+                xy[base + 2 * i] = xs[i];
+                xy[base + 2 * i + 1] = ys[i];
+            }
+        }
+    }
 
-        // fixes bug where computed Z value sticks around
-        tgt.clearZ();
+    /**
+     * Transforms a range of arrays of x, y and (optionally) z ordinates in place
+     * from the source {@link CoordinateReferenceSystem} to the target one.
+     * Each transformation step is applied to the whole range in turn,
+     * so if an exception is thrown some points may be left partially transformed.
+     *
+     * @param xs the x ordinates
+     * @param ys the y ordinates
+     * @param zs the z ordinates (may be <code>null</code>)
+     * @param offset the index in the arrays of the first point
+     * @param n the number of points to transform
+     * @throws Proj4jException if a computation error is encountered
+     */
+    @Override
+    public void transform(double[] xs, double[] ys, double[] zs, int offset, int n)
+            throws Proj4jException {
+        for (Step step : steps) {
+            step.apply(xs, ys, zs, offset, n);
+        }
+    }
 
-        if (doDatumTransform) {
-            datumTransform(tgt);
+    /**
+     * A single operation in a compiled transform.
+     * Subclasses implement the single-point form,
+     * and may override the array form where a faster loop is possible.
+     */
+    private static abstract class Step implements Serializable {
+
+        private final String name;
+
+        Step(String name) {
+            this.name = name;
         }
 
-        tgtCRS.getProjection().getPrimeMeridian().fromGreenwich(tgt);
+        abstract void apply(ProjCoordinate pt);
+
+        void apply(double[] xs, double[] ys, double[] zs, int off, int n) {
+            ProjCoordinate pt = new ProjCoordinate();
+            for (int i = off, end = off + n; i < end; i++) {
+                pt.x = xs[i];
+                pt.y = ys[i];
+                pt.z = zs == null ? Double.NaN : zs[i];
+                apply(pt);
+                xs[i] = pt.x;
+                ys[i] = pt.y;
+                if (zs != null) {
+                    zs[i] = pt.z;
+                }
+            }
+        }
 
-        if (doForwardProjection) {
-            // project from geographic to planar
-            tgtCRS.getProjection().projectRadians(tgt, tgt);
+        @Override
+        public String toString() {
+            return name;
         }
+    }
 
-        tgtCRS.getProjection().getAxisOrder().fromENU(tgt);
+    private static final class AxisToENU extends Step {
+        private final AxisOrder axes;
 
-        return tgt;
+        AxisToENU(AxisOrder axes) {
+            super("axis order to ENU");
+            this.axes = axes;
+        }
+
+        void apply(ProjCoordinate pt) {
+            axes.toENU(pt);
+        }
+    }
+
+    private static final class AxisFromENU extends Step {
+        private final AxisOrder axes;
+
+        AxisFromENU(AxisOrder axes) {
+            super("axis order from ENU");
+            this.axes = axes;
+        }
+
+        void apply(ProjCoordinate pt) {
+            axes.fromENU(pt);
+        }
+    }
+
+    private static final class InverseProjection extends Step {
+        private final Projection proj;
+
+        InverseProjection(Projection proj) {
+            super("inverse projection [" + proj.getName() + "]");
+            this.proj = proj;
+        }
+
+        void apply(ProjCoordinate pt) {
+            proj.inverseProjectRadians(pt, pt);
+        }
+
+        @Override
+        void apply(double[] xs, double[] ys, double[] zs, int off, int n) {
+            proj.inverseProjectRadians(xs, ys, off, n);
+        }
+    }
+
+    private static final class ForwardProjection extends Step {
+        private final Projection proj;
+
+        ForwardProjection(Projection proj) {
+            super("projection [" + proj.getName() + "]");
+            this.proj = proj;
+        }
+
+        void apply(ProjCoordinate pt) {
+            proj.projectRadians(pt, pt);
+        }
+
+        @Override
+        void apply(double[] xs, double[] ys, double[] zs, int off, int n) {
+            proj.projectRadians(xs, ys, off, n);
+        }
+    }
+
+    private static final class ToGreenwich extends Step {
+        private final PrimeMeridian primeMeridian;
+
+        ToGreenwich(PrimeMeridian primeMeridian) {
+            super("prime meridian to Greenwich [" + primeMeridian.getName() + "]");
+            this.primeMeridian = primeMeridian;
+        }
+
+        void apply(ProjCoordinate pt) {
+            primeMeridian.toGreenwich(pt);
+        }
+    }
+
+    private static final class FromGreenwich extends Step {
+        private final PrimeMeridian primeMeridian;
+
+        FromGreenwich(PrimeMeridian primeMeridian) {
+            super("prime meridian from Greenwich [" + primeMeridian.getName() + "]");
+            this.primeMeridian = primeMeridian;
+        }
+
+        void apply(ProjCoordinate pt) {
+            primeMeridian.fromGreenwich(pt);
+        }
+    }
+
+    private static final class ClearZ extends Step {
+        ClearZ() {
+            super("clear z");
+        }
+
+        void apply(ProjCoordinate pt) {
+            pt.clearZ();
+        }
+
+        @Override
+        void apply(double[] xs, double[] ys, double[] zs, int off, int n) {
+            if (zs == null) return;
+            Arrays.fill(zs, off, off + n, Double.NaN);
+        }
+    }
+
+    private static final class GridShift extends Step {
+        private final Datum datum;
+        private final boolean inverse;
+
+        GridShift(Datum datum, boolean inverse) {
+            super((inverse ? "inverse grid shift [" : "grid shift [") + datum.getCode() + "]");
+            this.datum = datum;
+            this.inverse = inverse;
+        }
+
+        void apply(ProjCoordinate pt) {
+            if (inverse) {
+                datum.inverseShift(pt);
+            } else {
+                datum.shift(pt);
+            }
+        }
     }
 
     /**
-     * Input:  long/lat/z coordinates in radians in the source datum
-     * Output: long/lat/z coordinates in radians in the target datum
-     *
-     * @param pt the point containing the input and output values
+     * Converts geodetic coordinates to geocentric, applies the datum conversions
+     * to and from WGS84, and converts back to geodetic coordinates.
+     * These are kept together in one step so that the intermediate geocentric Z value
+     * is available even when no Z ordinates are supplied.
+     * <p>
+     * When both datums are converted through WGS84, the two conversions are combined
+     * when the step is created into a single affine transform of geocentric coordinates.
      */
-    private void datumTransform(ProjCoordinate pt) {
-        /* -------------------------------------------------------------------- */
-        /*      Short cut if the datums are identical.                          */
-        /* -------------------------------------------------------------------- */
-        if (srcCRS.getDatum().isEqual(tgtCRS.getDatum())
-                || srcCRS.getDatum().getTransformType() == Datum.TYPE_UNKNOWN
-                || tgtCRS.getDatum().getTransformType() == Datum.TYPE_UNKNOWN)
-            return;
-
-        /* -------------------------------------------------------------------- */
-        /*	If this datum requires grid shifts, then apply it to geodetic    */
-        /*      coordinates.                                                    */
-        /* -------------------------------------------------------------------- */
-        if (srcCRS.getDatum().getTransformType() == Datum.TYPE_GRIDSHIFT) {
-            srcCRS.getDatum().shift(pt);
+    private static final class GeocentricShift extends Step {
+        private static final double[] IDENTITY = {1, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0};
+
+        private final GeocentricConverter srcGeoConv;
+        private final GeocentricConverter tgtGeoConv;
+        private final Datum srcDatum;
+        private final Datum tgtDatum;
+        private final boolean srcToWGS84;
+        private final boolean tgtFromWGS84;
+        // the combined conversion when both datums are converted through WGS84:
+        // the rows of a 3x3 matrix followed by a translation,
+        // or null if the conversions are applied separately or cancel out
+        private final double[] helmert;
+
+        GeocentricShift(GeocentricConverter srcGeoConv, Datum srcDatum,
+                        GeocentricConverter tgtGeoConv, Datum tgtDatum) {
+            super("geocentric datum shift [" + srcDatum.getCode() + " -> " + tgtDatum.getCode() + "]");
+            this.srcGeoConv = srcGeoConv;
+            this.tgtGeoConv = tgtGeoConv;
+            this.srcDatum = srcDatum;
+            this.tgtDatum = tgtDatum;
+
+            if (srcDatum.hasTransformToWGS84() && tgtDatum.hasTransformToWGS84()) {
+                double[] helmert = concatenate(
+                        fromWGS84(tgtDatum.getTransformToWGS84()),
+                        toWGS84(srcDatum.getTransformToWGS84()));
+                this.helmert = Arrays.equals(helmert, IDENTITY) ? null : helmert;
+                srcToWGS84 = false;
+                tgtFromWGS84 = false;
+            } else {
+                // a single conversion is applied as the datum defines it
+                helmert = null;
+                srcToWGS84 = srcDatum.hasTransformToWGS84();
+                tgtFromWGS84 = tgtDatum.hasTransformToWGS84();
+            }
         }
 
-        /* ==================================================================== */
-        /*      Do we need to go through geocentric coordinates?                */
-        /* ==================================================================== */
-        if (transformViaGeocentric) {
+        void apply(ProjCoordinate pt) {
             /* -------------------------------------------------------------------- */
             /*      Convert to geocentric coordinates.                              */
             /* -------------------------------------------------------------------- */
@@ -209,12 +518,20 @@ public class BasicCoordinateTransform implements CoordinateTransform {
             /* -------------------------------------------------------------------- */
             /*      Convert between datums.                                         */
             /* -------------------------------------------------------------------- */
-            if (srcCRS.getDatum().hasTransformToWGS84()) {
-                srcCRS.getDatum().transformFromGeocentricToWgs84(pt);
+            double[] m = helmert;
+            if (m != null) {
+                double x = pt.x, y = pt.y, z = pt.z;
+                pt.x = m[0] * x + m[1] * y + m[2] * z + m[9];
+                pt.y = m[3] * x + m[4] * y + m[5] * z + m[10];
+                pt.z = m[6] * x + m[7] * y + m[8] * z + m[11];
             }
 
-            if (tgtCRS.getDatum().hasTransformToWGS84()) {
-                tgtCRS.getDatum().transformToGeocentricFromWgs84(pt);
+            if (srcToWGS84) {
+                srcDatum.transformFromGeocentricToWgs84(pt);
+            }
+
+            if (tgtFromWGS84) {
+                tgtDatum.transformToGeocentricFromWgs84(pt);
             }
 
             /* -------------------------------------------------------------------- */
@@ -223,12 +540,52 @@ public class BasicCoordinateTransform implements CoordinateTransform {
             tgtGeoConv.convertGeocentricToGeodetic(pt);
         }
 
-        /* -------------------------------------------------------------------- */
-        /*      Apply grid shift to destination if required.                    */
-        /* -------------------------------------------------------------------- */
-        if (tgtCRS.getDatum().getTransformType() == Datum.TYPE_GRIDSHIFT) {
-            tgtCRS.getDatum().inverseShift(pt);
+        /**
+         * The transform applied by {@link Datum#transformFromGeocentricToWgs84}.
+         */
+        private static double[] toWGS84(double[] t) {
+            if (t.length == 3) {
+                return new double[]{1, 0, 0, 0, 1, 0, 0, 0, 1, t[0], t[1], t[2]};
+            }
+            double rx = t[3], ry = t[4], rz = t[5], m = t[6];
+            return new double[]{
+                    m, -m * rz, m * ry,
+                    m * rz, m, -m * rx,
+                    -m * ry, m * rx, m,
+                    t[0], t[1], t[2]};
+        }
+
+        /**
+         * The transform applied by {@link Datum#transformToGeocentricFromWgs84}.
+         */
+        private static double[] fromWGS84(double[] t) {
+            if (t.length == 3) {
+                return new double[]{1, 0, 0, 0, 1, 0, 0, 0, 1, -t[0], -t[1], -t[2]};
+            }
+            double rx = t[3], ry = t[4], rz = t[5], m = t[6];
+            double[] r = {
+                    1 / m, rz / m, -ry / m,
+                    -rz / m, 1 / m, rx / m,
+                    ry / m, -rx / m, 1 / m,
+                    0, 0, 0};
+            for (int i = 0; i < 3; i++) {
+                r[9 + i] = -(r[3 * i] * t[0] + r[3 * i + 1] * t[1] + r[3 * i + 2] * t[2]);
+            }
+            return r;
         }
-    }
 
+        /**
+         * The transform which applies a and then b.
+         */
+        private static double[] concatenate(double[] b, double[] a) {
+            double[] r = new double[12];
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    r[3 * i + j] = b[3 * i] * a[j] + b[3 * i + 1] * a[3 + j] + b[3 * i + 2] * a[6 + j];
+                }
+                r[9 + i] = b[3 * i] * a[9] + b[3 * i + 1] * a[10] + b[3 * i + 2] * a[11] + b[9 + i];
+            }
+            return r;
+        }
+    }
 }
@@ -158,6 +158,35 @@ public class CRSFactory {
         return csReader.readEpsgCodeFromFile(params);
     }
 
+    /**
+     * Finds a EPSG Code
+     * from a PROJ.4 projection parameter string,
+     * allowing each number in the parameters to differ from the EPSG definition by up to a tolerance.
+     *
+     * @param paramStr  a PROJ.4 projection parameter string
+     * @param tolerance the largest difference allowed between numbers, in the units of each parameter
+     * @return the EPSG code, or <code>null</code> if no EPSG definition matches
+     * @throws IOException if there was an issue in reading EPSG file
+     */
+    public String readEpsgFromParameters(String paramStr, double tolerance) throws IOException {
+        return readEpsgFromParameters(splitParameters(paramStr), tolerance);
+    }
+
+    /**
+     * Finds a EPSG Code
+     * defined by an array of PROJ.4 projection parameters,
+     * allowing each number in the parameters to differ from the EPSG definition by up to a tolerance.
+     * If several EPSG definitions match, the closest is found.
+     *
+     * @param params    an array of PROJ.4 projection parameters
+     * @param tolerance the largest difference allowed between numbers, in the units of each parameter
+     * @return the EPSG code, or <code>null</code> if no EPSG definition matches
+     * @throws IOException if there was an issue in reading EPSG file
+     */
+    public String readEpsgFromParameters(String[] params, double tolerance) throws IOException {
+        return csReader.readEpsgCodeFromFile(params, tolerance);
+    }
+
     private static String[] splitParameters(String paramStr) {
         String[] params = paramStr.split("\\s+");
         return params;
@@ -116,6 +116,7 @@ public class CoordinateReferenceSystem implements java.io.Serializable {
         geoProj.setEllipsoid(getProjection().getEllipsoid());
         geoProj.setUnits(Units.DEGREES);
         geoProj.initialize();
+        geoProj.freeze();
         return new CoordinateReferenceSystem("GEO-" + datum.getCode(), null, datum, geoProj);
     }
 
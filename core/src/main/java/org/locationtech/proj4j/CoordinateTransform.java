@@ -21,6 +21,11 @@ import java.io.Serializable;
  * An interface for the operation of transforming
  * a {@link ProjCoordinate} from one {@link CoordinateReferenceSystem}
  * into a different one.
+ * <p>
+ * The transforms provided by this library hold no per-call state,
+ * so a single instance may be used by several threads at once.
+ * {@link ParallelCoordinateTransform} relies on this to transform
+ * large arrays on a {@link java.util.concurrent.ForkJoinPool}.
  *
  * @author Martin Davis
  * @see CoordinateTransformFactory
@@ -44,5 +49,89 @@ public interface CoordinateTransform extends Serializable {
     ProjCoordinate transform(ProjCoordinate src, ProjCoordinate tgt)
             throws Proj4jException;
 
+    /**
+     * Transforms an array of interleaved x,y ordinates in place
+     * from the source {@link CoordinateReferenceSystem} to the target one.
+     * <p>
+     * The default implementation transforms each point in turn
+     * using {@link #transform(ProjCoordinate, ProjCoordinate)}.
+     * Implementations may override this to process the whole array
+     * one transformation step at a time.
+     * If an exception is thrown, the contents of the range being transformed are undefined:
+     * points may have been transformed, partially transformed, or left unchanged.
+     *
+     * @param xy the array of ordinates, stored as x0, y0, x1, y1, ...
+     * @param offset the index in the array of the x ordinate of the first point
+     * @param count the number of points to transform
+     * @throws Proj4jException if a computation error is encountered
+     */
+    default void transform(double[] xy, int offset, int count)
+            throws Proj4jException {
+        ProjCoordinate src = new ProjCoordinate();
+        ProjCoordinate tgt = new ProjCoordinate();
+        for (int i = offset, end = offset + 2 * count; i < end; i += 2) {
+            src.setValue(xy[i], xy[i + 1]);
+            transform(src, tgt);
+            xy[i] = tgt.x;
+            xy[i + 1] = tgt.y;
+        }
+    }
 
+    /**
+     * Transforms arrays of x, y and (optionally) z ordinates in place
+     * from the source {@link CoordinateReferenceSystem} to the target one.
+     * This is the same as {@link #transform(double[], double[], double[], int, int)}
+     * with an offset of 0.
+     *
+     * @param xs the x ordinates
+     * @param ys the y ordinates
+     * @param zs the z ordinates (may be <code>null</code>)
+     * @param n the number of points to transform
+     * @throws Proj4jException if a computation error is encountered
+     */
+    default void transform(double[] xs, double[] ys, double[] zs, int n)
+            throws Proj4jException {
+        transform(xs, ys, zs, 0, n);
+    }
+
+    /**
+     * Transforms a range of arrays of x, y and (optionally) z ordinates in place
+     * from the source {@link CoordinateReferenceSystem} to the target one.
+     * <p>
+     * If <code>zs</code> is <code>null</code> the points are treated as 2D.
+     * Otherwise the z ordinates are updated with the transformed values,
+     * following the same rules as {@link ProjCoordinate#z}.
+     * <p>
+     * The default implementation transforms each point in turn
+     * using {@link #transform(ProjCoordinate, ProjCoordinate)}.
+     * Implementations may override this to process the whole range
+     * one transformation step at a time.
+     * If an exception is thrown, the contents of the range being transformed are undefined:
+     * points may have been transformed, partially transformed, or left unchanged.
+     *
+     * @param xs the x ordinates
+     * @param ys the y ordinates
+     * @param zs the z ordinates (may be <code>null</code>)
+     * @param offset the index in the arrays of the first point
+     * @param n the number of points to transform
+     * @throws Proj4jException if a computation error is encountered
+     */
+    default void transform(double[] xs, double[] ys, double[] zs, int offset, int n)
+            throws Proj4jException {
+        ProjCoordinate src = new ProjCoordinate();
+        ProjCoordinate tgt = new ProjCoordinate();
+        for (int i = offset, end = offset + n; i < end; i++) {
+            if (zs == null) {
+                src.setValue(xs[i], ys[i]);
+            } else {
+                src.setValue(xs[i], ys[i], zs[i]);
+            }
+            transform(src, tgt);
+            xs[i] = tgt.x;
+            ys[i] = tgt.y;
+            if (zs != null) {
+                zs[i] = tgt.z;
+            }
+        }
+    }
 }
@@ -15,26 +15,163 @@
  */
 package org.locationtech.proj4j;
 
+import org.locationtech.proj4j.util.BoundedCache;
+
 /**
  * Creates {@link CoordinateTransform}s
  * from source and target {@link CoordinateReferenceSystem}s.
+ * <p>
+ * A factory may optionally cache the transforms it creates,
+ * so that repeated requests for the same pair of CRSs return
+ * the same transform instance.
+ * The cache is keyed by the identity of the source and target CRS objects,
+ * so it is most effective when CRSs are themselves shared,
+ * for instance by obtaining them from a {@link org.locationtech.proj4j.util.CRSCache}.
+ * <p>
+ * For some common pairs of CRSs, such as EPSG:4326 to EPSG:3857 or to a UTM zone,
+ * the factory creates a transform which applies the projection formula directly,
+ * rather than the general {@link BasicCoordinateTransform} pipeline.
+ * The pairs are recognized from the CRS definitions, not their names.
+ * These transforms can be disabled with {@link #setFastPathsEnabled(boolean)}.
  *
  * @author mbdavis
  */
 public class CoordinateTransformFactory {
 
+    private final BoundedCache<CRSPair, CoordinateTransform> cache;
+
+    private volatile boolean fastPaths = true;
+
+    /**
+     * Creates a factory which creates a new transform on every request.
+     */
+    public CoordinateTransformFactory() {
+        cache = null;
+    }
+
+    /**
+     * Creates a factory which caches up to <code>cacheSize</code> transforms,
+     * discarding the least recently used ones when the cache is full.
+     *
+     * @param cacheSize the maximum number of transforms to cache
+     * @throws IllegalArgumentException if the cache size is not positive
+     */
+    public CoordinateTransformFactory(int cacheSize) {
+        cache = new BoundedCache<>(cacheSize);
+    }
+
     /**
      * Creates a transformation from a source CRS to a target CRS,
      * following the logic in PROJ.4.
      * The transformation may include any or all of inverse projection, datum transformation,
      * and reprojection, depending on the nature of the coordinate reference systems
      * provided.
+     * If this factory has a cache, a previously created transform
+     * for the same CRS instances is returned if available.
      *
      * @param sourceCRS the source CoordinateReferenceSystem
      * @param targetCRS the target CoordinateReferenceSystem
      * @return a tranformation from the source CRS to the target CRS
      */
     public CoordinateTransform createTransform(CoordinateReferenceSystem sourceCRS, CoordinateReferenceSystem targetCRS) {
+        if (cache == null) {
+            return create(sourceCRS, targetCRS);
+        }
+        return cache.get(new CRSPair(sourceCRS, targetCRS),
+                k -> create(sourceCRS, targetCRS));
+    }
+
+    private CoordinateTransform create(CoordinateReferenceSystem sourceCRS, CoordinateReferenceSystem targetCRS) {
+        if (fastPaths) {
+            CoordinateTransform transform = GeographicProjectionTransform.create(sourceCRS, targetCRS);
+            if (transform != null)
+                return transform;
+        }
         return new BasicCoordinateTransform(sourceCRS, targetCRS);
     }
+
+    /**
+     * Sets whether this factory creates direct transforms for the pairs of CRSs which have them.
+     * Direct transforms are enabled by default.
+     * The UTM direct transform agrees with the general transform to within 1e-6 m,
+     * but not exactly; disabling direct transforms gives exactly the results of
+     * {@link BasicCoordinateTransform}.
+     * Transforms which are already cached are not affected.
+     *
+     * @param enabled whether to create direct transforms
+     */
+    public void setFastPathsEnabled(boolean enabled) {
+        fastPaths = enabled;
+    }
+
+    /**
+     * Tests whether this factory creates direct transforms for the pairs of CRSs which have them.
+     *
+     * @return true if direct transforms are enabled
+     */
+    public boolean isFastPathsEnabled() {
+        return fastPaths;
+    }
+
+    /**
+     * Gets the number of requests which were satisfied from the cache.
+     *
+     * @return the number of cache hits, or 0 if this factory does not cache transforms
+     */
+    public long getCacheHitCount() {
+        return cache == null ? 0 : cache.getHitCount();
+    }
+
+    /**
+     * Gets the number of requests which required a new transform to be created
+     * and added to the cache.
+     *
+     * @return the number of cache misses, or 0 if this factory does not cache transforms
+     */
+    public long getCacheMissCount() {
+        return cache == null ? 0 : cache.getMissCount();
+    }
+
+    /**
+     * Gets the number of transforms currently cached.
+     *
+     * @return the number of cached transforms
+     */
+    public int getCacheSize() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    /**
+     * Removes all cached transforms.
+     */
+    public void clearCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Cache key matching a source and target CRS by identity.
+     */
+    private static final class CRSPair {
+        private final CoordinateReferenceSystem source;
+        private final CoordinateReferenceSystem target;
+
+        CRSPair(CoordinateReferenceSystem source, CoordinateReferenceSystem target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object that) {
+            if (!(that instanceof CRSPair)) return false;
+            CRSPair p = (CRSPair) that;
+            return source == p.source && target == p.target;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(source) + System.identityHashCode(target);
+        }
+    }
 }
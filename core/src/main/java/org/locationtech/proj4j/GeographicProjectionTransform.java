@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j;
+
+import org.locationtech.proj4j.proj.ExtendedTransverseMercatorProjection;
+import org.locationtech.proj4j.proj.LongLatProjection;
+import org.locationtech.proj4j.proj.MercatorProjection;
+import org.locationtech.proj4j.proj.Projection;
+import org.locationtech.proj4j.units.Units;
+import org.locationtech.proj4j.util.ProjectionMath;
+
+/**
+ * The base class for transforms which go directly between a geographic CRS in degrees
+ * and a projected CRS on the same datum, replacing the general pipeline of
+ * {@link BasicCoordinateTransform} with a single projection formula.
+ * <p>
+ * Subclasses supply the projection formulas, working in radians relative to the central meridian
+ * and in units of the equatorial radius.
+ * This class handles the conversion from degrees,
+ * the limiting and normalization of longitudes,
+ * and the scaling and false origin of the projected CRS,
+ * in the same way as the general pipeline.
+ * As in the general pipeline, the z ordinate is cleared.
+ * <p>
+ * {@link #getSteps()} describes the general pipeline which this transform replaces.
+ */
+abstract class GeographicProjectionTransform extends BasicCoordinateTransform {
+
+    private static final double DTR = Math.PI / 180.0;
+    private static final double RTD = 180.0 / Math.PI;
+
+    // whether the source CRS is the geographic one
+    private final boolean toProjected;
+
+    private final double lon0;
+    private final double scale;
+    private final double x0;
+    private final double y0;
+
+    GeographicProjectionTransform(CoordinateReferenceSystem srcCRS, CoordinateReferenceSystem tgtCRS,
+                                  boolean toProjected) {
+        super(srcCRS, tgtCRS);
+        this.toProjected = toProjected;
+        Projection proj = (toProjected ? tgtCRS : srcCRS).getProjection();
+        lon0 = proj.getProjectionLongitude();
+        scale = proj.getEquatorRadius() * proj.getFromMetres();
+        x0 = proj.getFalseEasting() * proj.getFromMetres();
+        y0 = proj.getFalseNorthing() * proj.getFromMetres();
+    }
+
+    /**
+     * Creates a direct transform between two CRSs,
+     * if one is geographic in degrees and the other is a projection with a direct transform,
+     * and the general transform between them needs no datum, axis order or prime meridian steps.
+     *
+     * @return the direct transform, or null if there is none for this pair of CRSs
+     */
+    static BasicCoordinateTransform create(CoordinateReferenceSystem srcCRS, CoordinateReferenceSystem tgtCRS) {
+        if (srcCRS == CoordinateReferenceSystem.CS_GEO || tgtCRS == CoordinateReferenceSystem.CS_GEO)
+            return null;
+        boolean toProjected;
+        if (isGeographicDegrees(srcCRS.getProjection()))
+            toProjected = true;
+        else if (isGeographicDegrees(tgtCRS.getProjection()))
+            toProjected = false;
+        else
+            return null;
+
+        Projection proj = (toProjected ? tgtCRS : srcCRS).getProjection();
+        if (Units.DEGREES.equals(proj.getUnits()))
+            return null;
+        GeographicProjectionTransform transform;
+        if (proj.getClass() == MercatorProjection.class
+                && proj.getEllipsoid().getEccentricitySquared() == 0) {
+            transform = new WebMercatorTransform(srcCRS, tgtCRS, toProjected);
+        } else if (proj.getClass() == ExtendedTransverseMercatorProjection.class
+                && proj.getEllipsoid().getEccentricitySquared() > 0) {
+            transform = new UTMTransform(srcCRS, tgtCRS, toProjected);
+        } else {
+            return null;
+        }
+        return transform.isProjectionOnly() ? transform : null;
+    }
+
+    private static boolean isGeographicDegrees(Projection proj) {
+        return proj != null
+                && proj.getClass() == LongLatProjection.class
+                && Units.DEGREES.equals(proj.getUnits())
+                && proj.getProjectionLongitude() == 0;
+    }
+
+    /**
+     * Projects a geographic point, giving ordinates in units of the equatorial radius.
+     *
+     * @param lam the longitude relative to the central meridian, in radians
+     * @param phi the latitude, in radians
+     * @param xy the projected point
+     */
+    abstract void project(double lam, double phi, ProjCoordinate xy);
+
+    /**
+     * Inverse-projects a point given in units of the equatorial radius.
+     *
+     * @param x the x ordinate
+     * @param y the y ordinate
+     * @param lp the longitude relative to the central meridian and the latitude, in radians
+     */
+    abstract void projectInverse(double x, double y, ProjCoordinate lp);
+
+    @Override
+    public ProjCoordinate transform(ProjCoordinate src, ProjCoordinate tgt)
+            throws Proj4jException {
+        apply(src.x, src.y, tgt);
+        tgt.clearZ();
+        return tgt;
+    }
+
+    @Override
+    public void transform(double[] xy, int offset, int count)
+            throws Proj4jException {
+        ProjCoordinate p = new ProjCoordinate();
+        for (int i = offset, end = offset + 2 * count; i < end; i += 2) {
+            apply(xy[i], xy[i + 1], p);
+            xy[i] = p.x;
+            xy[i + 1] = p.y;
+        }
+    }
+
+    @Override
+    public void transform(double[] xs, double[] ys, double[] zs, int offset, int n)
+            throws Proj4jException {
+        ProjCoordinate p = new ProjCoordinate();
+        for (int i = offset, end = offset + n; i < end; i++) {
+            apply(xs[i], ys[i], p);
+            xs[i] = p.x;
+            ys[i] = p.y;
+            if (zs != null) {
+                zs[i] = Double.NaN;
+            }
+        }
+    }
+
+    private void apply(double x, double y, ProjCoordinate p) {
+        if (toProjected) {
+            double lam = x * DTR;
+            if (lam < -Math.PI)
+                lam = -Math.PI;
+            else if (lam > Math.PI)
+                lam = Math.PI;
+            if (lon0 != 0)
+                lam = ProjectionMath.normalizeLongitude(lam - lon0);
+            project(lam, y * DTR, p);
+            p.x = scale * p.x + x0;
+            p.y = scale * p.y + y0;
+        } else {
+            projectInverse((x - x0) / scale, (y - y0) / scale, p);
+            double lam = p.x;
+            if (lam < -Math.PI)
+                lam = -Math.PI;
+            else if (lam > Math.PI)
+                lam = Math.PI;
+            if (lon0 != 0)
+                lam = ProjectionMath.normalizeLongitude(lam + lon0);
+            p.x = lam * RTD;
+            p.y = p.y * RTD;
+        }
+    }
+}
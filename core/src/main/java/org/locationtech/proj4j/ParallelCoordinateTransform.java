@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A {@link CoordinateTransform} which transforms large coordinate arrays
+ * in parallel, by splitting them into chunks which are transformed
+ * by another transform on a {@link ForkJoinPool}.
+ * <p>
+ * The wrapped transform is shared by all the worker threads,
+ * so it must be safe for concurrent use.
+ * This is the case for the transforms created by {@link CoordinateTransformFactory}
+ * and for {@link ApproximateCoordinateTransform}.
+ * <p>
+ * Arrays of at most the chunk size are transformed in the calling thread.
+ * Single points are always transformed in the calling thread.
+ */
+public class ParallelCoordinateTransform implements CoordinateTransform {
+
+    /**
+     * The default number of points transformed by each task
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16384;
+
+    private final CoordinateTransform transform;
+    private final int chunkSize;
+
+    // pools are not serializable; a deserialized transform uses the common pool
+    private transient ForkJoinPool pool;
+
+    /**
+     * Creates a parallel transform which runs on the common {@link ForkJoinPool}.
+     *
+     * @param transform the transform to apply to each chunk
+     */
+    public ParallelCoordinateTransform(CoordinateTransform transform) {
+        this(transform, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a parallel transform which runs on a given {@link ForkJoinPool}.
+     *
+     * @param transform the transform to apply to each chunk
+     * @param pool the pool to run on
+     */
+    public ParallelCoordinateTransform(CoordinateTransform transform, ForkJoinPool pool) {
+        this(transform, pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a parallel transform which runs on a given {@link ForkJoinPool}
+     * with a given chunk size.
+     *
+     * @param transform the transform to apply to each chunk
+     * @param pool the pool to run on
+     * @param chunkSize the maximum number of points transformed by each task
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public ParallelCoordinateTransform(CoordinateTransform transform, ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        this.transform = transform;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public CoordinateReferenceSystem getSourceCRS() {
+        return transform.getSourceCRS();
+    }
+
+    @Override
+    public CoordinateReferenceSystem getTargetCRS() {
+        return transform.getTargetCRS();
+    }
+
+    /**
+     * Gets the transform which is applied to each chunk.
+     *
+     * @return the wrapped transform
+     */
+    public CoordinateTransform getTransform() {
+        return transform;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public ProjCoordinate transform(ProjCoordinate src, ProjCoordinate tgt)
+            throws Proj4jException {
+        return transform.transform(src, tgt);
+    }
+
+    @Override
+    public void transform(double[] xy, int offset, int count)
+            throws Proj4jException {
+        if (count <= chunkSize) {
+            transform.transform(xy, offset, count);
+            return;
+        }
+        getPool().invoke(new InterleavedTask(xy, offset, count));
+    }
+
+    @Override
+    public void transform(double[] xs, double[] ys, double[] zs, int offset, int n)
+            throws Proj4jException {
+        if (n <= chunkSize) {
+            transform.transform(xs, ys, zs, offset, n);
+            return;
+        }
+        getPool().invoke(new SplitTask(xs, ys, zs, offset, n));
+    }
+
+    private ForkJoinPool getPool() {
+        return pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
+    private final class InterleavedTask extends RecursiveAction {
+        private final double[] xy;
+        private final int offset;
+        private final int count;
+
+        InterleavedTask(double[] xy, int offset, int count) {
+            this.xy = xy;
+            this.offset = offset;
+            this.count = count;
+        }
+
+        @Override
+        protected void compute() {
+            if (count <= chunkSize) {
+                transform.transform(xy, offset, count);
+                return;
+            }
+            int half = count / 2;
+            invokeAll(new InterleavedTask(xy, offset, half),
+                    new InterleavedTask(xy, offset + 2 * half, count - half));
+        }
+    }
+
+    /**
+     * Transforms a range of separate ordinate arrays.
+     */
+    private final class SplitTask extends RecursiveAction {
+        private final double[] xs;
+        private final double[] ys;
+        private final double[] zs;
+        private final int start;
+        private final int n;
+
+        SplitTask(double[] xs, double[] ys, double[] zs, int start, int n) {
+            this.xs = xs;
+            this.ys = ys;
+            this.zs = zs;
+            this.start = start;
+            this.n = n;
+        }
+
+        @Override
+        protected void compute() {
+            if (n > chunkSize) {
+                int half = n / 2;
+                invokeAll(new SplitTask(xs, ys, zs, start, half),
+                        new SplitTask(xs, ys, zs, start + half, n - half));
+                return;
+            }
+            transform.transform(xs, ys, zs, start, n);
+        }
+    }
+}
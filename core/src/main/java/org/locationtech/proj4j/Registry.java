@@ -16,13 +16,16 @@
 package org.locationtech.proj4j;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.locationtech.proj4j.datum.Datum;
 import org.locationtech.proj4j.datum.Ellipsoid;
 import org.locationtech.proj4j.proj.*;
+import org.locationtech.proj4j.util.NameIndex;
 
 /**
  * Supplies predefined values for various library classes
@@ -37,6 +40,13 @@ public class Registry {
         initialize();
     }
 
+    /**
+     * The predefined datums.
+     *
+     * @deprecated changes to this array are not seen by {@link #getDatum(String)};
+     * use {@link #registerDatum(Datum)} to add a datum
+     */
+    @Deprecated
     public final static Datum[] datums = {
             Datum.WGS84,
             Datum.GGRS87,
@@ -50,15 +60,33 @@ public class Registry {
             Datum.OSGB36
     };
 
+    private static final Map<String, Datum> DATUMS = NameIndex.index(datums, Datum::getCode);
+
+    // replaced as a whole when a datum is registered, so lookups need no locking
+    private volatile Map<String, Datum> datumIndex = DATUMS;
+
     public Datum getDatum(String code) {
-        for (int i = 0; i < datums.length; i++) {
-            if (datums[i].getCode().equals(code)) {
-                return datums[i];
-            }
-        }
-        return null;
+        return datumIndex.get(code);
+    }
+
+    /**
+     * Adds a datum to those which can be found by {@link #getDatum(String)},
+     * replacing any datum with the same code.
+     * This may be called at any time, from any thread.
+     *
+     * @param datum the datum to register
+     */
+    public synchronized void registerDatum(Datum datum) {
+        datumIndex = with(datumIndex, datum.getCode(), datum);
     }
 
+    /**
+     * The predefined ellipsoids.
+     *
+     * @deprecated changes to this array are not seen by {@link #getEllipsoid(String)};
+     * use {@link #registerEllipsoid(Ellipsoid)} to add an ellipsoid
+     */
+    @Deprecated
     public final static Ellipsoid[] ellipsoids = {
             Ellipsoid.SPHERE,
             new Ellipsoid("MERIT", 6378137.0, 0.0, 298.257, "MERIT 1983"),
@@ -106,39 +134,48 @@ public class Registry {
             new Ellipsoid("NAD83", 6378137.0, 0.0, 298.257222101, "NAD83: GRS 1980 (IUGG, 1980)"),
     };
 
+    private static final Map<String, Ellipsoid> ELLIPSOIDS = NameIndex.index(ellipsoids, Ellipsoid::getShortName);
+
+    private volatile Map<String, Ellipsoid> ellipsoidIndex = ELLIPSOIDS;
+
     public Ellipsoid getEllipsoid(String name) {
-        for (int i = 0; i < ellipsoids.length; i++) {
-            if (ellipsoids[i].shortName.equals(name)) {
-                return ellipsoids[i];
-            }
-        }
-        return null;
+        return ellipsoidIndex.get(name);
     }
 
-    private Map<String, Class> projRegistry;
+    /**
+     * Adds an ellipsoid to those which can be found by {@link #getEllipsoid(String)},
+     * replacing any ellipsoid with the same short name.
+     * This may be called at any time, from any thread.
+     *
+     * @param ellipsoid the ellipsoid to register
+     */
+    public synchronized void registerEllipsoid(Ellipsoid ellipsoid) {
+        ellipsoidIndex = with(ellipsoidIndex, ellipsoid.getShortName(), ellipsoid);
+    }
 
-    private void register(String name, Class cls, String description) {
-        projRegistry.put(name, cls);
+    private static <T> Map<String, T> with(Map<String, T> index, String key, T value) {
+        Map<String, T> copy = new HashMap<>(index);
+        copy.put(key, value);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private Map<String, Supplier<Projection>> projRegistry;
+
+    private void register(String name, Supplier<Projection> factory, String description) {
+        projRegistry.put(name, factory);
+    }
+
+    private void register(String name, String description) {
+        register(name, () -> createProjection(name), description);
     }
 
     public Projection getProjection(String name) {
-        // if ( projRegistry == null )
-        // initialize();
-        Class cls = (Class) projRegistry.get(name);
-        if (cls != null) {
-            try {
-                Projection projection = (Projection) cls.newInstance();
-                if (projection != null)
-                    projection.setName(name);
-                return projection;
-            } catch (IllegalAccessException e) {
-                e.printStackTrace();
-            } catch (InstantiationException e) {
-                System.err.println("Cannot instantiate projection " + name + " [" + cls.getName() + "]");
-                e.printStackTrace();
-            }
-        }
-        return null;
+        Supplier<Projection> factory = projRegistry.get(name);
+        if (factory == null)
+            return null;
+        Projection projection = factory.get();
+        projection.setName(name);
+        return projection;
     }
 
     public List<Projection> getProjections() {
@@ -159,134 +196,326 @@ public class Registry {
         // guard against race condition
         if (projRegistry != null)
             return;
-        projRegistry = new HashMap();
-        register("aea", AlbersProjection.class, "Albers Equal Area");
-        register("aeqd", EquidistantAzimuthalProjection.class, "Azimuthal Equidistant");
-        register("airy", AiryProjection.class, "Airy");
-        register("aitoff", AitoffProjection.class, "Aitoff");
-        register("alsk", Projection.class, "Mod. Stereographics of Alaska");
-        register("apian", Projection.class, "Apian Globular I");
-        register("august", AugustProjection.class, "August Epicycloidal");
-        register("bacon", Projection.class, "Bacon Globular");
-        register("bipc", BipolarProjection.class, "Bipolar conic of western hemisphere");
-        register("boggs", BoggsProjection.class, "Boggs Eumorphic");
-        register("bonne", BonneProjection.class, "Bonne (Werner lat_1=90)");
-        register("cass", CassiniProjection.class, "Cassini");
-        register("cc", CentralCylindricalProjection.class, "Central Cylindrical");
-        register("cea", CylindricalEqualAreaProjection.class, "Equal Area Cylindrical");
+        projRegistry = new HashMap<>();
+        register("aea", "Albers Equal Area");
+        register("aeqd", "Azimuthal Equidistant");
+        register("airy", "Airy");
+        register("aitoff", "Aitoff");
+        // register( "alsk", Projection.class, "Mod. Stereographics of Alaska" );
+        // register( "apian", Projection.class, "Apian Globular I" );
+        register("august", "August Epicycloidal");
+        // register( "bacon", Projection.class, "Bacon Globular" );
+        register("bipc", "Bipolar conic of western hemisphere");
+        register("boggs", "Boggs Eumorphic");
+        register("bonne", "Bonne (Werner lat_1=90)");
+        register("cass", "Cassini");
+        register("cc", "Central Cylindrical");
+        register("cea", "Equal Area Cylindrical");
         // register( "chamb", Projection.class, "Chamberlin Trimetric" );
-        register("collg", CollignonProjection.class, "Collignon");
-        register("crast", CrasterProjection.class, "Craster Parabolic (Putnins P4)");
-        register("denoy", DenoyerProjection.class, "Denoyer Semi-Elliptical");
-        register("eck1", Eckert1Projection.class, "Eckert I");
-        register("eck2", Eckert2Projection.class, "Eckert II");
+        register("collg", "Collignon");
+        register("crast", "Craster Parabolic (Putnins P4)");
+        register("denoy", "Denoyer Semi-Elliptical");
+        register("eck1", "Eckert I");
+        register("eck2", "Eckert II");
         // register( "eck3", Eckert3Projection.class, "Eckert III" );
-        register("eck4", Eckert4Projection.class, "Eckert IV");
-        register("eck5", Eckert5Projection.class, "Eckert V");
-        register("eck6", Eckert6Projection.class, "Eckert VI");
-        register("eqc", PlateCarreeProjection.class, "Equidistant Cylindrical (Plate Caree)");
-        register("eqdc", EquidistantConicProjection.class, "Equidistant Conic");
-        register("euler", EulerProjection.class, "Euler");
-        register("fahey", FaheyProjection.class, "Fahey");
-        register("fouc", FoucautProjection.class, "Foucaut");
-        register("fouc_s", FoucautSinusoidalProjection.class, "Foucaut Sinusoidal");
-        register("gall", GallProjection.class, "Gall (Gall Stereographic)");
-        register("geocent", GeocentProjection.class, "Geocentric");
-        register("geos", GeostationarySatelliteProjection.class, "Geostationary Satellite");
+        register("eck4", "Eckert IV");
+        register("eck5", "Eckert V");
+        register("eck6", "Eckert VI");
+        register("eqc", "Equidistant Cylindrical (Plate Caree)");
+        register("eqdc", "Equidistant Conic");
+        register("euler", "Euler");
+        register("fahey", "Fahey");
+        register("fouc", "Foucaut");
+        register("fouc_s", "Foucaut Sinusoidal");
+        register("gall", "Gall (Gall Stereographic)");
+        register("geocent", "Geocentric");
+        register("geos", "Geostationary Satellite");
         // register( "gins8", Projection.class, "Ginsburg VIII (TsNIIGAiK)" );
         // register( "gn_sinu", Projection.class, "General Sinusoidal Series" );
-        register("gnom", GnomonicAzimuthalProjection.class, "Gnomonic");
-        register("goode", GoodeProjection.class, "Goode Homolosine");
+        register("gnom", "Gnomonic");
+        register("goode", "Goode Homolosine");
         // register( "gs48", Projection.class, "Mod. Stererographics of 48 U.S." );
         // register( "gs50", Projection.class, "Mod. Stererographics of 50 U.S." );
-        register("hammer", HammerProjection.class, "Hammer & Eckert-Greifendorff");
-        register("hatano", HatanoProjection.class, "Hatano Asymmetrical Equal Area");
+        register("hammer", "Hammer & Eckert-Greifendorff");
+        register("hatano", "Hatano Asymmetrical Equal Area");
         // register( "imw_p", Projection.class, "Internation Map of the World Polyconic" );
-        register("kav5", KavraiskyVProjection.class, "Kavraisky V");
+        register("kav5", "Kavraisky V");
         // register( "kav7", Projection.class, "Kavraisky VII" );
-        register("krovak", KrovakProjection.class, "Krovak");
+        register("krovak", "Krovak");
         // register( "labrd", Projection.class, "Laborde" );
-        register("laea", LambertAzimuthalEqualAreaProjection.class, "Lambert Azimuthal Equal Area");
-        register("lagrng", LagrangeProjection.class, "Lagrange");
-        register("larr", LarriveeProjection.class, "Larrivee");
-        register("lask", LaskowskiProjection.class, "Laskowski");
-        register("latlong", LongLatProjection.class, "Lat/Long (Geodetic alias)");
-        register("longlat", LongLatProjection.class, "Lat/Long (Geodetic alias)");
-        register("latlon", LongLatProjection.class, "Lat/Long (Geodetic alias)");
-        register("lonlat", LongLatProjection.class, "Lat/Long (Geodetic)");
-        register("lcc", LambertConformalConicProjection.class, "Lambert Conformal Conic");
-        register("leac", LambertEqualAreaConicProjection.class, "Lambert Equal Area Conic");
+        register("laea", "Lambert Azimuthal Equal Area");
+        register("lagrng", "Lagrange");
+        register("larr", "Larrivee");
+        register("lask", "Laskowski");
+        register("latlong", "Lat/Long (Geodetic alias)");
+        register("longlat", "Lat/Long (Geodetic alias)");
+        register("latlon", "Lat/Long (Geodetic alias)");
+        register("lonlat", "Lat/Long (Geodetic)");
+        register("lcc", "Lambert Conformal Conic");
+        register("leac", "Lambert Equal Area Conic");
         // register( "lee_os", Projection.class, "Lee Oblated Stereographic" );
-        register("loxim", LoximuthalProjection.class, "Loximuthal");
-        register("lsat", LandsatProjection.class, "Space oblique for LANDSAT");
+        register("loxim", "Loximuthal");
+        register("lsat", "Space oblique for LANDSAT");
         // register( "mbt_s", Projection.class, "McBryde-Thomas Flat-Polar Sine" );
-        register("mbt_fps", McBrydeThomasFlatPolarSine2Projection.class, "McBryde-Thomas Flat-Pole Sine (No. 2)");
-        register("mbtfpp", McBrydeThomasFlatPolarParabolicProjection.class, "McBride-Thomas Flat-Polar Parabolic");
-        register("mbtfpq", McBrydeThomasFlatPolarQuarticProjection.class, "McBryde-Thomas Flat-Polar Quartic");
+        register("mbt_fps", "McBryde-Thomas Flat-Pole Sine (No. 2)");
+        register("mbtfpp", "McBride-Thomas Flat-Polar Parabolic");
+        register("mbtfpq", "McBryde-Thomas Flat-Polar Quartic");
         // register( "mbtfps", Projection.class, "McBryde-Thomas Flat-Polar Sinusoidal" );
-        register("merc", MercatorProjection.class, "Mercator");
+        register("merc", "Mercator");
         // register( "mil_os", Projection.class, "Miller Oblated Stereographic" );
-        register("mill", MillerProjection.class, "Miller Cylindrical");
+        register("mill", "Miller Cylindrical");
         // register( "mpoly", Projection.class, "Modified Polyconic" );
-        register("moll", MolleweideProjection.class, "Mollweide");
-        register("murd1", Murdoch1Projection.class, "Murdoch I");
-        register("murd2", Murdoch2Projection.class, "Murdoch II");
-        register("murd3", Murdoch3Projection.class, "Murdoch III");
-        register("nell", NellProjection.class, "Nell");
+        register("moll", "Mollweide");
+        register("murd1", "Murdoch I");
+        register("murd2", "Murdoch II");
+        register("murd3", "Murdoch III");
+        register("nell", "Nell");
         // register( "nell_h", Projection.class, "Nell-Hammer" );
-        register("nicol", NicolosiProjection.class, "Nicolosi Globular");
-        register("nsper", PerspectiveProjection.class, "Near-sided perspective");
-        register("nzmg", NewZealandMapGridProjection.class, "New Zealand Map Grid");
+        register("nicol", "Nicolosi Globular");
+        register("nsper", "Near-sided perspective");
+        register("nzmg", "New Zealand Map Grid");
         // register( "ob_tran", Projection.class, "General Oblique Transformation" );
         // register( "ocea", Projection.class, "Oblique Cylindrical Equal Area" );
         // register( "oea", Projection.class, "Oblated Equal Area" );
-        register("omerc", ObliqueMercatorProjection.class, "Oblique Mercator");
+        register("omerc", "Oblique Mercator");
         // register( "ortel", Projection.class, "Ortelius Oval" );
-        register("ortho", OrthographicAzimuthalProjection.class, "Orthographic");
-        register("pconic", PerspectiveConicProjection.class, "Perspective Conic");
-        register("poly", PolyconicProjection.class, "Polyconic (American)");
+        register("ortho", "Orthographic");
+        register("pconic", "Perspective Conic");
+        register("poly", "Polyconic (American)");
         // register( "putp1", Projection.class, "Putnins P1" );
-        register("putp2", PutninsP2Projection.class, "Putnins P2");
+        register("putp2", "Putnins P2");
         // register( "putp3", Projection.class, "Putnins P3" );
         // register( "putp3p", Projection.class, "Putnins P3'" );
-        register("putp4p", PutninsP4Projection.class, "Putnins P4'");
-        register("putp5", PutninsP5Projection.class, "Putnins P5");
-        register("putp5p", PutninsP5PProjection.class, "Putnins P5'");
+        register("putp4p", "Putnins P4'");
+        register("putp5", "Putnins P5");
+        register("putp5p", "Putnins P5'");
         // register( "putp6", Projection.class, "Putnins P6" );
         // register( "putp6p", Projection.class, "Putnins P6'" );
-        register("qua_aut", QuarticAuthalicProjection.class, "Quartic Authalic");
-        register("robin", RobinsonProjection.class, "Robinson");
-        register("rpoly", RectangularPolyconicProjection.class, "Rectangular Polyconic");
-        register("sinu", SinusoidalProjection.class, "Sinusoidal (Sanson-Flamsteed)");
-        register("somerc", SwissObliqueMercatorProjection.class, "Swiss Oblique Mercator");
-        register("stere", StereographicAzimuthalProjection.class, "Stereographic");
-        register("sterea", ObliqueStereographicAlternativeProjection.class, "Oblique Stereographic Alternative");
-        register("tcc", TranverseCentralCylindricalProjection.class, "Transverse Central Cylindrical");
-        register("tcea", TransverseCylindricalEqualArea.class, "Transverse Cylindrical Equal Area");
+        register("qua_aut", "Quartic Authalic");
+        register("robin", "Robinson");
+        register("rpoly", "Rectangular Polyconic");
+        register("sinu", "Sinusoidal (Sanson-Flamsteed)");
+        register("somerc", "Swiss Oblique Mercator");
+        register("stere", "Stereographic");
+        register("sterea", "Oblique Stereographic Alternative");
+        register("tcc", "Transverse Central Cylindrical");
+        register("tcea", "Transverse Cylindrical Equal Area");
         // register( "tissot", TissotProjection.class, "Tissot Conic" );
-        register("tmerc", TransverseMercatorProjection.class, "Transverse Mercator");
-        register("etmerc", ExtendedTransverseMercatorProjection.class, "Extended Transverse Mercator");
+        register("tmerc", "Transverse Mercator");
+        register("etmerc", "Extended Transverse Mercator");
         // register( "tpeqd", Projection.class, "Two Point Equidistant" );
         // register( "tpers", Projection.class, "Tilted perspective" );
         // register( "ups", Projection.class, "Universal Polar Stereographic" );
         // register( "urm5", Projection.class, "Urmaev V" );
-        register("urmfps", UrmaevFlatPolarSinusoidalProjection.class, "Urmaev Flat-Polar Sinusoidal");
-        register("utm", ExtendedTransverseMercatorProjection.class, "Universal Transverse Mercator (UTM)");
-        register("vandg", VanDerGrintenProjection.class, "van der Grinten (I)");
+        register("urmfps", "Urmaev Flat-Polar Sinusoidal");
+        register("utm", "Universal Transverse Mercator (UTM)");
+        register("vandg", "van der Grinten (I)");
         // register( "vandg2", Projection.class, "van der Grinten II" );
         // register( "vandg3", Projection.class, "van der Grinten III" );
         // register( "vandg4", Projection.class, "van der Grinten IV" );
-        register("vitk1", VitkovskyProjection.class, "Vitkovsky I");
-        register("wag1", Wagner1Projection.class, "Wagner I (Kavraisky VI)");
-        register("wag2", Wagner2Projection.class, "Wagner II");
-        register("wag3", Wagner3Projection.class, "Wagner III");
-        register("wag4", Wagner4Projection.class, "Wagner IV");
-        register("wag5", Wagner5Projection.class, "Wagner V");
+        register("vitk1", "Vitkovsky I");
+        register("wag1", "Wagner I (Kavraisky VI)");
+        register("wag2", "Wagner II");
+        register("wag3", "Wagner III");
+        register("wag4", "Wagner IV");
+        register("wag5", "Wagner V");
         // register( "wag6", Projection.class, "Wagner VI" );
-        register("wag7", Wagner7Projection.class, "Wagner VII");
-        register("weren", WerenskioldProjection.class, "Werenskiold I");
+        register("wag7", "Wagner VII");
+        register("weren", "Werenskiold I");
         // register( "wink1", Projection.class, "Winkel I" );
         // register( "wink2", Projection.class, "Winkel II" );
-        register("wintri", WinkelTripelProjection.class, "Winkel Tripel");
+        register("wintri", "Winkel Tripel");
+    }
+
+    /**
+     * Creates one of the projections provided by this library.
+     * Projections are created by name rather than by reflection,
+     * and the class of a projection is only loaded when the projection is first created.
+     */
+    private static Projection createProjection(String name) {
+        switch (name) {
+            case "aea":
+                return new AlbersProjection();
+            case "aeqd":
+                return new EquidistantAzimuthalProjection();
+            case "airy":
+                return new AiryProjection();
+            case "aitoff":
+                return new AitoffProjection();
+            case "august":
+                return new AugustProjection();
+            case "bipc":
+                return new BipolarProjection();
+            case "boggs":
+                return new BoggsProjection();
+            case "bonne":
+                return new BonneProjection();
+            case "cass":
+                return new CassiniProjection();
+            case "cc":
+                return new CentralCylindricalProjection();
+            case "cea":
+                return new CylindricalEqualAreaProjection();
+            case "collg":
+                return new CollignonProjection();
+            case "crast":
+                return new CrasterProjection();
+            case "denoy":
+                return new DenoyerProjection();
+            case "eck1":
+                return new Eckert1Projection();
+            case "eck2":
+                return new Eckert2Projection();
+            case "eck4":
+                return new Eckert4Projection();
+            case "eck5":
+                return new Eckert5Projection();
+            case "eck6":
+                return new Eckert6Projection();
+            case "eqc":
+                return new PlateCarreeProjection();
+            case "eqdc":
+                return new EquidistantConicProjection();
+            case "euler":
+                return new EulerProjection();
+            case "fahey":
+                return new FaheyProjection();
+            case "fouc":
+                return new FoucautProjection();
+            case "fouc_s":
+                return new FoucautSinusoidalProjection();
+            case "gall":
+                return new GallProjection();
+            case "geocent":
+                return new GeocentProjection();
+            case "geos":
+                return new GeostationarySatelliteProjection();
+            case "gnom":
+                return new GnomonicAzimuthalProjection();
+            case "goode":
+                return new GoodeProjection();
+            case "hammer":
+                return new HammerProjection();
+            case "hatano":
+                return new HatanoProjection();
+            case "kav5":
+                return new KavraiskyVProjection();
+            case "krovak":
+                return new KrovakProjection();
+            case "laea":
+                return new LambertAzimuthalEqualAreaProjection();
+            case "lagrng":
+                return new LagrangeProjection();
+            case "larr":
+                return new LarriveeProjection();
+            case "lask":
+                return new LaskowskiProjection();
+            case "latlong":
+                return new LongLatProjection();
+            case "longlat":
+                return new LongLatProjection();
+            case "latlon":
+                return new LongLatProjection();
+            case "lonlat":
+                return new LongLatProjection();
+            case "lcc":
+                return new LambertConformalConicProjection();
+            case "leac":
+                return new LambertEqualAreaConicProjection();
+            case "loxim":
+                return new LoximuthalProjection();
+            case "lsat":
+                return new LandsatProjection();
+            case "mbt_fps":
+                return new McBrydeThomasFlatPolarSine2Projection();
+            case "mbtfpp":
+                return new McBrydeThomasFlatPolarParabolicProjection();
+            case "mbtfpq":
+                return new McBrydeThomasFlatPolarQuarticProjection();
+            case "merc":
+                return new MercatorProjection();
+            case "mill":
+                return new MillerProjection();
+            case "moll":
+                return new MolleweideProjection();
+            case "murd1":
+                return new Murdoch1Projection();
+            case "murd2":
+                return new Murdoch2Projection();
+            case "murd3":
+                return new Murdoch3Projection();
+            case "nell":
+                return new NellProjection();
+            case "nicol":
+                return new NicolosiProjection();
+            case "nsper":
+                return new PerspectiveProjection();
+            case "nzmg":
+                return new NewZealandMapGridProjection();
+            case "omerc":
+                return new ObliqueMercatorProjection();
+            case "ortho":
+                return new OrthographicAzimuthalProjection();
+            case "pconic":
+                return new PerspectiveConicProjection();
+            case "poly":
+                return new PolyconicProjection();
+            case "putp2":
+                return new PutninsP2Projection();
+            case "putp4p":
+                return new PutninsP4Projection();
+            case "putp5":
+                return new PutninsP5Projection();
+            case "putp5p":
+                return new PutninsP5PProjection();
+            case "qua_aut":
+                return new QuarticAuthalicProjection();
+            case "robin":
+                return new RobinsonProjection();
+            case "rpoly":
+                return new RectangularPolyconicProjection();
+            case "sinu":
+                return new SinusoidalProjection();
+            case "somerc":
+                return new SwissObliqueMercatorProjection();
+            case "stere":
+                return new StereographicAzimuthalProjection();
+            case "sterea":
+                return new ObliqueStereographicAlternativeProjection();
+            case "tcc":
+                return new TranverseCentralCylindricalProjection();
+            case "tcea":
+                return new TransverseCylindricalEqualArea();
+            case "tmerc":
+                return new TransverseMercatorProjection();
+            case "etmerc":
+                return new ExtendedTransverseMercatorProjection();
+            case "urmfps":
+                return new UrmaevFlatPolarSinusoidalProjection();
+            case "utm":
+                return new ExtendedTransverseMercatorProjection();
+            case "vandg":
+                return new VanDerGrintenProjection();
+            case "vitk1":
+                return new VitkovskyProjection();
+            case "wag1":
+                return new Wagner1Projection();
+            case "wag2":
+                return new Wagner2Projection();
+            case "wag3":
+                return new Wagner3Projection();
+            case "wag4":
+                return new Wagner4Projection();
+            case "wag5":
+                return new Wagner5Projection();
+            case "wag7":
+                return new Wagner7Projection();
+            case "weren":
+                return new WerenskioldProjection();
+            case "wintri":
+                return new WinkelTripelProjection();
+            default:
+                throw new IllegalArgumentException("No such projection: " + name);
+        }
     }
 }
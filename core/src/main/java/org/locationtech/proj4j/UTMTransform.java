@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j;
+
+import org.locationtech.proj4j.proj.ExtendedTransverseMercatorProjection;
+
+/**
+ * A direct transform between geographic coordinates in degrees and
+ * a UTM (or other extended transverse Mercator) projection on the same datum,
+ * such as EPSG:4326 and EPSG:32633.
+ * <p>
+ * Points are projected with the 6th order Krüger series,
+ * using the coefficients computed by the {@link ExtendedTransverseMercatorProjection etmerc} projection.
+ * The series are evaluated with fewer trigonometric and hyperbolic functions,
+ * using the identities between the functions of an angle and of twice the angle,
+ * so the results agree with those of the general transform to within 1e-6 m
+ * (and 1e-11 degrees) rather than exactly.
+ * As in the general transform, points more than about 150 degrees from the central meridian
+ * project to infinity; projected points beyond that inverse-project to NaN.
+ * Instances are created by {@link CoordinateTransformFactory}.
+ */
+final class UTMTransform extends GeographicProjectionTransform {
+
+    private static final int ORDER = 6;
+
+    // the limit of the normalized easting, about 150 degrees from the central meridian
+    private static final double ETA_LIMIT = 2.623395162778;
+
+    private final double[] cgb; // conformal to geodetic latitude
+    private final double[] cbg; // geodetic to conformal latitude
+    private final double[] utg; // transverse Mercator to conformal sphere
+    private final double[] gtu; // conformal sphere to transverse Mercator
+
+    // the scaled rectifying radius, and the northing of the origin, in units of the equatorial radius
+    private final double Qn;
+    private final double Zb;
+
+    UTMTransform(CoordinateReferenceSystem srcCRS, CoordinateReferenceSystem tgtCRS, boolean toProjected) {
+        super(srcCRS, tgtCRS, toProjected);
+        ExtendedTransverseMercatorProjection proj =
+                (ExtendedTransverseMercatorProjection) (toProjected ? tgtCRS : srcCRS).getProjection();
+        cgb = proj.getGaussToGeodeticCoefficients();
+        cbg = proj.getGeodeticToGaussCoefficients();
+        utg = proj.getEllipsoidToSphereCoefficients();
+        gtu = proj.getSphereToEllipsoidCoefficients();
+        Qn = proj.getScaledMeridianQuadrant();
+        Zb = proj.getOriginNorthing();
+    }
+
+    /**
+     * Sums a[0] + a[1] * U1 + ... for the real Clenshaw summation of sines,
+     * given twice the cosine of the double angle.
+     * The sum of a[j] * sin(2 (j + 1) x) is the result times sin(2x).
+     */
+    private static double clenshaw(double[] a, double twoCos) {
+        double h2 = 0, h1 = 0, h = 0;
+        for (int j = ORDER; j-- > 0; ) {
+            h = -h2 + twoCos * h1 + a[j];
+            h2 = h1;
+            h1 = h;
+        }
+        return h;
+    }
+
+    @Override
+    void project(double lam, double phi, ProjCoordinate xy) {
+        // geodetic to conformal latitude; sin 2phi and cos 2phi from sin phi and cos phi
+        double sinPhi = Math.sin(phi);
+        double cosPhi = Math.cos(phi);
+        double chi = phi + 2 * sinPhi * cosPhi * clenshaw(cbg, 2 * (cosPhi - sinPhi) * (cosPhi + sinPhi));
+        double sinChi = Math.sin(chi);
+        double cosChi = Math.cos(chi);
+
+        // conformal sphere to the spherical transverse Mercator xi', eta'
+        double u = sinChi;
+        double v = cosChi * Math.sin(lam);
+        double w = cosChi * Math.cos(lam);
+        double r2 = u * u + w * w;
+        double r = Math.sqrt(r2);
+        double xi = Math.atan2(u, w);
+        double s = Math.abs(v) / r;
+        double eta = Math.log1p(s + s * s / (1 + Math.sqrt(1 + s * s)));
+        if (v < 0)
+            eta = -eta;
+
+        // sin 2xi', cos 2xi', sinh 2eta', cosh 2eta', using u^2 + v^2 + w^2 = 1
+        double sin2Xi = 2 * u * w / r2;
+        double cos2Xi = (w - u) * (w + u) / r2;
+        double sinh2Eta = 2 * v / r2;
+        double cosh2Eta = (1 + v * v) / r2;
+
+        // Krüger series for the ellipsoidal xi, eta
+        double cr = 2 * cos2Xi * cosh2Eta;
+        double ci = -2 * sin2Xi * sinh2Eta;
+        double hr = 0, hi = 0, hr1 = 0, hi1 = 0, hr2, hi2;
+        for (int j = ORDER; j-- > 0; ) {
+            hr2 = hr1;
+            hi2 = hi1;
+            hr1 = hr;
+            hi1 = hi;
+            hr = -hr2 + cr * hr1 - ci * hi1 + gtu[j];
+            hi = -hi2 + ci * hr1 + cr * hi1;
+        }
+        double sr = sin2Xi * cosh2Eta;
+        double si = cos2Xi * sinh2Eta;
+        xi += sr * hr - si * hi;
+        eta += sr * hi + si * hr;
+
+        if (Math.abs(eta) <= ETA_LIMIT) {
+            xy.x = Qn * eta;
+            xy.y = Qn * xi + Zb;
+        } else {
+            xy.x = xy.y = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    @Override
+    void projectInverse(double x, double y, ProjCoordinate lp) {
+        double xi = (y - Zb) / Qn;
+        double eta = x / Qn;
+        if (!(Math.abs(eta) <= ETA_LIMIT)) {
+            lp.x = lp.y = Double.NaN;
+            return;
+        }
+
+        // Krüger series for the spherical xi', eta'
+        double sin2Xi = Math.sin(2 * xi);
+        double cos2Xi = Math.cos(2 * xi);
+        double e2 = Math.exp(2 * eta);
+        double sinh2Eta = 0.5 * (e2 - 1 / e2);
+        double cosh2Eta = 0.5 * (e2 + 1 / e2);
+        double cr = 2 * cos2Xi * cosh2Eta;
+        double ci = -2 * sin2Xi * sinh2Eta;
+        double hr = 0, hi = 0, hr1 = 0, hi1 = 0, hr2, hi2;
+        for (int j = ORDER; j-- > 0; ) {
+            hr2 = hr1;
+            hi2 = hi1;
+            hr1 = hr;
+            hi1 = hi;
+            hr = -hr2 + cr * hr1 - ci * hi1 + utg[j];
+            hi = -hi2 + ci * hr1 + cr * hi1;
+        }
+        double sr = sin2Xi * cosh2Eta;
+        double si = cos2Xi * sinh2Eta;
+        xi += sr * hr - si * hi;
+        eta += sr * hi + si * hr;
+
+        // spherical transverse Mercator to the conformal sphere
+        double sinXi = Math.sin(xi);
+        double cosXi = Math.cos(xi);
+        double e1 = Math.exp(eta);
+        double sinhEta = 0.5 * (e1 - 1 / e1);
+        double q = Math.sqrt(sinhEta * sinhEta + cosXi * cosXi);
+        lp.x = Math.atan2(sinhEta, cosXi);
+
+        // conformal to geodetic latitude; sin 2chi and cos 2chi from sin chi and cos chi
+        double coshEta = 0.5 * (e1 + 1 / e1);
+        double sinChi = sinXi / coshEta;
+        double cosChi = q / coshEta;
+        double chi = Math.atan2(sinXi, q);
+        lp.y = chi + 2 * sinChi * cosChi * clenshaw(cgb, 2 * (cosChi - sinChi) * (cosChi + sinChi));
+    }
+}
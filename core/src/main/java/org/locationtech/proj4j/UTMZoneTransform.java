@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.locationtech.proj4j.datum.AxisOrder;
+import org.locationtech.proj4j.datum.PrimeMeridian;
+import org.locationtech.proj4j.proj.ExtendedTransverseMercatorProjection;
+import org.locationtech.proj4j.proj.Projection;
+import org.locationtech.proj4j.units.Units;
+
+/**
+ * Transforms geographic coordinates into the UTM zone of each point.
+ * <p>
+ * The zone of a point is given by {@link #getZone(double, double)},
+ * which follows the 6 degree zones with the exceptions for southern Norway and Svalbard.
+ * Points with negative latitudes are projected in the southern hemisphere form of their zone.
+ * Zones are reported as signed numbers: the zone number for the northern hemisphere,
+ * and the negated zone number for the southern hemisphere.
+ * Latitudes beyond the UTM limits of 80S and 84N are still projected in the zone of their longitude.
+ * <p>
+ * The projected CRSs use the datum and ellipsoid of the geographic CRS, in metres.
+ * The CRS and transform for each zone and hemisphere are created on first use and then reused.
+ * The array forms group the points by zone, so that each zone's transform is applied
+ * to all of its points together.
+ * <p>
+ * This class is safe for concurrent use.
+ */
+public class UTMZoneTransform {
+
+    private static final int ZONES = 60;
+    private static final int BLOCK_SIZE = 1024;
+
+    private final CoordinateReferenceSystem geoCRS;
+    private final CoordinateTransformFactory factory;
+
+    // indexed by zone - 1, and by zone + 59 for the southern hemisphere
+    private final AtomicReferenceArray<CoordinateTransform> transforms =
+            new AtomicReferenceArray<>(2 * ZONES);
+
+    /**
+     * Creates a transform from a geographic CRS into UTM zones on the same datum.
+     *
+     * @param geoCRS the geographic CRS of the source points
+     * @throws IllegalArgumentException if the CRS is not geographic with longitude, latitude axes
+     * from Greenwich, or is on a sphere
+     */
+    public UTMZoneTransform(CoordinateReferenceSystem geoCRS) {
+        this(geoCRS, new CoordinateTransformFactory());
+    }
+
+    /**
+     * Creates a transform from a geographic CRS into UTM zones on the same datum,
+     * using a given factory to create the transform for each zone.
+     *
+     * @param geoCRS the geographic CRS of the source points
+     * @param factory the factory for the transform of each zone
+     * @throws IllegalArgumentException if the CRS is not geographic with longitude, latitude axes
+     * from Greenwich, or is on a sphere
+     */
+    public UTMZoneTransform(CoordinateReferenceSystem geoCRS, CoordinateTransformFactory factory) {
+        Projection proj = geoCRS.getProjection();
+        if (proj == null || !proj.isGeographic()
+                || !AxisOrder.ENU.equals(proj.getAxisOrder())
+                || !PrimeMeridian.forName("greenwich").equals(proj.getPrimeMeridian()))
+            throw new IllegalArgumentException("Not a geographic CRS in longitude and latitude: " + geoCRS.getName());
+        if (proj.getEllipsoid().getEccentricitySquared() <= 0)
+            throw new IllegalArgumentException("UTM requires an ellipsoid: " + geoCRS.getName());
+        this.geoCRS = geoCRS;
+        this.factory = factory;
+    }
+
+    /**
+     * Gets the geographic CRS of the source points.
+     *
+     * @return the geographic CRS
+     */
+    public CoordinateReferenceSystem getSourceCRS() {
+        return geoCRS;
+    }
+
+    /**
+     * Gets the UTM zone containing a point.
+     * This is the 6 degree zone of the longitude,
+     * except for zone 32 which is widened to cover southern Norway between 56N and 64N,
+     * and zones 31, 33, 35 and 37 which replace zones 32, 34 and 36 around Svalbard between 72N and 84N.
+     *
+     * @param longitude the longitude, in degrees
+     * @param latitude the latitude, in degrees
+     * @return the zone number, from 1 to 60
+     * @throws InvalidValueException if the longitude is not finite
+     */
+    public static int getZone(double longitude, double latitude) {
+        // work in degrees, so that longitudes on zone boundaries are not rounded into the zone to the west
+        if (Double.isInfinite(longitude) || Double.isNaN(longitude))
+            throw new InvalidValueException("Longitude is not finite: " + longitude);
+        if (longitude < -180 || longitude >= 180)
+            longitude -= 360 * Math.floor((longitude + 180) / 360);
+        if (latitude >= 56 && latitude < 64) {
+            if (longitude >= 3 && longitude < 12)
+                return 32;
+        } else if (latitude >= 72 && latitude < 84 && longitude >= 0 && longitude < 42) {
+            if (longitude < 9)
+                return 31;
+            if (longitude < 21)
+                return 33;
+            if (longitude < 33)
+                return 35;
+            return 37;
+        }
+        return Math.min((int) Math.floor((longitude + 180) / 6) + 1, ZONES);
+    }
+
+    /**
+     * Gets the transform from the geographic CRS into a UTM zone,
+     * creating it if this is the first use of the zone.
+     *
+     * @param zone the zone number, from 1 to 60
+     * @param south whether to use the southern hemisphere form of the zone
+     * @return the transform into the zone
+     * @throws IllegalArgumentException if the zone number is out of range
+     */
+    public CoordinateTransform getTransform(int zone, boolean south) {
+        if (zone < 1 || zone > ZONES)
+            throw new IllegalArgumentException("UTM zone must be between 1 and 60: " + zone);
+        return getTransform(south ? zone + ZONES - 1 : zone - 1);
+    }
+
+    private CoordinateTransform getTransform(int index) {
+        CoordinateTransform transform = transforms.get(index);
+        if (transform == null) {
+            transform = factory.createTransform(geoCRS, createCRS(index % ZONES + 1, index >= ZONES));
+            // another thread may have created the same transform; use the first one stored
+            if (!transforms.compareAndSet(index, null, transform))
+                transform = transforms.get(index);
+        }
+        return transform;
+    }
+
+    private CoordinateReferenceSystem createCRS(int zone, boolean south) {
+        ExtendedTransverseMercatorProjection proj = new ExtendedTransverseMercatorProjection();
+        proj.setEllipsoid(geoCRS.getProjection().getEllipsoid());
+        proj.setUnits(Units.METRES);
+        proj.setSouthernHemisphere(south);
+        proj.setUTMZone(zone);
+        proj.freeze();
+        return new CoordinateReferenceSystem("UTM zone " + zone + (south ? "S" : "N"), null, geoCRS.getDatum(), proj);
+    }
+
+    /**
+     * Transforms a point into its UTM zone.
+     *
+     * @param src the geographic point, in degrees
+     * @param tgt the projected point
+     * @return the zone used, negated for the southern hemisphere
+     * @throws Proj4jException if a computation error is encountered
+     */
+    public int transform(ProjCoordinate src, ProjCoordinate tgt)
+            throws Proj4jException {
+        int index = getIndex(src.x, src.y);
+        getTransform(index).transform(src, tgt);
+        return getSignedZone(index);
+    }
+
+    /**
+     * Transforms an array of interleaved longitude, latitude ordinates in place
+     * into the UTM zone of each point.
+     * <p>
+     * Points are transformed in blocks, so if an exception is thrown
+     * the contents of the arrays are undefined:
+     * some points may have been transformed and others left unchanged.
+     *
+     * @param xy the array of ordinates, stored as x0, y0, x1, y1, ...
+     * @param offset the index in the array of the x ordinate of the first point
+     * @param count the number of points to transform
+     * @param zones receives the zone used for each point, negated for the southern hemisphere,
+     *              starting at index 0 (may be <code>null</code>)
+     * @throws Proj4jException if a computation error is encountered
+     */
+    public void transform(double[] xy, int offset, int count, int[] zones)
+            throws Proj4jException {
+        Batch batch = new Batch(Math.min(count, BLOCK_SIZE));
+        for (int start = 0; start < count; start += BLOCK_SIZE) {
+            int n = Math.min(BLOCK_SIZE, count - start);
+            int base = offset + 2 * start;
+            for (int i = 0; i < n; i++) {
+                batch.indexes[i] = getIndex(xy[base + 2 * i], xy[base + 2 * i + 1]);
+            }
+            int[] order = batch.sort(n);
+            for (int i = 0; i < n; i++) {
+                int p = base + 2 * order[i];
+                batch.xy[2 * i] = xy[p];
+                batch.xy[2 * i + 1] = xy[p + 1];
+            }
+            batch.transform();
+            for (int i = 0; i < n; i++) {
+                int p = base + 2 * order[i];
+                xy[p] = batch.xy[2 * i];
+                xy[p + 1] = batch.xy[2 * i + 1];
+            }
+            batch.copyZones(zones, start, n);
+        }
+    }
+
+    /**
+     * Transforms arrays of longitudes and latitudes in place
+     * into the UTM zone of each point.
+     * <p>
+     * Points are transformed in blocks, so if an exception is thrown
+     * the contents of the arrays are undefined:
+     * some points may have been transformed and others left unchanged.
+     *
+     * @param xs the longitudes, replaced by the eastings
+     * @param ys the latitudes, replaced by the northings
+     * @param n the number of points to transform
+     * @param zones receives the zone used for each point, negated for the southern hemisphere
+     *              (may be <code>null</code>)
+     * @throws Proj4jException if a computation error is encountered
+     */
+    public void transform(double[] xs, double[] ys, int n, int[] zones)
+            throws Proj4jException {
+        Batch batch = new Batch(Math.min(n, BLOCK_SIZE));
+        for (int start = 0; start < n; start += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, n - start);
+            for (int i = 0; i < count; i++) {
+                batch.indexes[i] = getIndex(xs[start + i], ys[start + i]);
+            }
+            int[] order = batch.sort(count);
+            for (int i = 0; i < count; i++) {
+                batch.xy[2 * i] = xs[start + order[i]];
+                batch.xy[2 * i + 1] = ys[start + order[i]];
+            }
+            batch.transform();
+            for (int i = 0; i < count; i++) {
+                xs[start + order[i]] = batch.xy[2 * i];
+                ys[start + order[i]] = batch.xy[2 * i + 1];
+            }
+            batch.copyZones(zones, start, count);
+        }
+    }
+
+    private static int getIndex(double longitude, double latitude) {
+        int zone = getZone(longitude, latitude);
+        return latitude < 0 ? zone + ZONES - 1 : zone - 1;
+    }
+
+    private static int getSignedZone(int index) {
+        return index < ZONES ? index + 1 : -(index - ZONES + 1);
+    }
+
+    /**
+     * The working arrays for transforming a block of points,
+     * which are sorted by zone so that the points of each zone are contiguous.
+     */
+    private final class Batch {
+        final int[] indexes;
+        final int[] order;
+        final double[] xy;
+        final int[] counts = new int[2 * ZONES + 1];
+        int size;
+
+        Batch(int blockSize) {
+            indexes = new int[blockSize];
+            order = new int[blockSize];
+            xy = new double[2 * blockSize];
+        }
+
+        /**
+         * Counting sorts the first n points by zone index.
+         *
+         * @return the point for each sorted position
+         */
+        int[] sort(int n) {
+            size = n;
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[indexes[i] + 1]++;
+            }
+            for (int k = 1; k < counts.length; k++) {
+                counts[k] += counts[k - 1];
+            }
+            // counts[k] is now the start of zone index k; advance it as the points are placed
+            for (int i = 0; i < n; i++) {
+                order[counts[indexes[i]]++] = i;
+            }
+            return order;
+        }
+
+        void transform() {
+            // after sorting, counts[k] is the end of zone index k
+            int start = 0;
+            for (int k = 0; k < 2 * ZONES && start < size; k++) {
+                int end = counts[k];
+                if (end > start) {
+                    getTransform(k).transform(xy, 2 * start, end - start);
+                    start = end;
+                }
+            }
+        }
+
+        void copyZones(int[] zones, int start, int n) {
+            if (zones == null)
+                return;
+            for (int i = 0; i < n; i++) {
+                zones[start + i] = getSignedZone(indexes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j;
+
+import org.locationtech.proj4j.util.ProjectionMath;
+
+/**
+ * A direct transform between geographic coordinates in degrees and
+ * a spherical Mercator projection on the same datum,
+ * such as EPSG:4326 and the Web Mercator EPSG:3857.
+ * <p>
+ * The closed-form spherical formulas are evaluated exactly as {@link org.locationtech.proj4j.proj.MercatorProjection}
+ * evaluates them, so the results are identical to those of the general transform.
+ * Instances are created by {@link CoordinateTransformFactory}.
+ */
+final class WebMercatorTransform extends GeographicProjectionTransform {
+
+    private final double k0;
+
+    WebMercatorTransform(CoordinateReferenceSystem srcCRS, CoordinateReferenceSystem tgtCRS, boolean toProjected) {
+        super(srcCRS, tgtCRS, toProjected);
+        k0 = (toProjected ? tgtCRS : srcCRS).getProjection().getScaleFactor();
+    }
+
+    @Override
+    void project(double lam, double phi, ProjCoordinate xy) {
+        xy.x = k0 * lam;
+        xy.y = k0 * Math.log(Math.tan(ProjectionMath.QUARTERPI + 0.5 * phi));
+    }
+
+    @Override
+    void projectInverse(double x, double y, ProjCoordinate lp) {
+        lp.y = ProjectionMath.HALFPI - 2. * Math.atan(Math.exp(-y / k0));
+        lp.x = x / k0;
+    }
+}
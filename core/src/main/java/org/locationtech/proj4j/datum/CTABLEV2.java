@@ -19,10 +19,10 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
-import org.locationtech.proj4j.util.FloatPolarCoordinate;
 import org.locationtech.proj4j.util.IntPolarCoordinate;
 import org.locationtech.proj4j.util.PolarCoordinate;
 
@@ -61,16 +61,24 @@ public final class CTABLEV2 {
     public static void load(DataInputStream definition, Grid grid) throws IOException {
         Grid.ConversionTable table = grid.table;
         int entryCount = table.lim.lam * table.lim.phi;
-        FloatPolarCoordinate[] cvs = new FloatPolarCoordinate[entryCount];
-        byte[] buff = new byte[8];
+        // the file holds the lam, phi pairs in the same order as the table
+        float[] cvs = new float[2 * entryCount];
+        byte[] buff = new byte[8 * entryCount];
         definition.skipBytes(160);
-        for (int i = 0; i < entryCount; i++) {
-            definition.readFully(buff);
-            cvs[i] = new FloatPolarCoordinate(floatFromBytes(buff, 0), floatFromBytes(buff, 4));
-        }
+        definition.readFully(buff);
+        ByteBuffer.wrap(buff).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(cvs);
         table.cvs = cvs;
     }
 
+    /**
+     * Reads the shift values of a table from a mapped grid definition file.
+     * They are stored as little-endian lam, phi float pairs, in table order.
+     */
+    static MappedShifts map(FileChannel channel, Grid grid) throws IOException {
+        return MappedShifts.map(channel, 160, ByteOrder.LITTLE_ENDIAN, grid.table,
+                8, 0, 4, false, false, 1);
+    }
+
     private static boolean containsAt(byte[] needle, byte[] haystack, int offset) {
         if (needle == null || haystack == null) return false;
 
@@ -89,8 +97,4 @@ public final class CTABLEV2 {
     private static int intFromBytes(byte[] b, int offset) {
         return ByteBuffer.wrap(b, offset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
     }
-
-    private static float floatFromBytes(byte[] b, int offset) {
-        return ByteBuffer.wrap(b, offset, 4).order(ByteOrder.LITTLE_ENDIAN).getFloat();
-    }
 }
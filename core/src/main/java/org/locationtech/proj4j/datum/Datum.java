@@ -258,6 +258,22 @@ public class Datum implements java.io.Serializable {
         }
     }
 
+    /**
+     * Tests whether this datum is defined by a grid shift
+     * in which none of the grids contain any shift values
+     * (as is the case for the <code>@null</code> grid),
+     * so that applying the shift has no effect.
+     *
+     * @return true if shifting coordinates with the grids of this datum has no effect
+     */
+    public boolean hasNullGrids() {
+        if (grids == null || grids.isEmpty()) return false;
+        for (Grid grid : grids) {
+            if (!grid.isNull()) return false;
+        }
+        return true;
+    }
+
     public void shift(ProjCoordinate xy) {
         Grid.shift(grids, false, xy);
     }
@@ -266,6 +282,10 @@ public class Datum implements java.io.Serializable {
         Grid.shift(grids, true, xy);
     }
 
+    public List<Grid> getGrids() {
+        return grids;
+    }
+
     public void setGrids(List<Grid> grids) {
         this.grids = grids;
     }
@@ -17,17 +17,22 @@ package org.locationtech.proj4j.datum;
 
 import java.io.File;
 import java.io.DataInputStream;
-import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.BufferedInputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.locationtech.proj4j.Proj4jException;
 import org.locationtech.proj4j.ProjCoordinate;
-import org.locationtech.proj4j.util.FloatPolarCoordinate;
 import org.locationtech.proj4j.util.IntPolarCoordinate;
 import org.locationtech.proj4j.util.PolarCoordinate;
 import org.locationtech.proj4j.util.ProjectionMath;
@@ -37,6 +42,17 @@ import org.locationtech.proj4j.util.ProjectionMath;
  * coordinate system referenced to the surface of the earth and spherical
  * coordinates.  Generally Grids are loaded from definition files in the proj4
  * resource directory.
+ * <p>
+ * Only the header of a grid definition is read when the grid is created.
+ * The shift values are loaded the first time a coordinate is shifted with the grid,
+ * so defining a CRS or {@link Datum} which refers to a grid is cheap
+ * if the grid is never used.
+ * <p>
+ * If {@link #setMemoryMapping(boolean) memory mapping} is enabled,
+ * the shift values of grids read from local files are not copied onto the heap,
+ * but read directly from the file mapped into memory.
+ * Mapped grids do not count against the heap,
+ * and processes using the same grid file share its pages through the operating system.
  */
 // Grid corresponds to the PJ_GRIDINFO struct in proj.4
 public final class Grid implements Serializable {
@@ -55,27 +71,42 @@ public final class Grid implements Serializable {
      */
     private String format;
 
-    private int gridOffset; // Offset in file of the grid definition, for delayed loading
+    long gridOffset; // Offset in file of the grid definition, for delayed loading
+
+    // set once the shift values of the table have been read
+    private transient volatile boolean loaded;
+
+    private static volatile boolean memoryMapping = false;
 
     final static int MAX_TRY = 9; // maximum number of iterations for nad conversion algorithm
     final static double TOL = 1e-12; // tolerance for nad conversion algorithm
 
     ConversionTable table;
 
-    private Grid next;
-    private Grid child;
+    Grid next;
+    Grid child;
+
+    // an index of all the subgrids of a file with more than one
+    SubgridIndex index;
 
     /**
      * Merge (append) a named grid into the given gridlist.
+     * Grids read from the same file are shared through the {@link GridCache}.
      */
     // This method corresponds to the pj_gridlist_merge_gridfile function in proj.4
     public static void mergeGridFile(
             String name,
             List<Grid> gridList)
             throws IOException {
-        gridList.add(gridinfoInit(name));
-        // TODO: Maintain cache of loaded grids so we never need more than one
-        // copy of the same grid file loaded in memory
+        if (name.equals("null")) {
+            gridList.add(gridinfoInit(name, null));
+            return;
+        }
+        URL source = resolveGridDefinition(name);
+        if (source == null) {
+            throw new IOException("Unknown grid: " + name);
+        }
+        gridList.add(GridCache.get(source.toString(), () -> gridinfoInit(name, source)));
     }
 
     /**
@@ -83,64 +114,166 @@ public final class Grid implements Serializable {
      */
     // This method corresponds to the pj_apply_gridshift function from proj.4
     public static void shift(List<Grid> grids, boolean inverse, ProjCoordinate in) {
-        PolarCoordinate input = new PolarCoordinate(in.x, in.y),
-                output = new PolarCoordinate(Double.NaN, Double.NaN);
+        // the input is kept in locals, so that in can receive intermediate results
+        double lam = in.x, phi = in.y;
 
-        for (Grid grid : grids) {
+        for (int i = 0, n = grids.size(); i < n; i++) {
+            Grid grid = grids.get(i);
             ConversionTable table = grid.table;
             // don't shift if the grid is invalid
             // https://github.com/OSGeo/PROJ/blob/5.2.0/src/pj_gridlist.c#L88
             if(table == null) continue;
-            double epsilon = (Math.abs(table.del.phi) + Math.abs(table.del.lam)) / 10000d;
-            // Skip tables that don't match our point at all
-            if (table.ll.phi - epsilon > input.phi
-                    || table.ll.lam - epsilon > input.lam
-                    || (table.ll.phi + (table.lim.phi - 1) * table.del.phi + epsilon < input.phi)
-                    || (table.ll.lam + (table.lim.lam - 1) * table.del.lam + epsilon < input.lam))
-                continue;
-
-            // If we have child nodes, check to see if any of them apply
-            while (grid.child != null) {
-                Grid child;
-                for (child = grid.child; child != null; child = child.next) {
-                    ConversionTable t = child.table;
-                    double epsilon0 = (Math.abs(t.del.phi) + Math.abs(t.del.lam)) / 10000d;
-
-                    if (t.ll.phi - epsilon0 > input.phi
-                            || t.ll.lam - epsilon0 > input.lam
-                            || (t.ll.phi + (t.lim.phi - 1) * t.del.phi + epsilon0 < input.phi)
-                            || (t.ll.lam + (t.lim.lam - 1) * t.del.lam + epsilon0 < input.lam))
-                        continue;
 
-                    break;
-                }
+            if (grid.index != null) {
+                // a file with several subgrids: find the most refined one
+                // containing the point, as proj.4 does by walking the child grids
+                grid = grid.index.find(lam, phi);
+                if (grid == null) continue;
+                table = grid.table;
+            } else {
+                double epsilon = (Math.abs(table.del.phi) + Math.abs(table.del.lam)) / 10000d;
+                // Skip tables that don't match our point at all
+                if (table.ll.phi - epsilon > phi
+                        || table.ll.lam - epsilon > lam
+                        || (table.ll.phi + (table.lim.phi - 1) * table.del.phi + epsilon < phi)
+                        || (table.ll.lam + (table.lim.lam - 1) * table.del.lam + epsilon < lam))
+                    continue;
+            }
 
-                if (child == null) break;
+            // proj.4 only reads headers when 'initializing' a grid and
+            // loads the grid itself here if needed
+            grid.loadConversionTable();
 
-                grid = child;
-            }
+            if (nad_cvt(lam, phi, inverse, table, in)) return;
+        }
 
-            if (grid.table.cvs == null) {
-                // proj.4 only reads headers when 'initializing' a grid and
-                // loads the grid itself here if needed. for now we're just
-                // loading the whole grid at once so this is a no-op
-                // loadConversionTable(table);
-            }
+        // Proj.4 guards this with #ifdef ERR_GRID_AREA_TRANSIENT_SEVERE
+        // in.x = in.y = Double.NaN;
+        in.x = lam;
+        in.y = phi;
+    }
+
+    /**
+     * Creates a grid for another subgrid of the same grid definition file.
+     */
+    Grid subgrid() {
+        Grid grid = new Grid();
+        grid.gridName = gridName;
+        grid.fileName = fileName;
+        grid.format = format;
+        return grid;
+    }
+
+    /**
+     * Tests whether this grid has no conversion table,
+     * either because it is the special "null" grid
+     * or because the grid file could not be read.
+     * Such grids are skipped when shifting coordinates.
+     */
+    boolean isNull() {
+        return table == null;
+    }
 
-            output = nad_cvt(input, inverse, table);
+    /**
+     * Gets the number of nodes in this grid and in the other subgrids of its file,
+     * which determines the memory the grid takes once its shift values are loaded.
+     * This does not load the shift values.
+     *
+     * @return the number of nodes
+     */
+    public long getNodeCount() {
+        long count = 0;
+        for (Grid grid = this; grid != null; grid = grid.next) {
+            if (grid.table != null) count += (long) grid.table.lim.lam * grid.table.lim.phi;
+            if (grid.child != null) count += grid.child.getNodeCount();
+        }
+        return count;
+    }
+
+    /**
+     * Tests whether the shift values of this grid have been loaded.
+     */
+    boolean isLoaded() {
+        return loaded;
+    }
 
-            if (!Double.isNaN(output.lam)) break;
+    // This method corresponds to the pj_gridinfo_load function in proj.4
+    private void loadConversionTable() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            // a deserialized grid may already hold its shift values
+            if (table.cvs == null && table.mapped == null) {
+                if (memoryMapping && fileName.startsWith("file:")) {
+                    mapConversionTable();
+                } else {
+                    readConversionTable();
+                }
+            }
+            loaded = true;
         }
+    }
 
-        if (!Double.isNaN(output.lam)) {
-            in.x = output.lam;
-            in.y = output.phi;
-        } else {
-            // Proj.4 guards this with #ifdef ERR_GRID_AREA_TRANSIENT_SEVERE
-            // in.x = in.y = Double.NaN;
+    private void readConversionTable() {
+        try (DataInputStream gridDefinition = openGridDefinition(fileName)) {
+            switch (format) {
+                case "ctable2":
+                    CTABLEV2.load(gridDefinition, this);
+                    break;
+                case "ntv1":
+                    NTV1.load(gridDefinition, this);
+                    break;
+                case "ntv2":
+                    NTV2.load(gridDefinition, this);
+                    break;
+            }
+        } catch (IOException e) {
+            throw new Proj4jException("Unable to load grid " + gridName + ": " + e.getMessage());
+        }
+    }
+
+    private void mapConversionTable() {
+        try (FileChannel channel = FileChannel.open(Paths.get(new URL(fileName).toURI()), StandardOpenOption.READ)) {
+            // the mapping remains valid after the channel is closed
+            switch (format) {
+                case "ctable2":
+                    table.mapped = CTABLEV2.map(channel, this);
+                    break;
+                case "ntv1":
+                    table.mapped = NTV1.map(channel, this);
+                    break;
+                case "ntv2":
+                    table.mapped = NTV2.map(channel, this);
+                    break;
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new Proj4jException("Unable to map grid " + gridName + ": " + e.getMessage());
         }
     }
 
+    /**
+     * Sets whether the shift values of grids read from local files
+     * are memory-mapped rather than loaded onto the heap.
+     * This affects grids whose shift values have not been loaded yet.
+     * Grids read from the classpath are always loaded onto the heap.
+     *
+     * @param mapped true if grid files should be memory-mapped
+     */
+    public static void setMemoryMapping(boolean mapped) {
+        memoryMapping = mapped;
+    }
+
+    public static boolean isMemoryMapping() {
+        return memoryMapping;
+    }
+
+    /**
+     * Tests whether the shift values of this grid are read from a memory-mapped file.
+     */
+    boolean isMapped() {
+        return table != null && table.mapped != null;
+    }
+
     // This class corresponds to the CTABLE struct from proj.4
     public static final class ConversionTable implements Serializable {
         /**
@@ -160,9 +293,14 @@ public final class Grid implements Serializable {
          */
         public IntPolarCoordinate lim;
         /**
-         * Conversion matrix
+         * Conversion matrix, stored row by row as interleaved
+         * longitude and latitude shifts (lam0, phi0, lam1, phi1, ...)
+         */
+        public float[] cvs;
+        /**
+         * Conversion matrix read from a memory-mapped file, if <code>cvs</code> is not loaded
          */
-        public FloatPolarCoordinate[] cvs;
+        transient MappedShifts mapped;
 
         @Override
         public String toString() {
@@ -196,119 +334,128 @@ public final class Grid implements Serializable {
         }
     }
 
-    // This method corresponds to the nad_cvt function in proj.4
-    private static PolarCoordinate nad_cvt(PolarCoordinate in, boolean inverse, ConversionTable table) {
-        PolarCoordinate t, tb;
-        if (Double.isNaN(in.lam))
-            return in;
+    // This method corresponds to the nad_cvt function in proj.4.
+    // The converted coordinate is written to the x and y of out;
+    // false is returned if the coordinate cannot be converted with this table,
+    // in which case the x and y of out may have been overwritten.
+    private static boolean nad_cvt(double lam, double phi, boolean inverse, ConversionTable table, ProjCoordinate out) {
+        if (Double.isNaN(lam))
+            return false;
 
-        tb = new PolarCoordinate(in);
-        tb.lam -= table.ll.lam;
-        tb.phi -= table.ll.phi;
-        tb.lam = ProjectionMath.normalizeLongitude(tb.lam - Math.PI) + Math.PI;
-        t = nad_intr(tb, table);
+        double tbLam = ProjectionMath.normalizeLongitude(lam - table.ll.lam - Math.PI) + Math.PI;
+        double tbPhi = phi - table.ll.phi;
+        if (!nad_intr(tbLam, tbPhi, table, out))
+            return false;
 
         if (inverse) {
-            PolarCoordinate del = new PolarCoordinate(Double.NaN, Double.NaN),
-                    dif = new PolarCoordinate(Double.NaN, Double.NaN);
+            double tLam = tbLam + out.x;
+            double tPhi = tbPhi - out.y;
+            double difLam, difPhi;
             int i = MAX_TRY;
 
-            if (Double.isNaN(t.lam)) return t;
-            t.lam = tb.lam + t.lam;
-            t.phi = tb.phi - t.phi;
-
             do {
-                del = nad_intr(t, table);
-                if (Double.isNaN(del.lam)) {
+                if (!nad_intr(tLam, tPhi, table, out)) {
                     // TODO: LOG
                     // fprintf( stderr, 
                     //          "Inverse grid shift iteration failed, presumably at grid edge.\n"
                     //          "Using first approximation.\n" );
                     break;
                 }
-                t.lam -= dif.lam = t.lam - del.lam - tb.lam;
-                t.phi -= dif.phi = t.phi + del.phi - tb.phi;
-            } while (i-- > 0 && Math.abs(dif.lam) > TOL && Math.abs(dif.phi) > TOL);
+                difLam = tLam - out.x - tbLam;
+                difPhi = tPhi + out.y - tbPhi;
+                tLam -= difLam;
+                tPhi -= difPhi;
+            } while (i-- > 0 && Math.abs(difLam) > TOL && Math.abs(difPhi) > TOL);
 
             if (i < 0) {
                 // TODO: Log
                 // fprintf( stderr, 
                 //          "Inverse grid shift iterator failed to converge.\n" );
-                t.lam = t.phi = Double.NaN;
-                return t;
+                return false;
             }
-            in.lam = ProjectionMath.normalizeLongitude(t.lam + table.ll.lam);
-            in.phi = t.phi + table.ll.phi;
+            out.x = ProjectionMath.normalizeLongitude(tLam + table.ll.lam);
+            out.y = tPhi + table.ll.phi;
         } else {
-            if (Double.isNaN(t.lam)) {
-                in = t;
-            } else {
-                in.lam -= t.lam;
-                in.phi += t.phi;
-            }
+            out.x = lam - out.x;
+            out.y = phi + out.y;
         }
-        return in;
+        return true;
     }
 
-    // This method corresponds to the nad_intr method in proj.4
-    private static PolarCoordinate nad_intr(PolarCoordinate t, ConversionTable table) {
-        t = new PolarCoordinate(t);
-        PolarCoordinate val = new PolarCoordinate(Double.NaN, Double.NaN);
-        IntPolarCoordinate indx = new IntPolarCoordinate(
-                (int) Math.floor(t.lam /= table.del.lam),
-                (int) Math.floor(t.phi /= table.del.phi));
-        PolarCoordinate frct = new PolarCoordinate(t.lam - indx.lam, t.phi - indx.phi);
+    // This method corresponds to the nad_intr method in proj.4.
+    // The interpolated shift is written to the x and y of val;
+    // false is returned if the coordinate is outside the table.
+    private static boolean nad_intr(double lam, double phi, ConversionTable table, ProjCoordinate val) {
+        lam /= table.del.lam;
+        phi /= table.del.phi;
+        int indxLam = (int) Math.floor(lam);
+        int indxPhi = (int) Math.floor(phi);
+        double frctLam = lam - indxLam;
+        double frctPhi = phi - indxPhi;
         double m00, m10, m01, m11;
-        FloatPolarCoordinate f00, f10, f01, f11;
+        int f00, f10, f01, f11;
         int index;
         int in;
 
-        if (indx.lam < 0) {
-            if (indx.lam == -1 && frct.lam > 0.99999999999) {
-                ++indx.lam;
-                frct.lam = 0d;
+        if (indxLam < 0) {
+            if (indxLam == -1 && frctLam > 0.99999999999) {
+                ++indxLam;
+                frctLam = 0d;
             } else {
-                return val;
+                return false;
             }
-        } else if ((in = indx.lam + 1) >= table.lim.lam) {
-            if (in == table.lim.lam && frct.lam < 1e-11) {
-                --indx.lam;
-                frct.lam = 1d;
+        } else if ((in = indxLam + 1) >= table.lim.lam) {
+            if (in == table.lim.lam && frctLam < 1e-11) {
+                --indxLam;
+                frctLam = 1d;
             } else {
-                return val;
+                return false;
             }
         }
-        if (indx.phi < 0) {
-            if (indx.phi == -1 && frct.phi > 0.99999999999) {
-                ++indx.phi;
-                frct.phi = 0d;
+        if (indxPhi < 0) {
+            if (indxPhi == -1 && frctPhi > 0.99999999999) {
+                ++indxPhi;
+                frctPhi = 0d;
             } else {
-                return val;
+                return false;
             }
-        } else if ((in = indx.phi + 1) >= table.lim.phi) {
-            if (in == table.lim.phi && frct.phi < 1e-11) {
-                --indx.phi;
-                frct.phi = 1d;
+        } else if ((in = indxPhi + 1) >= table.lim.phi) {
+            if (in == table.lim.phi && frctPhi < 1e-11) {
+                --indxPhi;
+                frctPhi = 1d;
             } else {
-                return val;
+                return false;
             }
         }
-        index = indx.phi * ((int) table.lim.lam) + indx.lam;
-        f00 = table.cvs[index++];
-        f10 = table.cvs[index];
+        // the nodes at each corner
+        index = indxPhi * ((int) table.lim.lam) + indxLam;
+        f00 = index++;
+        f10 = index;
         index += table.lim.lam;
-        f11 = table.cvs[index--];
-        f01 = table.cvs[index];
-        m11 = m10 = frct.lam;
-        m00 = m01 = 1d - frct.lam;
-        m11 *= frct.phi;
-        m01 *= frct.phi;
-        frct.phi = 1d - frct.phi;
-        m00 *= frct.phi;
-        m10 *= frct.phi;
-        val.lam = m00 * f00.lam + m10 * f10.lam + m01 * f01.lam + m11 * f11.lam;
-        val.phi = m00 * f00.phi + m10 * f10.phi + m01 * f01.phi + m11 * f11.phi;
-        return val;
+        f11 = index--;
+        f01 = index;
+        m11 = m10 = frctLam;
+        m00 = m01 = 1d - frctLam;
+        m11 *= frctPhi;
+        m01 *= frctPhi;
+        frctPhi = 1d - frctPhi;
+        m00 *= frctPhi;
+        m10 *= frctPhi;
+        float[] cvs = table.cvs;
+        if (cvs != null) {
+            // the lam shift of each node is followed by its phi shift
+            f00 *= 2;
+            f10 *= 2;
+            f01 *= 2;
+            f11 *= 2;
+            val.x = m00 * cvs[f00] + m10 * cvs[f10] + m01 * cvs[f01] + m11 * cvs[f11];
+            val.y = m00 * cvs[f00 + 1] + m10 * cvs[f10 + 1] + m01 * cvs[f01 + 1] + m11 * cvs[f11 + 1];
+        } else {
+            MappedShifts mapped = table.mapped;
+            val.x = m00 * mapped.lam(f00) + m10 * mapped.lam(f10) + m01 * mapped.lam(f01) + m11 * mapped.lam(f11);
+            val.y = m00 * mapped.phi(f00) + m10 * mapped.phi(f10) + m01 * mapped.phi(f01) + m11 * mapped.phi(f11);
+        }
+        return true;
     }
 
 
@@ -330,7 +477,7 @@ public final class Grid implements Serializable {
     }
 
     // This method corresponds to the pj_gridinfo_init function in proj.4
-    private static Grid gridinfoInit(String gridName) throws IOException {
+    private static Grid gridinfoInit(String gridName, URL source) throws IOException {
         Grid grid = new Grid();
         grid.gridName = gridName;
         grid.format = "missing";
@@ -339,48 +486,79 @@ public final class Grid implements Serializable {
         if (gridName.equals("null")) {
             return grid;
         }
+        grid.fileName = source.toString();
 
-        try(DataInputStream gridDefinition = resolveGridDefinition(gridName)) {
-            if (gridDefinition == null) {
-                throw new IOException("Unknown grid: " + gridName);
-            }
+        // only the headers are read here; the shift values are read by loadConversionTable
+        URLConnection connection = source.openConnection();
+        try(DataInputStream gridDefinition = new DataInputStream(new BufferedInputStream(connection.getInputStream()))) {
             byte[] header = new byte[160];
             gridDefinition.mark(header.length);
             gridDefinition.readFully(header);
             gridDefinition.reset();
             if (CTABLEV2.testHeader(header)) {
                 grid.format = "ctable2";
-                gridDefinition.mark(1024);
                 grid.table = CTABLEV2.init(gridDefinition);
-                gridDefinition.reset();
-                CTABLEV2.load(gridDefinition, grid);
+                checkLength(grid, connection, 160 + 8L * grid.table.lim.lam * grid.table.lim.phi);
             } else if (NTV1.testHeader(header)) {
-                    grid.format = "ntv1";
-                    gridDefinition.mark(1024);
-                    grid.table = NTV1.init(gridDefinition);
-                    gridDefinition.reset();
-                    NTV1.load(gridDefinition, grid);
+                grid.format = "ntv1";
+                grid.table = NTV1.init(gridDefinition);
+                checkLength(grid, connection, 176 + 16L * grid.table.lim.lam * grid.table.lim.phi);
             } else if (NTV2.testHeader(header)) {
-                    grid.format = "ntv2";
-                    gridDefinition.mark(1024);
-                    grid.table = NTV2.init(gridDefinition);
-                    gridDefinition.reset();
-                    NTV2.load(gridDefinition, grid);
+                grid.format = "ntv2";
+                NTV2.init(gridDefinition, grid);
             }
         }
         return grid;
     }
 
-    private static DataInputStream resolveGridDefinition(String gridName) throws IOException {
+    /**
+     * Checks that a grid file is long enough to hold its shift values,
+     * so that a truncated file is found when the grid is defined
+     * rather than when a point is first shifted.
+     * The length of files and of jar entries is known without reading them;
+     * if the length is not known, truncation is found when the shift values are read.
+     *
+     * @throws IOException if the grid file is too short
+     */
+    private static void checkLength(Grid grid, URLConnection connection, long expected) throws IOException {
+        long length = connection.getContentLengthLong();
+        if (length >= 0 && length < expected) {
+            throw new IOException("Grid file is truncated: " + grid.fileName);
+        }
+    }
+
+    /**
+     * Skips over part of a grid definition.
+     *
+     * @throws java.io.EOFException if the definition ends first
+     */
+    static void skipFully(DataInputStream instream, long n) throws IOException {
+        if (n <= 0) return;
+        // a file stream may skip past its end, so the last byte is read
+        while (n > 1) {
+            long skipped = instream.skip(n - 1);
+            if (skipped <= 0) {
+                // skip may stop short without reaching the end of the stream
+                instream.readByte();
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+        instream.readByte();
+    }
+
+    private static URL resolveGridDefinition(String gridName) throws IOException {
         // proj.4 also has a couple of environment variables that influence the
         // search path for grid definition files, but for now we only check the
         // working directory and the classpath (in that order.)
         File file = new File(gridName);
-        if (file.exists()) return new DataInputStream(new FileInputStream(file));
-        InputStream resource = Grid.class.getResourceAsStream("/proj4/nad/" + gridName);
-        if (resource != null) return new DataInputStream(new BufferedInputStream(resource));
+        if (file.exists()) return file.toURI().toURL();
+        return Grid.class.getResource("/proj4/nad/" + gridName);
+    }
 
-        return null;
+    private static DataInputStream openGridDefinition(String fileName) throws IOException {
+        InputStream in = new URL(fileName).openStream();
+        return new DataInputStream(new BufferedInputStream(in));
     }
 
     @Override
@@ -388,7 +566,9 @@ public final class Grid implements Serializable {
         int nameHash = gridName == null ? 0 : gridName.hashCode();
         int fileHash = fileName == null ? 0 : fileName.hashCode();
         int formatHash = format == null ? 0 : format.hashCode();
-        int tableHash = table == null ? 0 : table.hashCode();
+        // grids read from the same source have the same shift values,
+        // which need not have been loaded yet
+        int tableHash = table == null || fileName != null ? 0 : table.hashCode();
         int nextHash = next == null ? 0 : next.hashCode();
         int childHash = next == null ? 0 : next.hashCode();
         return nameHash | (7 * fileHash) | (11 * formatHash) | (17 * tableHash) | (23 * nextHash) | (31 * childHash);
@@ -405,7 +585,7 @@ public final class Grid implements Serializable {
             if (format == null && g.format != null) return false;
             if (format != null && !format.equals(g.format)) return false;
             if (table == null && g.table != null) return false;
-            if (table != null && !table.equals(g.table)) return false;
+            if (table != null && fileName == null && !table.equals(g.table)) return false;
             if (next == null && g.next != null) return false;
             if (next != null && !next.equals(g.next)) return false;
             if (child == null && g.child != null) return false;
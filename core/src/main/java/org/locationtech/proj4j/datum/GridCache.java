@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j.datum;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The process-wide cache of {@link Grid}s,
+ * keyed by the resolved location of their definition file.
+ * Every CRS whose <code>+nadgrids</code> refer to the same file
+ * shares a single {@link Grid}, so the shift values of a file
+ * are held in memory at most once.
+ * <p>
+ * Grids are held by soft references.
+ * A grid which is still used by a {@link Datum} stays cached;
+ * one which is no longer used may be discarded by the garbage collector
+ * when memory is short, and is read again if it is needed later.
+ */
+public final class GridCache {
+
+    private static final Map<String, GridReference> grids = new HashMap<>();
+    private static final ReferenceQueue<Grid> queue = new ReferenceQueue<>();
+
+    private static final AtomicLong hitCount = new AtomicLong();
+    private static final AtomicLong loadCount = new AtomicLong();
+    private static final AtomicLong evictionCount = new AtomicLong();
+
+    private GridCache() {
+    }
+
+    /**
+     * Reads a grid definition.
+     */
+    interface Loader {
+        Grid load() throws IOException;
+    }
+
+    /**
+     * Gets the grid cached for a source,
+     * reading it with the given loader if it is not present.
+     *
+     * @param source the resolved location of the grid definition file
+     * @param loader reads the grid if it is not cached
+     * @return the cached or newly read grid
+     * @throws IOException if the grid could not be read
+     */
+    static synchronized Grid get(String source, Loader loader) throws IOException {
+        expungeStaleEntries();
+        GridReference ref = grids.get(source);
+        Grid grid = ref == null ? null : ref.get();
+        if (grid != null) {
+            hitCount.incrementAndGet();
+            return grid;
+        }
+        grid = loader.load();
+        loadCount.incrementAndGet();
+        grids.put(source, new GridReference(source, grid, queue));
+        return grid;
+    }
+
+    private static void expungeStaleEntries() {
+        GridReference ref;
+        while ((ref = (GridReference) queue.poll()) != null) {
+            // the entry may already have been replaced by a newly read grid
+            if (grids.remove(ref.source, ref)) {
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes all grids from the cache.
+     * Grids in use by existing {@link Datum}s are not affected,
+     * but will no longer be shared with grids read afterwards.
+     */
+    public static synchronized void clear() {
+        grids.clear();
+    }
+
+    /**
+     * Gets the number of grids in the cache.
+     */
+    public static synchronized int size() {
+        expungeStaleEntries();
+        return grids.size();
+    }
+
+    /**
+     * Gets the number of lookups which found a cached grid.
+     */
+    public static long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of grid definitions which have been read.
+     */
+    public static long getLoadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * Gets the number of grids discarded by the garbage collector.
+     */
+    public static long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private static final class GridReference extends SoftReference<Grid> {
+        final String source;
+
+        GridReference(String source, Grid grid, ReferenceQueue<Grid> queue) {
+            super(grid, queue);
+            this.source = source;
+        }
+    }
+}
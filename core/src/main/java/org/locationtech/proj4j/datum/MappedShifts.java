@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j.datum;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * The shift values of a {@link Grid.ConversionTable},
+ * read directly from a memory-mapped region of a grid definition file
+ * rather than copied onto the heap.
+ * <p>
+ * Each grid format stores its nodes differently,
+ * so the layout of the region is described by the size of each node,
+ * the offsets of the longitude and latitude shifts within a node,
+ * whether they are floats or doubles, the scale converting them to radians
+ * and whether the columns of each row are stored from east to west.
+ * Values are rounded to floats, exactly as when the table is loaded onto the heap.
+ * <p>
+ * Only absolute reads are made from the buffer, so it may be shared between threads.
+ */
+final class MappedShifts {
+
+    private final ByteBuffer buffer;
+    private final int cols;
+    private final int nodeSize;
+    private final int lamOffset;
+    private final int phiOffset;
+    private final boolean doubles;
+    private final boolean reversed;
+    private final double scale;
+
+    private MappedShifts(ByteBuffer buffer, Grid.ConversionTable table,
+                         int nodeSize, int lamOffset, int phiOffset,
+                         boolean doubles, boolean reversed, double scale) {
+        this.buffer = buffer;
+        this.cols = table.lim.lam;
+        this.nodeSize = nodeSize;
+        this.lamOffset = lamOffset;
+        this.phiOffset = phiOffset;
+        this.doubles = doubles;
+        this.reversed = reversed;
+        this.scale = scale;
+    }
+
+    /**
+     * Maps the nodes of a table from a grid definition file.
+     *
+     * @param channel the grid definition file
+     * @param position the offset in the file of the first node
+     * @param order the byte order of the values
+     * @param table the table whose nodes are mapped
+     * @param nodeSize the number of bytes in each node
+     * @param lamOffset the offset of the longitude shift within a node
+     * @param phiOffset the offset of the latitude shift within a node
+     * @param doubles true if the shifts are doubles, false if they are floats
+     * @param reversed true if the columns of each row are stored from east to west
+     * @param scale the factor converting the stored shifts to radians
+     * @throws IOException if the file is too short to hold the table
+     */
+    static MappedShifts map(FileChannel channel, long position, ByteOrder order, Grid.ConversionTable table,
+                            int nodeSize, int lamOffset, int phiOffset,
+                            boolean doubles, boolean reversed, double scale) throws IOException {
+        long size = (long) table.lim.lam * table.lim.phi * nodeSize;
+        if (position + size > channel.size()) {
+            throw new IOException("Grid file is truncated: " + table.id);
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(order);
+        return new MappedShifts(buffer, table, nodeSize, lamOffset, phiOffset, doubles, reversed, scale);
+    }
+
+    /**
+     * Gets the longitude shift of a node, in radians.
+     *
+     * @param node the index of the node in the table, row by row from the south-west corner
+     */
+    float lam(int node) {
+        return get(position(node) + lamOffset);
+    }
+
+    /**
+     * Gets the latitude shift of a node, in radians.
+     *
+     * @param node the index of the node in the table, row by row from the south-west corner
+     */
+    float phi(int node) {
+        return get(position(node) + phiOffset);
+    }
+
+    private int position(int node) {
+        if (reversed) {
+            int row = node / cols;
+            int col = node - row * cols;
+            node = row * cols + cols - col - 1;
+        }
+        return node * nodeSize;
+    }
+
+    private float get(int position) {
+        if (doubles) {
+            return (float) (buffer.getDouble(position) * scale);
+        }
+        return (float) (buffer.getFloat(position) * scale);
+    }
+}
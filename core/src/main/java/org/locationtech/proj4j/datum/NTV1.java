@@ -21,10 +21,10 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
-import org.locationtech.proj4j.util.FloatPolarCoordinate;
 import org.locationtech.proj4j.util.IntPolarCoordinate;
 import org.locationtech.proj4j.util.PolarCoordinate;
 
@@ -34,6 +34,10 @@ public final class NTV1 {
     private static final byte[] magic2 = "W GRID".getBytes(StandardCharsets.US_ASCII);
     private static final byte[] magic3 = "TO      NAD83   ".getBytes(StandardCharsets.US_ASCII);
 
+    private static final double SEC_RAD = Math.PI / 180 / 3600;
+
+    private static final int HEADER_SIZE = 176;
+
     public static boolean testHeader(byte[] header) {
         return containsAt(magic1, header, 0) &&
                 containsAt(magic2, header, 96) &&
@@ -67,26 +71,36 @@ public final class NTV1 {
     }
 
     public static void load(DataInputStream definition, Grid grid) throws IOException {
-        definition.skip(176);
-        double[] row_buff = new double[grid.table.lim.lam * 2];
-        FloatPolarCoordinate[] tmp_cvs =
-                new FloatPolarCoordinate[grid.table.lim.lam * grid.table.lim.phi];
+        definition.skip(HEADER_SIZE);
+        int cols = grid.table.lim.lam;
+        double[] row_buff = new double[cols * 2];
+        float[] tmp_cvs = new float[2 * cols * grid.table.lim.phi];
+        byte[] byteBuff = new byte[8 * row_buff.length];
 
         for (int row = 0; row < grid.table.lim.phi; row++) {
-            byte[] byteBuff = new byte[8 * row_buff.length];
             definition.readFully(byteBuff);
             ByteBuffer.wrap(byteBuff).order(ByteOrder.BIG_ENDIAN).asDoubleBuffer().get(row_buff);
-            for (int i = 0; i < grid.table.lim.lam; i++) {
-                tmp_cvs[row * grid.table.lim.lam + grid.table.lim.lam - i - 1] =
-                        new FloatPolarCoordinate(
-                                (float) (row_buff[2 * i] * Math.PI / 180.0 / 3600.0),
-                                (float) (row_buff[2 * i + 1] * Math.PI / 180.0 / 3600.0));
+            for (int i = 0; i < cols; i++) {
+                // columns are stored from east to west
+                int index = 2 * (row * cols + cols - i - 1);
+                tmp_cvs[index] = (float) (row_buff[2 * i] * SEC_RAD);
+                tmp_cvs[index + 1] = (float) (row_buff[2 * i + 1] * SEC_RAD);
             }
         }
         grid.table.cvs = tmp_cvs;
 
     }
 
+    /**
+     * Reads the shift values of a table from a mapped grid definition file.
+     * They are stored as big-endian lam, phi double pairs in seconds,
+     * with the columns of each row running from east to west.
+     */
+    static MappedShifts map(FileChannel channel, Grid grid) throws IOException {
+        return MappedShifts.map(channel, HEADER_SIZE, ByteOrder.BIG_ENDIAN, grid.table,
+                16, 0, 8, true, true, SEC_RAD);
+    }
+
     private static boolean containsAt(byte[] needle, byte[] haystack, int offset) {
         if (needle == null || haystack == null) return false;
 
@@ -19,18 +19,22 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-import org.locationtech.proj4j.util.FloatPolarCoordinate;
 import org.locationtech.proj4j.util.IntPolarCoordinate;
 import org.locationtech.proj4j.util.PolarCoordinate;
 
 /**
  * Parser for the "National Transformation" v2 format
  *
- * Very basic implementation: only files with 1 subfile are supported, gridshift type is supposed to be in
- * seconds
+ * All the subfiles (subgrids) of a file are read, and arranged into a tree following their PARENT names.
+ * Gridshift type is supposed to be in seconds
  *
  * Header structure:
  * <pre>
@@ -86,6 +90,10 @@ public final class NTV2 {
     private static final int VALUES_PER_CELL = 4;
 
     private static final int NUM_OREC = 8;
+    private static final int NUM_FILE = 40;
+
+    private static final int SUB_NAME = 8;
+    private static final int PARENT = 24;
     private static final int S_LAT = 72;
     private static final int N_LAT = 88;
     private static final int E_LONG = 104;
@@ -93,6 +101,7 @@ public final class NTV2 {
 
     private static final int LAT_INC = 136;
     private static final int LONG_INC = 152;
+    private static final int GS_COUNT = 168;
 
     /**
      * Use header to check file type
@@ -106,7 +115,7 @@ public final class NTV2 {
     }
 
     /**
-     * Initialize conversion table
+     * Initialize conversion table of the first subfile
      *
      * @param instream
      * @return
@@ -124,8 +133,94 @@ public final class NTV2 {
         buf = new byte[SUB_HEADER_SIZE];
         instream.readFully(buf);
 
-        Grid.ConversionTable table = new Grid.ConversionTable();
+        Grid.ConversionTable table = readTable(buf, endian);
         table.id = "NTv2 Grid Shift File";
+        return table;
+    }
+
+    /**
+     * Initialize a grid from all the subfiles of a file.
+     * The first top-level subfile becomes the table of the grid itself;
+     * the other top-level subfiles are linked as its <code>next</code> grids,
+     * and each subfile is linked as a <code>child</code> of its parent.
+     * If there is more than one subfile, the grid is given an index of them all.
+     * Only the headers are read; the offset of the shift records of each subfile
+     * is recorded for loading them later.
+     *
+     * @param instream the grid definition, positioned at the start of the file
+     * @param grid the grid to initialize
+     * @throws IOException
+     */
+    // This method corresponds to the pj_gridinfo_init_ntv2 function in proj.4
+    static void init(DataInputStream instream, Grid grid) throws IOException {
+        byte[] buf = new byte[HEADER_SIZE];
+        instream.readFully(buf);
+
+        if (!testHeader(buf)) {
+            throw new IOException("Not a NTv2 file");
+        }
+        ByteOrder endian = guessByteOrder(buf);
+        int numFile = intFromBytes(buf, NUM_FILE, endian);
+
+        List<Grid> subgrids = new ArrayList<>(numFile);
+        int[] parents = new int[numFile];
+        Map<String, Integer> ids = new HashMap<>();
+        long offset = HEADER_SIZE;
+
+        for (int i = 0; i < numFile; i++) {
+            buf = new byte[SUB_HEADER_SIZE];
+            instream.readFully(buf);
+            offset += SUB_HEADER_SIZE;
+
+            Grid.ConversionTable table = readTable(buf, endian);
+            String name = stringFromBytes(buf, SUB_NAME);
+            String parentName = stringFromBytes(buf, PARENT);
+            table.id = name;
+
+            int count = intFromBytes(buf, GS_COUNT, endian);
+            if (count != table.lim.lam * table.lim.phi) {
+                throw new IOException("NTv2 subfile " + name + " has " + count
+                        + " records, expected " + table.lim.lam * table.lim.phi);
+            }
+
+            Grid subgrid = i == 0 ? grid : grid.subgrid();
+            subgrid.table = table;
+            subgrid.gridOffset = offset;
+
+            // proj.4 only warns about a subfile whose parent is unknown; treat it as a top-level grid
+            Integer parent = parentName.equals("NONE") ? null : ids.get(parentName);
+            if (parent == null) {
+                parents[i] = -1;
+                if (i > 0) {
+                    Grid last = grid;
+                    while (last.next != null) last = last.next;
+                    last.next = subgrid;
+                }
+            } else {
+                parents[i] = parent;
+                Grid parentGrid = subgrids.get(parent);
+                if (parentGrid.child == null) {
+                    parentGrid.child = subgrid;
+                } else {
+                    Grid last = parentGrid.child;
+                    while (last.next != null) last = last.next;
+                    last.next = subgrid;
+                }
+            }
+            ids.put(name, i);
+            subgrids.add(subgrid);
+
+            long size = (long) count * VALUES_PER_CELL * Float.BYTES;
+            Grid.skipFully(instream, size);
+            offset += size;
+        }
+        if (numFile > 1) {
+            grid.index = new SubgridIndex(subgrids.toArray(new Grid[0]), parents);
+        }
+    }
+
+    private static Grid.ConversionTable readTable(byte[] buf, ByteOrder endian) {
+        Grid.ConversionTable table = new Grid.ConversionTable();
         // lower left
         table.ll = new PolarCoordinate(-doubleFromBytes(buf, W_LONG, endian) * SEC_RAD, 
                                         doubleFromBytes(buf, S_LAT, endian) * SEC_RAD);
@@ -157,9 +252,9 @@ public final class NTV2 {
         instream.readFully(buf);
         ByteOrder endian = guessByteOrder(buf);
 
-        instream.skipBytes(SUB_HEADER_SIZE);
+        Grid.skipFully(instream, grid.gridOffset - HEADER_SIZE);
 
-        FloatPolarCoordinate[] tmp_cvs = new FloatPolarCoordinate[cols * rows];
+        float[] tmp_cvs = new float[2 * cols * rows];
 
         float[] row_buff = new float[cols * VALUES_PER_CELL];
         byte[] byteBuff = new byte[row_buff.length * Float.BYTES];
@@ -169,21 +264,36 @@ public final class NTV2 {
             ByteBuffer.wrap(byteBuff).order(endian).asFloatBuffer().get(row_buff);
             for (int col = 0; col < cols; col++) {
                 // only process the shift values, ignoring accuracy values
-                tmp_cvs[row * cols + (cols - col - 1)] = new FloatPolarCoordinate(
-                    (float) (row_buff[VALUES_PER_CELL * col + 1] * SEC_RAD),
-                    (float) (row_buff[VALUES_PER_CELL * col] * SEC_RAD));
+                int index = 2 * (row * cols + (cols - col - 1));
+                tmp_cvs[index] = (float) (row_buff[VALUES_PER_CELL * col + 1] * SEC_RAD);
+                tmp_cvs[index + 1] = (float) (row_buff[VALUES_PER_CELL * col] * SEC_RAD);
             }
         }
         grid.table.cvs = tmp_cvs;
     }
 
+    /**
+     * Reads the shift values of a table from a mapped grid definition file.
+     * Each node holds latitude and longitude shifts in seconds followed by their accuracies,
+     * in the byte order of the file,
+     * with the columns of each row running from east to west.
+     */
+    static MappedShifts map(FileChannel channel, Grid grid) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) throw new IOException("Grid file is truncated");
+        }
+        return MappedShifts.map(channel, grid.gridOffset, guessByteOrder(header.array()), grid.table,
+                VALUES_PER_CELL * Float.BYTES, Float.BYTES, 0, false, true, SEC_RAD);
+    }
+
     /**
      * Guess byte order / endianness by checking first bytes in header
      * 
      * @param header
      * @return endianness
      */
-    private static ByteOrder guessByteOrder(byte[] header) {
+    private static ByteOrder guessByteOrder(byte[] header) throws IOException {
         ByteBuffer buffer = ByteBuffer.wrap(header, NUM_OREC, Integer.BYTES);
         if (buffer.order(ByteOrder.BIG_ENDIAN).getInt() == 11) {
             return ByteOrder.BIG_ENDIAN;
@@ -192,11 +302,19 @@ public final class NTV2 {
         if (buffer.order(ByteOrder.LITTLE_ENDIAN).getInt() == 11) {
             return ByteOrder.LITTLE_ENDIAN;
         }
-        throw new Error("Could not determine endianness");
+        throw new IOException("Could not determine endianness");
     }
 
     private static double doubleFromBytes(byte[] b, int offset, ByteOrder order) {
         return ByteBuffer.wrap(b, offset, Double.BYTES).order(order).getDouble();
     }
 
+    private static int intFromBytes(byte[] b, int offset, ByteOrder order) {
+        return ByteBuffer.wrap(b, offset, Integer.BYTES).order(order).getInt();
+    }
+
+    private static String stringFromBytes(byte[] b, int offset) {
+        return new String(b, offset, 8, StandardCharsets.US_ASCII).trim();
+    }
+
 }
@@ -16,9 +16,11 @@
 package org.locationtech.proj4j.datum;
 
 import java.io.Serializable;
+import java.util.Map;
 
 import org.locationtech.proj4j.ProjCoordinate;
 import org.locationtech.proj4j.units.AngleFormat;
+import org.locationtech.proj4j.util.NameIndex;
 import org.locationtech.proj4j.util.ProjectionMath;
 
 /**
@@ -48,6 +50,9 @@ public final class PrimeMeridian implements Serializable {
         east("oslo",      10,43,22.5)
     };
 
+    private static final Map<String, PrimeMeridian> MERIDIANS_BY_NAME =
+            NameIndex.index(wellKnownMeridians, PrimeMeridian::getName);
+
     private static PrimeMeridian east(String name, double deg, double min, double sec) {
         double longitude = ((sec / 60. + min) / 60. + deg) * ProjectionMath.DTR;
         return new PrimeMeridian(name, longitude);
@@ -58,9 +63,8 @@ public final class PrimeMeridian implements Serializable {
     }
 
     public static PrimeMeridian forName(String name) {
-        for (PrimeMeridian pm : wellKnownMeridians) {
-            if (pm.getName().equals(name)) return pm;
-        }
+        PrimeMeridian pm = MERIDIANS_BY_NAME.get(name);
+        if (pm != null) return pm;
 
         try {
             return new PrimeMeridian("user-provided", Double.valueOf(name) * ProjectionMath.DTR);
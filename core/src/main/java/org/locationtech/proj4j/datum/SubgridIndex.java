@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j.datum;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A spatial index of the subgrids of a grid definition file,
+ * used to find the subgrid with which to shift a point
+ * without walking the whole subgrid tree.
+ * <p>
+ * The index is a packed R-tree over the extents of the subgrids,
+ * ordered by the Sort-Tile-Recursive algorithm.
+ * A point is shifted with the same subgrid that proj.4 would choose:
+ * the first top-level subgrid (in file order) containing the point,
+ * then repeatedly the first of its children containing the point,
+ * until no child contains it.
+ */
+final class SubgridIndex implements Serializable {
+
+    private static final int NODE_SIZE = 8;
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    // the subgrids in file order, and the index of the parent of each (-1 for top-level subgrids)
+    private final Grid[] subgrids;
+    private final int[] parents;
+
+    // levels[0] holds the extents (min lam, min phi, max lam, max phi) of the subgrids in the order given by ids;
+    // each node of levels[k] covers NODE_SIZE consecutive entries of levels[k - 1]
+    private final double[][] levels;
+    private final int[] ids;
+
+    SubgridIndex(Grid[] subgrids, int[] parents) {
+        this.subgrids = subgrids;
+        this.parents = parents;
+
+        int n = subgrids.length;
+        double[] extents = new double[4 * n];
+        for (int i = 0; i < n; i++) {
+            Grid.ConversionTable t = subgrids[i].table;
+            // the same tolerance as applied by Grid.shift
+            double epsilon = (Math.abs(t.del.phi) + Math.abs(t.del.lam)) / 10000d;
+            extents[4 * i] = t.ll.lam - epsilon;
+            extents[4 * i + 1] = t.ll.phi - epsilon;
+            extents[4 * i + 2] = t.ll.lam + (t.lim.lam - 1) * t.del.lam + epsilon;
+            extents[4 * i + 3] = t.ll.phi + (t.lim.phi - 1) * t.del.phi + epsilon;
+        }
+
+        ids = sortTileRecursive(extents, n);
+        double[] leaves = new double[4 * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(extents, 4 * ids[i], leaves, 4 * i, 4);
+        }
+
+        int height = 1;
+        for (int count = n; count > 1; count = (count + NODE_SIZE - 1) / NODE_SIZE) height++;
+        levels = new double[height][];
+        levels[0] = leaves;
+        for (int level = 1; level < height; level++) {
+            double[] below = levels[level - 1];
+            int belowCount = below.length / 4;
+            int count = (belowCount + NODE_SIZE - 1) / NODE_SIZE;
+            double[] nodes = new double[4 * count];
+            for (int node = 0; node < count; node++) {
+                int first = node * NODE_SIZE;
+                int end = Math.min(first + NODE_SIZE, belowCount);
+                nodes[4 * node] = Double.POSITIVE_INFINITY;
+                nodes[4 * node + 1] = Double.POSITIVE_INFINITY;
+                nodes[4 * node + 2] = Double.NEGATIVE_INFINITY;
+                nodes[4 * node + 3] = Double.NEGATIVE_INFINITY;
+                for (int i = first; i < end; i++) {
+                    nodes[4 * node] = Math.min(nodes[4 * node], below[4 * i]);
+                    nodes[4 * node + 1] = Math.min(nodes[4 * node + 1], below[4 * i + 1]);
+                    nodes[4 * node + 2] = Math.max(nodes[4 * node + 2], below[4 * i + 2]);
+                    nodes[4 * node + 3] = Math.max(nodes[4 * node + 3], below[4 * i + 3]);
+                }
+            }
+            levels[level] = nodes;
+        }
+    }
+
+    /**
+     * Orders entries so that each run of NODE_SIZE entries covers a compact area:
+     * the entries are sorted into vertical slices by the longitude of their centres,
+     * and each slice is sorted by latitude.
+     */
+    private static int[] sortTileRecursive(double[] extents, int n) {
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingDouble(i -> extents[4 * i] + extents[4 * i + 2]));
+
+        int nodeCount = (n + NODE_SIZE - 1) / NODE_SIZE;
+        int sliceCount = (int) Math.ceil(Math.sqrt(nodeCount));
+        int sliceSize = NODE_SIZE * ((nodeCount + sliceCount - 1) / sliceCount);
+        for (int start = 0; start < n; start += sliceSize) {
+            Arrays.sort(order, start, Math.min(start + sliceSize, n),
+                    Comparator.comparingDouble(i -> extents[4 * i + 1] + extents[4 * i + 3]));
+        }
+
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) ids[i] = order[i];
+        return ids;
+    }
+
+    /**
+     * Finds the subgrid with which to shift a point.
+     *
+     * @param lam the longitude of the point, in radians
+     * @param phi the latitude of the point, in radians
+     * @return the most refined subgrid containing the point, or <code>null</code> if none does
+     */
+    Grid find(double lam, double phi) {
+        int root = levels.length - 1;
+        int current = -1;
+        for (;;) {
+            int child = search(root, 0, lam, phi, current);
+            if (child == NONE) break;
+            current = child;
+        }
+        return current < 0 ? null : subgrids[current];
+    }
+
+    /**
+     * Finds the first subgrid in file order under a node of the tree
+     * which contains a point and has a given parent.
+     */
+    private int search(int level, int node, double lam, double phi, int parent) {
+        double[] extents = levels[level];
+        if (!(lam >= extents[4 * node] && phi >= extents[4 * node + 1]
+                && lam <= extents[4 * node + 2] && phi <= extents[4 * node + 3])) {
+            return NONE;
+        }
+        if (level == 0) {
+            int id = ids[node];
+            return parents[id] == parent ? id : NONE;
+        }
+        int first = node * NODE_SIZE;
+        int end = Math.min(first + NODE_SIZE, levels[level - 1].length / 4);
+        int best = NONE;
+        for (int child = first; child < end; child++) {
+            best = Math.min(best, search(level - 1, child, lam, phi, parent));
+        }
+        return best;
+    }
+}
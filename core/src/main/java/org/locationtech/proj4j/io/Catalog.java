@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The definitions of an authority file, compiled into a compact binary form
+ * by <code>CatalogWriter</code> in <code>proj4j-catalog-writer</code>
+ * so that they can be looked up without parsing the file.
+ * <p>
+ * A catalogue holds a dictionary of the distinct parameters used by the definitions,
+ * the codes sorted by their UTF-8 bytes, and the parameters of each code
+ * as indices into the dictionary. A code is found by a binary search over the codes.
+ * All values are big-endian:
+ * <pre>
+ * magic            8 bytes   "PROJ4CAT"
+ * version          int
+ * parameter count  int       P
+ * code count       int       C
+ * int[P + 1]                 offset of each parameter in the parameter data
+ * int[C + 1]                 offset of each code in the code data
+ * int[C + 1]                 index of the first parameter of each code in the definition data
+ * parameter data             UTF-8 bytes
+ * code data                  UTF-8 bytes
+ * definition data            unsigned short indices into the dictionary
+ * </pre>
+ * Parameters are decoded when they are first needed;
+ * decoding the same parameter in several threads at once is harmless,
+ * so a catalogue may be shared between threads.
+ */
+final class Catalog {
+
+    // these must match CatalogWriter
+    static final byte[] MAGIC = "PROJ4CAT".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+
+    private final ByteBuffer buf;
+    private final int codeCount;
+    private final int paramOffsets;
+    private final int codeOffsets;
+    private final int definitionOffsets;
+    private final int paramData;
+    private final int codeData;
+    private final int definitionData;
+
+    private final String[] params;
+
+    private Catalog(byte[] data) throws IOException {
+        buf = ByteBuffer.wrap(data);
+        if (data.length < 20 || !Arrays.equals(Arrays.copyOf(data, MAGIC.length), MAGIC)) {
+            throw new IOException("Not a CRS catalogue");
+        }
+        int version = buf.getInt(8);
+        if (version != VERSION) {
+            throw new IOException("Unsupported CRS catalogue version: " + version);
+        }
+        int paramCount = buf.getInt(12);
+        codeCount = buf.getInt(16);
+        paramOffsets = 20;
+        codeOffsets = paramOffsets + 4 * (paramCount + 1);
+        definitionOffsets = codeOffsets + 4 * (codeCount + 1);
+        paramData = definitionOffsets + 4 * (codeCount + 1);
+        codeData = paramData + buf.getInt(paramOffsets + 4 * paramCount);
+        definitionData = codeData + buf.getInt(codeOffsets + 4 * codeCount);
+        if (definitionData + 2L * buf.getInt(definitionOffsets + 4 * codeCount) != data.length) {
+            throw new IOException("CRS catalogue is truncated");
+        }
+        params = new String[paramCount];
+    }
+
+    /**
+     * Reads a catalogue.
+     *
+     * @param in the catalogue, which is read to its end but not closed
+     * @return the catalogue
+     * @throws IOException if the catalogue could not be read or is not valid
+     */
+    static Catalog read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) > 0) {
+            out.write(chunk, 0, n);
+        }
+        return new Catalog(out.toByteArray());
+    }
+
+    /**
+     * Gets the number of codes in the catalogue.
+     */
+    int size() {
+        return codeCount;
+    }
+
+    /**
+     * Gets the parameters defining a code.
+     *
+     * @param code the code
+     * @return a new array of the PROJ.4 parameters of the code, or <code>null</code> if there is no such code
+     */
+    String[] get(String code) {
+        int i = find(code.getBytes(StandardCharsets.UTF_8));
+        if (i < 0) return null;
+
+        int first = buf.getInt(definitionOffsets + 4 * i);
+        int end = buf.getInt(definitionOffsets + 4 * (i + 1));
+        String[] args = new String[end - first];
+        for (int j = 0; j < args.length; j++) {
+            args[j] = param(buf.getChar(definitionData + 2 * (first + j)));
+        }
+        return args;
+    }
+
+    private int find(byte[] code) {
+        int low = 0;
+        int high = codeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = compare(mid, code);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compare(int i, byte[] code) {
+        int start = codeData + buf.getInt(codeOffsets + 4 * i);
+        int length = codeData + buf.getInt(codeOffsets + 4 * (i + 1)) - start;
+        int n = Math.min(length, code.length);
+        for (int k = 0; k < n; k++) {
+            int c = (buf.get(start + k) & 0xff) - (code[k] & 0xff);
+            if (c != 0) return c;
+        }
+        return length - code.length;
+    }
+
+    private String param(int i) {
+        String param = params[i];
+        if (param == null) {
+            int start = buf.getInt(paramOffsets + 4 * i);
+            int end = buf.getInt(paramOffsets + 4 * (i + 1));
+            param = new String(buf.array(), paramData + start, end - start, StandardCharsets.UTF_8);
+            params[i] = param;
+        }
+        return param;
+    }
+}
@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the definitions in an authority file by their parameters,
+ * used to find the code of a coordinate system from its PROJ.4 parameters.
+ * <p>
+ * Parameters are compared in a canonical form,
+ * so that neither their order nor the way numbers are written
+ * (<code>0.9996</code> or <code>0.999600</code>, <code>500000</code> or <code>500000.0</code>)
+ * matters.
+ * When several definitions have the same parameters, the first in the file is found.
+ */
+final class ParameterIndex {
+
+    // codes keyed by the canonical form of their parameters
+    private final Map<String, String> codes = new HashMap<>();
+
+    // definitions keyed by the canonical form of their parameters with every number left out,
+    // for matching numbers within a tolerance
+    private final Map<String, List<Definition>> shapes = new HashMap<>();
+
+    /**
+     * Indexes the definitions of an authority file.
+     *
+     * @param definitions the parameters of each code, in file order
+     */
+    ParameterIndex(Map<String, String[]> definitions) {
+        for (Map.Entry<String, String[]> entry : definitions.entrySet()) {
+            Canonical canonical = new Canonical(entry.getValue());
+            codes.putIfAbsent(canonical.key, entry.getKey());
+            shapes.computeIfAbsent(canonical.shape, k -> new ArrayList<>())
+                    .add(new Definition(entry.getKey(), canonical.values));
+        }
+    }
+
+    /**
+     * Finds the code whose parameters are the same as the given ones.
+     *
+     * @param params PROJ.4 parameters, of the form "<code>+name=value</code>"
+     * @return the code, or <code>null</code> if no definition has these parameters
+     */
+    String find(String[] params) {
+        return codes.get(new Canonical(params).key);
+    }
+
+    /**
+     * Finds the code whose parameters are the same as the given ones,
+     * except that each number may differ by up to a tolerance.
+     * If there are several, the one with the smallest difference is found.
+     *
+     * @param params PROJ.4 parameters, of the form "<code>+name=value</code>"
+     * @param tolerance the largest difference allowed between numbers
+     * @return the code, or <code>null</code> if no definition matches
+     */
+    String find(String[] params, double tolerance) {
+        Canonical canonical = new Canonical(params);
+        String code = codes.get(canonical.key);
+        if (code != null) return code;
+
+        List<Definition> candidates = shapes.get(canonical.shape);
+        if (candidates == null) return null;
+        Definition best = null;
+        double bestDifference = tolerance;
+        for (Definition candidate : candidates) {
+            double difference = candidate.difference(canonical.values);
+            // the first definition in the file wins a tie
+            if (difference < bestDifference || (best == null && difference == bestDifference)) {
+                best = candidate;
+                bestDifference = difference;
+            }
+        }
+        return best == null ? null : best.code;
+    }
+
+    private static final class Definition {
+        final String code;
+        final double[] values;
+
+        Definition(String code, double[] values) {
+            this.code = code;
+            this.values = values;
+        }
+
+        double difference(double[] other) {
+            double difference = 0;
+            for (int i = 0; i < values.length; i++) {
+                difference = Math.max(difference, Math.abs(values[i] - other[i]));
+            }
+            return difference;
+        }
+    }
+
+    /**
+     * The canonical form of a set of parameters:
+     * the parameters without their leading '+', sorted, with each number written as a double.
+     * The shape is the same form with each number replaced by '#',
+     * and the numbers are listed in the order they appear in it.
+     */
+    static final class Canonical {
+        final String key;
+        final String shape;
+        final double[] values;
+
+        Canonical(String[] params) {
+            List<Parameter> parameters = new ArrayList<>(params.length);
+            int count = 0;
+            for (String param : params) {
+                String p = param.startsWith("+") ? param.substring(1) : param;
+                if (p.isEmpty()) continue;
+                Parameter parameter = new Parameter(p);
+                parameters.add(parameter);
+                count += parameter.numbers.length;
+            }
+            parameters.sort(null);
+
+            StringBuilder key = new StringBuilder();
+            StringBuilder shape = new StringBuilder();
+            values = new double[count];
+            int n = 0;
+            for (Parameter parameter : parameters) {
+                if (key.length() > 0) {
+                    key.append(' ');
+                    shape.append(' ');
+                }
+                key.append(parameter.canonical);
+                shape.append(parameter.shape);
+                System.arraycopy(parameter.numbers, 0, values, n, parameter.numbers.length);
+                n += parameter.numbers.length;
+            }
+            this.key = key.toString();
+            this.shape = shape.toString();
+        }
+    }
+
+    private static final class Parameter implements Comparable<Parameter> {
+        final String name;
+        final String canonical;
+        final String shape;
+        final double[] numbers;
+
+        Parameter(String param) {
+            int eq = param.indexOf('=');
+            if (eq < 0) {
+                name = canonical = shape = param;
+                numbers = new double[0];
+                return;
+            }
+            name = param.substring(0, eq);
+            String[] components = param.substring(eq + 1).split(",", -1);
+            StringBuilder canonical = new StringBuilder(name).append('=');
+            StringBuilder shape = new StringBuilder(name).append('=');
+            double[] numbers = new double[components.length];
+            int n = 0;
+            for (int i = 0; i < components.length; i++) {
+                if (i > 0) {
+                    canonical.append(',');
+                    shape.append(',');
+                }
+                String component = components[i];
+                if (isNumber(component)) {
+                    // adding 0 turns -0 into 0
+                    double number = Double.parseDouble(component) + 0.0;
+                    canonical.append(number);
+                    shape.append('#');
+                    numbers[n++] = number;
+                } else {
+                    canonical.append(component);
+                    shape.append(component);
+                }
+            }
+            this.canonical = canonical.toString();
+            this.shape = shape.toString();
+            this.numbers = Arrays.copyOf(numbers, n);
+        }
+
+        private static boolean isNumber(String s) {
+            if (s.isEmpty()) return false;
+            char c = s.charAt(0);
+            if (!(c >= '0' && c <= '9') && c != '-' && c != '+' && c != '.') return false;
+            try {
+                Double.parseDouble(s);
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        // ordered by name first, so that the order of parameters does not depend on their values
+        @Override
+        public int compareTo(Parameter other) {
+            int c = name.compareTo(other.name);
+            return c != 0 ? c : canonical.compareTo(other.canonical);
+        }
+    }
+}
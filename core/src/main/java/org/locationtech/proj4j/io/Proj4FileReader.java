@@ -22,12 +22,41 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StreamTokenizer;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Reads the definitions of coordinate systems from the PROJ.4 files
+ * of an authority, such as <code>proj4/nad/epsg</code>.
+ * <p>
+ * If the definitions of an authority have been compiled into a catalogue
+ * (as they are by the <code>proj4j-epsg</code> build, using <code>proj4j-catalog-writer</code>),
+ * codes are looked up in the catalogue, and the file is not read.
+ * Otherwise the first lookup in a file reads the whole file once
+ * and indexes its definitions by code;
+ * later lookups in the same file are answered from the index.
+ * Finding the EPSG code of a set of parameters likewise
+ * uses an index of the EPSG definitions by their parameters.
+ * The indexes are shared by all readers and may be used by several threads.
+ */
 public class Proj4FileReader {
 
+    // the definitions in each authority file, keyed by the resource name of the file
+    private static final ConcurrentHashMap<String, Map<String, String[]>> indexes = new ConcurrentHashMap<>();
+
+    // the codes in each authority file, keyed by their parameters
+    private static final ConcurrentHashMap<String, ParameterIndex> parameterIndexes = new ConcurrentHashMap<>();
+
+    // the compiled catalogue of each authority which has one;
+    // authorities without one are not recorded, since the authority comes from the caller
+    private static final ConcurrentHashMap<String, Catalog> catalogs = new ConcurrentHashMap<>();
+
+    private static final String EPSG_FILE = "proj4/nad/epsg";
+
     public Proj4FileReader() {
         super();
     }
@@ -35,24 +64,89 @@ public class Proj4FileReader {
     public String[] readParametersFromFile(String authorityCode, String name)
             throws IOException {
         // TODO: read comment preceding CS string as CS description
-        // TODO: use simpler parser than StreamTokenizer for speed and flexibility
         // TODO: parse CSes line-at-a-time (this allows preserving CS param string for later access)
 
-        String filename = "proj4/nad/" + authorityCode.toLowerCase();
+        String authority = authorityCode.toLowerCase();
+        Catalog catalog = getCatalog(authority);
+        if (catalog != null) {
+            return catalog.get(name);
+        }
+        String[] args = getIndex("proj4/nad/" + authority).get(name);
+        // callers own the array they are given
+        return args == null ? null : args.clone();
+    }
+
+    /**
+     * Gets the compiled catalogue of an authority, reading it if it has not been read before.
+     *
+     * @return the catalogue, or <code>null</code> if the authority has none
+     */
+    private Catalog getCatalog(String authority) throws IOException {
+        Catalog catalog = catalogs.get(authority);
+        if (catalog != null) return catalog;
+        // nothing is stored if the loader returns null
+        return computeIfAbsent(catalogs, authority, () -> readCatalog(authority));
+    }
+
+    /**
+     * Gets the number of catalogues which have been read.
+     */
+    static int getCatalogCount() {
+        return catalogs.size();
+    }
+
+    private static Catalog readCatalog(String authority) throws IOException {
+        InputStream inStr = Proj4FileReader.class.getClassLoader().getResourceAsStream("proj4/catalog/" + authority);
+        if (inStr == null) {
+            return null;
+        }
+        try {
+            return Catalog.read(inStr);
+        } finally {
+            inStr.close();
+        }
+    }
+
+    /**
+     * Gets the definitions in an authority file, reading the file if it has not been read before.
+     */
+    private Map<String, String[]> getIndex(String filename) throws IOException {
+        Map<String, String[]> index = indexes.get(filename);
+        if (index != null) return index;
+        return computeIfAbsent(indexes, filename, () -> readIndex(filename));
+    }
+
+    private interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    private static <T> T computeIfAbsent(ConcurrentHashMap<String, T> map, String key, Loader<T> loader)
+            throws IOException {
+        try {
+            return map.computeIfAbsent(key, k -> {
+                try {
+                    return loader.load();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Map<String, String[]> readIndex(String filename) throws IOException {
         InputStream inStr = Proj4FileReader.class.getClassLoader().getResourceAsStream(filename);
         if (inStr == null) {
             throw new IllegalStateException("Unable to access CRS file: " + filename);
         }
         BufferedReader reader = new BufferedReader(
                 new InputStreamReader(inStr));
-        String[] args;
         try {
-            args = readFile(reader, name);
+            return readFile(reader);
         } finally {
-            if (reader != null)
-                reader.close();
+            reader.close();
         }
-        return args;
     }
 
     private StreamTokenizer createTokenizer(BufferedReader reader) {
@@ -74,22 +168,22 @@ public class Proj4FileReader {
         return t;
     }
 
-    private String[] readFile(BufferedReader reader, String name) throws IOException {
+    /**
+     * Reads all the definitions in an authority file.
+     *
+     * @return the parameters of each code, in file order
+     */
+    Map<String, String[]> readFile(BufferedReader reader) throws IOException {
         StreamTokenizer t = createTokenizer(reader);
+        Map<String, String[]> index = new LinkedHashMap<>();
 
         t.nextToken();
         while (t.ttype == '<') {
             Pair<String, List> pair = parseTokenizer(t);
-            String crsName = pair.fst();
-            List v = pair.snd();
-
-            // found requested CRS?
-            if (crsName.equals(name)) {
-                String[] args = (String[]) v.toArray(new String[0]);
-                return args;
-            }
+            // the first definition of a name is the one used
+            index.putIfAbsent(pair.fst(), (String[]) pair.snd().toArray(new String[0]));
         }
-        return null;
+        return index;
     }
 
     private static void addParam(List v, String key, String value) {
@@ -124,27 +218,37 @@ public class Proj4FileReader {
         return null;
     }
 
+    /**
+     * Finds the EPSG code of the coordinate system defined by the given PROJ.4 parameters.
+     * The order of the parameters and the way their numbers are written do not matter.
+     *
+     * @param params PROJ.4 parameters, of the form "<code>+name=value</code>"
+     * @return the EPSG code, or <code>null</code> if no EPSG definition has these parameters
+     * @throws IOException if the EPSG file could not be read
+     */
     public String readEpsgCodeFromFile(String[] params) throws IOException {
-        InputStream inStr = Proj4FileReader.class.getClassLoader().getResourceAsStream("proj4/nad/epsg");
-
-        if (inStr == null) {
-            throw new IllegalStateException("Unable to access CRS file: EPSG");
-        }
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inStr));
-
-        StreamTokenizer t = createTokenizer(reader);
-
-        t.nextToken();
-        while (t.ttype == '<') {
-            Pair<String, List> pair = parseTokenizer(t);
-            String crsName = pair.fst();
-            List v = pair.snd();
+        return getParameterIndex(EPSG_FILE).find(params);
+    }
 
-            String[] paramsParsed = (String[]) v.toArray(new String[0]);
+    /**
+     * Finds the EPSG code of the coordinate system defined by the given PROJ.4 parameters,
+     * allowing each number in the parameters to differ from the EPSG definition by up to a tolerance.
+     * If several definitions match, the one with the smallest difference is found.
+     *
+     * @param params PROJ.4 parameters, of the form "<code>+name=value</code>"
+     * @param tolerance the largest difference allowed between numbers, in the units of each parameter
+     * @return the EPSG code, or <code>null</code> if no EPSG definition matches
+     * @throws IOException if the EPSG file could not be read
+     */
+    public String readEpsgCodeFromFile(String[] params, double tolerance) throws IOException {
+        return getParameterIndex(EPSG_FILE).find(params, tolerance);
+    }
 
-            if(Arrays.equals(params, paramsParsed)) return crsName;
-        }
-        return null;
+    private ParameterIndex getParameterIndex(String filename) throws IOException {
+        ParameterIndex index = parameterIndexes.get(filename);
+        if (index != null) return index;
+        Map<String, String[]> definitions = getIndex(filename);
+        return parameterIndexes.computeIfAbsent(filename, k -> new ParameterIndex(definitions));
     }
 
     private static Pair<String, List> parseTokenizer(StreamTokenizer t) throws IOException {
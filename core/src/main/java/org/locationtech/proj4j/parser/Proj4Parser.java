@@ -16,8 +16,13 @@
 package org.locationtech.proj4j.parser;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 
 import org.locationtech.proj4j.*;
 import org.locationtech.proj4j.datum.Datum;
@@ -181,6 +186,7 @@ public class Proj4Parser {
         }
 
         projection.initialize();
+        projection.freeze();
 
         return projection;
     }
@@ -337,8 +343,57 @@ public class Proj4Parser {
 
     }
 
-    private Map createParameterMap(String[] args) {
-        Map params = new HashMap();
+    /**
+     * Gets a canonical form of a PROJ.4 parameter list,
+     * which is the same for lists which are parsed into the same coordinate system
+     * although their parameters are in a different order,
+     * they include parameters which have no effect (such as <code>+no_defs</code>),
+     * or their decimal numbers are written differently (such as <code>0</code> and <code>0.0</code>).
+     * As when parsing, the last value given for a repeated parameter is used.
+     *
+     * @param args a PROJ.4 parameter list
+     * @return the canonical form of the list
+     */
+    public static String canonicalForm(String[] args) {
+        Map<String, String> params = new TreeMap<>(createParameterMap(args));
+        params.keySet().removeAll(NO_OP_KEYWORDS);
+        StringBuilder form = new StringBuilder();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (form.length() > 0) form.append(' ');
+            form.append('+').append(param.getKey());
+            String value = param.getValue();
+            if (value == null) continue;
+            form.append('=');
+            if (TEXT_KEYWORDS.contains(param.getKey())) {
+                form.append(value);
+                continue;
+            }
+            String[] components = value.split(",", -1);
+            for (int i = 0; i < components.length; i++) {
+                if (i > 0) form.append(',');
+                String component = components[i];
+                if (DECIMAL.matcher(component).matches()) {
+                    // adding 0 turns -0 into 0
+                    form.append(Double.parseDouble(component) + 0.0);
+                } else {
+                    form.append(component);
+                }
+            }
+        }
+        return form.toString();
+    }
+
+    private static final Set<String> NO_OP_KEYWORDS = new HashSet<>(Arrays.asList(
+            Proj4Keyword.title, Proj4Keyword.no_defs, Proj4Keyword.wktext));
+
+    // values which are not rewritten even if they look like decimal numbers
+    private static final Set<String> TEXT_KEYWORDS = new HashSet<>(Arrays.asList(
+            Proj4Keyword.nadgrids, Proj4Keyword.zone));
+
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)");
+
+    private static Map<String, String> createParameterMap(String[] args) {
+        Map<String, String> params = new HashMap<>();
         for (int i = 0; i < args.length; i++) {
             String arg = args[i];
             // strip leading "+" if any
@@ -114,6 +114,60 @@ public class AlbersProjection extends Projection {
 		return out;
 	}
 
+	@Override
+	public void projectRadians(double[] x, double[] y, int off, int count) {
+		beginProject(x, off, count);
+		final double n = this.n, n2 = this.n2, c = this.c, dd = this.dd, rho0 = this.rho0, e = this.e, one_es = this.one_es;
+		final boolean spherical = this.spherical;
+		for (int i = off, end = off + count; i < end; i++) {
+			double lplam = x[i], lpphi = y[i];
+			double rho;
+			if ((rho = c - (!spherical ? n * ProjectionMath.qsfn(Math.sin(lpphi), e, one_es) : n2 * Math.sin(lpphi))) < 0.)
+				throw new ProjectionException("F");
+			rho = dd * Math.sqrt(rho);
+			x[i] = rho * Math.sin( lplam *= n );
+			y[i] = rho0 - rho * Math.cos(lplam);
+		}
+		endProject(x, y, off, count);
+	}
+
+	@Override
+	public void inverseProjectRadians(double[] x, double[] y, int off, int count) {
+		beginInverse(x, y, off, count);
+		final double n = this.n, n2 = this.n2, c = this.c, dd = this.dd, rho0 = this.rho0, e = this.e, one_es = this.one_es, ec = this.ec;
+		final boolean spherical = this.spherical;
+		for (int i = off, end = off + count; i < end; i++) {
+			double xyx = x[i], xyy = rho0 - y[i];
+			double rho;
+			if ((rho = ProjectionMath.distance(xyx, xyy)) != 0) {
+				double lpphi;
+				if (n < 0.) {
+					rho = -rho;
+					xyx = -xyx;
+					xyy = -xyy;
+				}
+				lpphi =  rho / dd;
+				if (!spherical) {
+					lpphi = (c - lpphi * lpphi) / n;
+					if (Math.abs(ec - Math.abs(lpphi)) > TOL7) {
+						if ((lpphi = phi1_(lpphi, e, one_es)) == Double.MAX_VALUE)
+							throw new ProjectionException("I");
+					} else
+						lpphi = lpphi < 0. ? -ProjectionMath.HALFPI : ProjectionMath.HALFPI;
+				} else if (Math.abs((c - lpphi * lpphi) / n2) <= 1.)
+					lpphi = Math.asin(lpphi);
+				else
+					lpphi = lpphi < 0. ? -ProjectionMath.HALFPI : ProjectionMath.HALFPI;
+				x[i] = Math.atan2(xyx, xyy) / n;
+				y[i] = lpphi;
+			} else {
+				x[i] = 0.;
+				y[i] = n > 0. ? ProjectionMath.HALFPI : - ProjectionMath.HALFPI;
+			}
+		}
+		endInverse(x, off, count);
+	}
+
 	public void initialize() {
 		super.initialize();
 		double cosphi, sinphi;
@@ -64,6 +64,7 @@ public abstract class AzimuthalProjection extends Projection {
 	 * Set the map radius (in degrees). 180 shows a hemisphere, 360 shows the whole globe.
 	 */
 	public void setMapRadius(double mapRadius) {
+		checkNotFrozen();
 		this.mapRadius = mapRadius;
 	}
 
@@ -25,15 +25,6 @@ import org.locationtech.proj4j.util.ProjectionMath;
 public class CassiniProjection extends Projection {
 
 	private double m0;
-	private double n;
-	private double t;
-	private double a1;
-	private double c;
-	private double r;
-	private double dd;
-	private double d2;
-	private double a2;
-	private double tn;
 	private double[] en;
 
 	private final static double EPS10 = 1e-10;
@@ -56,6 +47,8 @@ public class CassiniProjection extends Projection {
 			xy.x = Math.asin(Math.cos(lpphi) * Math.sin(lplam));
 			xy.y = Math.atan2(Math.tan(lpphi) , Math.cos(lplam)) - projectionLatitude;
 		} else {
+			double n, t, a1, c, a2, tn;
+
 			xy.y = ProjectionMath.mlfn(lpphi, n = Math.sin(lpphi), c = Math.cos(lpphi), en);
 			n = 1./Math.sqrt(1. - es * n * n);
 			tn = Math.tan(lpphi); t = tn * tn;
@@ -71,11 +64,13 @@ public class CassiniProjection extends Projection {
 	}
 
 	public ProjCoordinate projectInverse(double xyx, double xyy, ProjCoordinate out) {
+		double dd;
+
 		if (spherical) {
 			out.y = Math.asin(Math.sin(dd = xyy + projectionLatitude) * Math.cos(xyx));
 			out.x = Math.atan2(Math.tan(xyx), Math.cos(dd));
 		} else {
-			double ph1;
+			double ph1, n, t, r, d2, tn;
 
 			ph1 = ProjectionMath.inv_mlfn(m0 + xyy, es, en);
 			tn = Math.tan(ph1); t = tn * tn;
@@ -46,6 +46,7 @@ public class ExtendedTransverseMercatorProjection extends CylindricalProjection
 
     @Override
     public void setSouthernHemisphere(boolean isSouth) {
+        checkNotFrozen();
         this.isSouth = isSouth;
     }
 
@@ -188,7 +189,74 @@ public class ExtendedTransverseMercatorProjection extends CylindricalProjection
         return out;
     }
 
+    @Override
+    public void projectRadians(double[] x, double[] y, int off, int n) {
+        beginProject(x, off, n);
+        final double Qn = this.Qn, Zb = this.Zb;
+        final double[] cbg = this.cbg, gtu = this.gtu;
+        double[] dCn = new double[1];
+        double[] dCe = new double[1];
+        for (int i = off, end = off + n; i < end; i++) {
+            double sin_Cn, cos_Cn, cos_Ce, sin_Ce;
+            double Cn = y[i], Ce = x[i];
+
+            Cn = gatg(cbg, PROJ_ETMERC_ORDER, Cn);
+            sin_Cn = Math.sin(Cn);
+            cos_Cn = Math.cos(Cn);
+            sin_Ce = Math.sin(Ce);
+            cos_Ce = Math.cos(Ce);
+
+            Cn = Math.atan2(sin_Cn, cos_Ce * cos_Cn);
+            Ce = Math.atan2(sin_Ce * cos_Cn, Math.hypot(sin_Cn, cos_Cn * cos_Ce));
+
+            Ce = asinhy(Math.tan(Ce));
+            Cn += clenS(gtu, PROJ_ETMERC_ORDER, 2 * Cn, 2 * Ce, dCn, dCe);
+            Ce += dCe[0];
+            if (Math.abs(Ce) <= 2.623395162778) {
+                y[i] = Qn * Cn + Zb;
+                x[i] = Qn * Ce;
+            } else
+                x[i] = y[i] = HUGE_VAL;
+        }
+        endProject(x, y, off, n);
+    }
+
+    /**
+     * Inverse-projects arrays of projected ordinates in place.
+     * Points more than 150 degrees from the central meridian are left as they are,
+     * as {@link #projectInverse(double, double, ProjCoordinate)} leaves its output unchanged for them.
+     */
+    @Override
+    public void inverseProjectRadians(double[] x, double[] y, int off, int n) {
+        beginInverse(x, y, off, n);
+        final double Qn = this.Qn, Zb = this.Zb;
+        final double[] cgb = this.cgb, utg = this.utg;
+        double[] dCn = new double[1];
+        double[] dCe = new double[1];
+        for (int i = off, end = off + n; i < end; i++) {
+            double sin_Cn, cos_Cn, cos_Ce, sin_Ce;
+            double Cn = (y[i] - Zb) / Qn;
+            double Ce = x[i] / Qn;
+
+            if (Math.abs(Ce) <= 2.623395162778) {
+                Cn += clenS(utg, PROJ_ETMERC_ORDER, 2 * Cn, 2 * Ce, dCn, dCe);
+                Ce += dCe[0];
+                Ce = Math.atan(Math.sinh(Ce));
+                sin_Cn = Math.sin(Cn);
+                cos_Cn = Math.cos(Cn);
+                sin_Ce = Math.sin(Ce);
+                cos_Ce = Math.cos(Ce);
+                Ce = Math.atan2(sin_Ce, cos_Ce * cos_Cn);
+                Cn = Math.atan2(sin_Cn * cos_Ce, Math.hypot(sin_Ce, cos_Ce * cos_Cn));
+                y[i] = gatg(cgb, PROJ_ETMERC_ORDER, Cn);
+                x[i] = Ce;
+            }
+        }
+        endInverse(x, off, n);
+    }
+
     public void setUTMZone(int zone) {
+        checkNotFrozen();
         zone--;
         projectionLongitude = (zone + .5) * Math.PI / 30. - Math.PI;
         projectionLatitude = 0.0;
@@ -284,6 +352,60 @@ public class ExtendedTransverseMercatorProjection extends CylindricalProjection
         Zb = -Qn * (Z + clens(gtu, PROJ_ETMERC_ORDER, 2 * Z));
     }
 
+    /**
+     * Gets the coefficients of the series from Gaussian (conformal) to geodetic latitude.
+     *
+     * @return a copy of the coefficients
+     */
+    public double[] getGaussToGeodeticCoefficients() {
+        return cgb.clone();
+    }
+
+    /**
+     * Gets the coefficients of the series from geodetic to Gaussian (conformal) latitude.
+     *
+     * @return a copy of the coefficients
+     */
+    public double[] getGeodeticToGaussCoefficients() {
+        return cbg.clone();
+    }
+
+    /**
+     * Gets the coefficients of the Krüger series from ellipsoidal
+     * to spherical transverse Mercator coordinates.
+     *
+     * @return a copy of the coefficients
+     */
+    public double[] getEllipsoidToSphereCoefficients() {
+        return utg.clone();
+    }
+
+    /**
+     * Gets the coefficients of the Krüger series from spherical
+     * to ellipsoidal transverse Mercator coordinates.
+     *
+     * @return a copy of the coefficients
+     */
+    public double[] getSphereToEllipsoidCoefficients() {
+        return gtu.clone();
+    }
+
+    /**
+     * Gets the rectifying radius scaled by the scale factor,
+     * in units of the semi-major axis.
+     */
+    public double getScaledMeridianQuadrant() {
+        return Qn;
+    }
+
+    /**
+     * Gets the northing of the origin latitude on the central meridian, negated,
+     * in units of the semi-major axis.
+     */
+    public double getOriginNorthing() {
+        return Zb;
+    }
+
     public boolean hasInverse() {
         return true;
     }
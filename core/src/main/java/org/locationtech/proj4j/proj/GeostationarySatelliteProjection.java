@@ -58,6 +58,7 @@ public class GeostationarySatelliteProjection extends Projection {
 
     @Override
     public void setHeightOfOrbit(double h){
+        checkNotFrozen();
         this.heightOfOrbit = h;
     }
 
@@ -66,6 +66,7 @@ public class HammerProjection extends PseudoCylindricalProjection {
 
 	// Properties
 	public void setW( double w ) {
+		checkNotFrozen();
 		this.w = w;
 	}
 
@@ -74,6 +75,7 @@ public class HammerProjection extends PseudoCylindricalProjection {
 	}
 
 	public void setM( double m ) {
+		checkNotFrozen();
 		this.m = m;
 	}
 
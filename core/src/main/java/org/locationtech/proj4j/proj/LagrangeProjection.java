@@ -53,6 +53,7 @@ public class LagrangeProjection extends Projection {
 	}
 
 	public void setW( double w ) {
+		checkNotFrozen();
 		this.rw = w;
 	}
 
@@ -89,6 +89,56 @@ public class LambertConformalConicProjection extends ConicProjection {
 		return out;
 	}
 
+	@Override
+	public void projectRadians(double[] x, double[] y, int off, int count) {
+		beginProject(x, off, count);
+		final double k0 = scaleFactor, n = this.n, c = this.c, rho0 = this.rho0, e = this.e;
+		final boolean spherical = this.spherical;
+		for (int i = off, end = off + count; i < end; i++) {
+			double lam = x[i], phi = y[i];
+			double rho;
+			if (Math.abs(Math.abs(phi) - ProjectionMath.HALFPI) < 1e-10)
+				rho = 0.0;
+			else {
+				rho = c * (spherical ?
+					Math.pow(Math.tan(ProjectionMath.QUARTERPI + .5 * phi), -n) :
+					Math.pow(ProjectionMath.tsfn(phi, Math.sin(phi), e), n));
+			}
+			lam *= n;
+			x[i] = k0 * (rho * Math.sin(lam));
+			y[i] = k0 * (rho0 - rho * Math.cos(lam));
+		}
+		endProject(x, y, off, count);
+	}
+
+	@Override
+	public void inverseProjectRadians(double[] xs, double[] ys, int off, int count) {
+		beginInverse(xs, ys, off, count);
+		final double k0 = scaleFactor, n = this.n, c = this.c, rho0 = this.rho0, e = this.e;
+		final boolean spherical = this.spherical;
+		for (int i = off, end = off + count; i < end; i++) {
+			double x = xs[i] / k0;
+			double y = rho0 - ys[i] / k0;
+			double rho = ProjectionMath.distance(x, y);
+			if (rho != 0) {
+				if (n < 0.0) {
+					rho = -rho;
+					x = -x;
+					y = -y;
+				}
+				if (spherical)
+					ys[i] = 2.0 * Math.atan(Math.pow(c / rho, 1.0/n)) - ProjectionMath.HALFPI;
+				else
+					ys[i] = ProjectionMath.phi2(Math.pow(rho / c, 1.0/n), e);
+				xs[i] = Math.atan2(x, y) / n;
+			} else {
+				xs[i] = 0.0;
+				ys[i] = n > 0.0 ? ProjectionMath.HALFPI : -ProjectionMath.HALFPI;
+			}
+		}
+		endInverse(xs, off, count);
+	}
+
 	public void initialize() {
 		super.initialize();
 		double cosphi, sinphi;
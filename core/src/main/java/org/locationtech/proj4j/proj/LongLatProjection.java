@@ -40,6 +40,7 @@ public class LongLatProjection extends Projection
 
     public void initialize()
     {
+        checkNotFrozen();
         // units are always in Decimal Degrees
         unit = Units.DEGREES;
         totalScale = 1.0;
@@ -51,6 +51,47 @@ public class MercatorProjection extends CylindricalProjection {
 		return out;
 	}
 
+	@Override
+	public void projectRadians(double[] x, double[] y, int off, int n) {
+		beginProject(x, off, n);
+		final double k0 = scaleFactor;
+		final int end = off + n;
+		if (spherical) {
+			for (int i = off; i < end; i++) {
+				x[i] = k0 * x[i];
+				y[i] = k0 * Math.log(Math.tan(ProjectionMath.QUARTERPI + 0.5 * y[i]));
+			}
+		} else {
+			final double e = this.e;
+			for (int i = off; i < end; i++) {
+				double phi = y[i];
+				x[i] = k0 * x[i];
+				y[i] = -k0 * Math.log(ProjectionMath.tsfn(phi, Math.sin(phi), e));
+			}
+		}
+		endProject(x, y, off, n);
+	}
+
+	@Override
+	public void inverseProjectRadians(double[] x, double[] y, int off, int n) {
+		beginInverse(x, y, off, n);
+		final double k0 = scaleFactor;
+		final int end = off + n;
+		if (spherical) {
+			for (int i = off; i < end; i++) {
+				y[i] = ProjectionMath.HALFPI - 2. * Math.atan(Math.exp(-y[i] / k0));
+				x[i] = x[i] / k0;
+			}
+		} else {
+			final double e = this.e;
+			for (int i = off; i < end; i++) {
+				y[i] = ProjectionMath.phi2(Math.exp(-y[i] / k0), e);
+				x[i] = x[i] / k0;
+			}
+		}
+		endInverse(x, off, n);
+	}
+
 	public boolean hasInverse() {
 		return true;
 	}
@@ -62,6 +62,7 @@ public class MolleweideProjection extends PseudoCylindricalProjection {
 	}
 
 	public void init(double p) {
+		checkNotFrozen();
 		double r, sp, p2 = p + p;
 
 		sp = Math.sin(p);
@@ -165,10 +165,12 @@ public class ObliqueMercatorProjection extends CylindricalProjection {
 	}
 
     @Override public void setGamma(double gamma) {
+        checkNotFrozen();
         this.Gamma = gamma;
     }
     
     @Override public void setNoUoff(boolean no_uoff) {
+    	checkNotFrozen();
     	this.no_uoff = no_uoff;
     }
 
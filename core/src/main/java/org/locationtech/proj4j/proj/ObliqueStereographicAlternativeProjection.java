@@ -58,6 +58,54 @@ public class ObliqueStereographicAlternativeProjection extends GaussProjection {
     return out;
   }
 
+  @Override
+  public void projectRadians(double[] x, double[] y, int off, int n) {
+    beginProject(x, off, n);
+    final double k0 = scaleFactor, R2 = this.R2, sinc0 = this.sinc0, cosc0 = this.cosc0;
+    ProjCoordinate gauss = new ProjCoordinate();
+    for (int i = off, end = off + n; i < end; i++) {
+      super.project(x[i], y[i], gauss);
+      double lplam = gauss.x;
+      double lpphi = gauss.y;
+      double sinc = Math.sin(lpphi);
+      double cosc = Math.cos(lpphi);
+      double cosl = Math.cos(lplam);
+      double k = k0 * R2 / (1. + sinc0 * sinc + cosc0 * cosc * cosl);
+      x[i] = k * cosc * Math.sin(lplam);
+      y[i] = k * (cosc0 * sinc - sinc0 * cosc * cosl);
+    }
+    endProject(x, y, off, n);
+  }
+
+  @Override
+  public void inverseProjectRadians(double[] x, double[] y, int off, int n) {
+    beginInverse(x, y, off, n);
+    final double k0 = scaleFactor, R2 = this.R2, sinc0 = this.sinc0, cosc0 = this.cosc0, phic0 = this.phic0;
+    ProjCoordinate lp = new ProjCoordinate();
+    for (int i = off, end = off + n; i < end; i++) {
+      double xyx = x[i] / k0;
+      double xyy = y[i] / k0;
+      double rho = Math.sqrt(xyx * xyx + xyy * xyy);
+      double lpphi;
+      double lplam;
+      if (rho != 0) {
+        double c = 2. * Math.atan2(rho, R2);
+        double sinc = Math.sin(c);
+        double cosc = Math.cos(c);
+        lpphi = Math.asin(cosc * sinc0 + xyy * sinc * cosc0 / rho);
+        lplam = Math.atan2(xyx * sinc, rho * cosc0 * cosc -
+          xyy * sinc0 * sinc);
+      } else {
+        lpphi = phic0;
+        lplam = 0.;
+      }
+      super.projectInverse(lplam, lpphi, lp);
+      x[i] = lp.x;
+      y[i] = lp.y;
+    }
+    endInverse(x, off, n);
+  }
+
 	public ProjCoordinate projectInverse(double x, double y, ProjCoordinate out) {
 	  double xyx = x / scaleFactor;
 	  double xyy = y / scaleFactor;
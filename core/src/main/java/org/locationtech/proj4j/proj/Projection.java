@@ -37,6 +37,12 @@ import org.locationtech.proj4j.util.ProjectionMath;
  * {@link CoordinateReferenceSystem}s,
  * distinguished by different values for the
  * projection parameters.
+ * <p>
+ * A projection is defined by calling its setters and then {@link #initialize()}.
+ * Projections created by the parser are then frozen (see {@link #freeze()}),
+ * after which they cannot be changed.
+ * The projection methods keep no state in the projection,
+ * so a frozen projection can be used by any number of threads at once.
  */
 public abstract class Projection implements Cloneable, java.io.Serializable {
 
@@ -191,6 +197,11 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      */
     private AxisOrder axes = AxisOrder.ENU;
 
+    /**
+     * Whether this projection can no longer be changed
+     */
+    private boolean frozen = false;
+
     // Some useful constants
     protected final static double EPS10 = 1e-10;
     protected final static double RTD = 180.0/Math.PI;
@@ -203,6 +214,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     public Object clone() {
         try {
             Projection e = (Projection)super.clone();
+            e.frozen = false;
             return e;
         }
         catch ( CloneNotSupportedException e ) {
@@ -347,6 +359,178 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     }
 
 
+    /**
+     * Projects arrays of geographic ordinates (in degrees) in place,
+     * producing projected ordinates (in the units of the target coordinate system).
+     * Each point gives the same result as {@link #project(ProjCoordinate, ProjCoordinate)}.
+     * If a point cannot be projected an exception is thrown,
+     * and the contents of the range are undefined:
+     * points may have been projected, partially projected, or left unchanged.
+     *
+     * @param x the longitudes, replaced by the projected x ordinates
+     * @param y the latitudes, replaced by the projected y ordinates
+     * @param off the index of the first point
+     * @param n the number of points
+     */
+    public void project(double[] x, double[] y, int off, int n) {
+        for (int i = off, end = off + n; i < end; i++) {
+            x[i] *= DTR;
+            y[i] *= DTR;
+        }
+        projectRadians(x, y, off, n);
+    }
+
+    /**
+     * Projects arrays of geographic ordinates (in radians) in place,
+     * producing projected ordinates (in the units of the target coordinate system).
+     * Each point gives the same result as {@link #projectRadians(ProjCoordinate, ProjCoordinate)}.
+     * If a point cannot be projected an exception is thrown,
+     * and the contents of the range are undefined:
+     * points may have been projected, partially projected, or left unchanged.
+     * <p>
+     * This implementation projects one point at a time;
+     * projections which carry a lot of traffic override it with a tighter loop.
+     *
+     * @param x the longitudes, replaced by the projected x ordinates
+     * @param y the latitudes, replaced by the projected y ordinates
+     * @param off the index of the first point
+     * @param n the number of points
+     */
+    public void projectRadians(double[] x, double[] y, int off, int n) {
+        ProjCoordinate p = new ProjCoordinate();
+        for (int i = off, end = off + n; i < end; i++) {
+            p.x = x[i];
+            p.y = y[i];
+            projectRadians(p, p);
+            x[i] = p.x;
+            y[i] = p.y;
+        }
+    }
+
+    /**
+     * Inverse-projects arrays of projected ordinates (in the units of the coordinate system) in place,
+     * producing geographic ordinates (in degrees).
+     * Each point gives the same result as {@link #inverseProject(ProjCoordinate, ProjCoordinate)}.
+     * If a point cannot be inverse-projected an exception is thrown,
+     * and the contents of the range are undefined:
+     * points may have been inverse-projected, partially inverse-projected, or left unchanged.
+     *
+     * @param x the projected x ordinates, replaced by the longitudes
+     * @param y the projected y ordinates, replaced by the latitudes
+     * @param off the index of the first point
+     * @param n the number of points
+     */
+    public void inverseProject(double[] x, double[] y, int off, int n) {
+        inverseProjectRadians(x, y, off, n);
+        for (int i = off, end = off + n; i < end; i++) {
+            x[i] *= RTD;
+            y[i] *= RTD;
+        }
+    }
+
+    /**
+     * Inverse-projects arrays of projected ordinates (in the units of the coordinate system) in place,
+     * producing geographic ordinates (in radians).
+     * Each point gives the same result as {@link #inverseProjectRadians(ProjCoordinate, ProjCoordinate)}.
+     * If a point cannot be inverse-projected an exception is thrown,
+     * and the contents of the range are undefined:
+     * points may have been inverse-projected, partially inverse-projected, or left unchanged.
+     * <p>
+     * This implementation inverse-projects one point at a time;
+     * projections which carry a lot of traffic override it with a tighter loop.
+     *
+     * @param x the projected x ordinates, replaced by the longitudes
+     * @param y the projected y ordinates, replaced by the latitudes
+     * @param off the index of the first point
+     * @param n the number of points
+     */
+    public void inverseProjectRadians(double[] x, double[] y, int off, int n) {
+        ProjCoordinate p = new ProjCoordinate();
+        for (int i = off, end = off + n; i < end; i++) {
+            p.x = x[i];
+            p.y = y[i];
+            inverseProjectRadians(p, p);
+            x[i] = p.x;
+            y[i] = p.y;
+        }
+    }
+
+    /**
+     * Prepares geographic longitudes (in radians) for an array form of
+     * {@link #project(double, double, ProjCoordinate)},
+     * as {@link #projectRadians(ProjCoordinate, ProjCoordinate)} does for a single point.
+     */
+    protected final void beginProject(double[] x, int off, int n) {
+        double lon0 = projectionLongitude;
+        if (lon0 == 0) return;
+        for (int i = off, end = off + n; i < end; i++) {
+            x[i] = ProjectionMath.normalizeLongitude(x[i] - lon0);
+        }
+    }
+
+    /**
+     * Converts the results of an array form of {@link #project(double, double, ProjCoordinate)}
+     * to the units of the coordinate system,
+     * as {@link #projectRadians(ProjCoordinate, ProjCoordinate)} does for a single point.
+     */
+    protected final void endProject(double[] x, double[] y, int off, int n) {
+        int end = off + n;
+        if (unit != null && unit.equals(Units.DEGREES)) {
+            for (int i = off; i < end; i++) {
+                x[i] *= RTD;
+                y[i] *= RTD;
+            }
+        } else {
+            double scale = totalScale;
+            double x0 = totalFalseEasting;
+            double y0 = totalFalseNorthing;
+            for (int i = off; i < end; i++) {
+                x[i] = scale * x[i] + x0;
+                y[i] = scale * y[i] + y0;
+            }
+        }
+    }
+
+    /**
+     * Prepares projected ordinates for an array form of {@link #projectInverse(double, double, ProjCoordinate)},
+     * as {@link #inverseProjectRadians(ProjCoordinate, ProjCoordinate)} does for a single point.
+     */
+    protected final void beginInverse(double[] x, double[] y, int off, int n) {
+        int end = off + n;
+        if (unit != null && unit.equals(Units.DEGREES)) {
+            for (int i = off; i < end; i++) {
+                x[i] *= DTR;
+                y[i] *= DTR;
+            }
+        } else {
+            double scale = totalScale;
+            double x0 = totalFalseEasting;
+            double y0 = totalFalseNorthing;
+            for (int i = off; i < end; i++) {
+                x[i] = (x[i] - x0) / scale;
+                y[i] = (y[i] - y0) / scale;
+            }
+        }
+    }
+
+    /**
+     * Completes the longitudes computed by an array form of {@link #projectInverse(double, double, ProjCoordinate)},
+     * as {@link #inverseProjectRadians(ProjCoordinate, ProjCoordinate)} does for a single point.
+     */
+    protected final void endInverse(double[] x, int off, int n) {
+        double lon0 = projectionLongitude;
+        for (int i = off, end = off + n; i < end; i++) {
+            double lam = x[i];
+            if (lam < -Math.PI)
+                lam = -Math.PI;
+            else if (lam > Math.PI)
+                lam = Math.PI;
+            if (lon0 != 0)
+                lam = ProjectionMath.normalizeLongitude(lam + lon0);
+            x[i] = lam;
+        }
+    }
+
     /**
      * Tests whether this projection is conformal.
      * A conformal projection preserves local angles.
@@ -408,6 +592,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the name of this projection.
      */
     public void setName( String name ) {
+        checkNotFrozen();
         this.name = name;
     }
 
@@ -452,6 +637,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     }
 
     public void setAxisOrder(String axes) {
+        checkNotFrozen();
         this.axes = AxisOrder.fromString(axes);
     }
 
@@ -460,6 +646,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     }
 
     public void setPrimeMeridian(String primeMeridian) {
+        checkNotFrozen();
         this.primeMeridian = PrimeMeridian.forName(primeMeridian);
     }
 
@@ -471,6 +658,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the minimum latitude. This is only used for Shape clipping and doesn't affect projection.
      */
     public void setMinLatitude( double minLatitude ) {
+        checkNotFrozen();
         this.minLatitude = minLatitude;
     }
 
@@ -482,6 +670,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the maximum latitude. This is only used for Shape clipping and doesn't affect projection.
      */
     public void setMaxLatitude( double maxLatitude ) {
+        checkNotFrozen();
         this.maxLatitude = maxLatitude;
     }
 
@@ -498,6 +687,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     }
 
     public void setMinLongitude( double minLongitude ) {
+        checkNotFrozen();
         this.minLongitude = minLongitude;
     }
 
@@ -506,6 +696,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     }
 
     public void setMinLongitudeDegrees( double minLongitude ) {
+        checkNotFrozen();
         this.minLongitude = DTR*minLongitude;
     }
 
@@ -514,6 +705,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     }
 
     public void setMaxLongitude( double maxLongitude ) {
+        checkNotFrozen();
         this.maxLongitude = maxLongitude;
     }
 
@@ -522,6 +714,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     }
 
     public void setMaxLongitudeDegrees( double maxLongitude ) {
+        checkNotFrozen();
         this.maxLongitude = DTR*maxLongitude;
     }
 
@@ -533,6 +726,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the projection latitude in radians.
      */
     public void setProjectionLatitude( double projectionLatitude ) {
+        checkNotFrozen();
         this.projectionLatitude = projectionLatitude;
     }
 
@@ -544,6 +738,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the projection latitude in degrees.
      */
     public void setProjectionLatitudeDegrees( double projectionLatitude ) {
+        checkNotFrozen();
         this.projectionLatitude = DTR*projectionLatitude;
     }
 
@@ -555,6 +750,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the projection longitude in radians.
      */
     public void setProjectionLongitude( double projectionLongitude ) {
+        checkNotFrozen();
         this.projectionLongitude = normalizeLongitudeRadians( projectionLongitude );
     }
 
@@ -566,6 +762,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the projection longitude in degrees.
      */
     public void setProjectionLongitudeDegrees( double projectionLongitude ) {
+        checkNotFrozen();
         this.projectionLongitude = DTR*projectionLongitude;
     }
 
@@ -577,6 +774,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the latitude of true scale in radians. This is only used by certain projections.
      */
     public void setTrueScaleLatitude( double trueScaleLatitude ) {
+        checkNotFrozen();
         this.trueScaleLatitude = trueScaleLatitude;
     }
 
@@ -588,6 +786,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the latitude of true scale in degrees. This is only used by certain projections.
      */
     public void setTrueScaleLatitudeDegrees( double trueScaleLatitude ) {
+        checkNotFrozen();
         this.trueScaleLatitude = DTR*trueScaleLatitude;
     }
 
@@ -599,6 +798,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the projection latitude in radians.
      */
     public void setProjectionLatitude1( double projectionLatitude1 ) {
+        checkNotFrozen();
         this.projectionLatitude1 = projectionLatitude1;
     }
 
@@ -610,6 +810,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the projection latitude in degrees.
      */
     public void setProjectionLatitude1Degrees( double projectionLatitude1 ) {
+        checkNotFrozen();
         this.projectionLatitude1 = DTR*projectionLatitude1;
     }
 
@@ -621,6 +822,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the projection latitude in radians.
      */
     public void setProjectionLatitude2( double projectionLatitude2 ) {
+        checkNotFrozen();
         this.projectionLatitude2 = projectionLatitude2;
     }
 
@@ -632,6 +834,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the projection latitude in degrees.
      */
     public void setProjectionLatitude2Degrees( double projectionLatitude2 ) {
+        checkNotFrozen();
         this.projectionLatitude2 = DTR*projectionLatitude2;
     }
 
@@ -643,6 +846,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Sets the alpha value.
      */
     public void setAlpha( double alpha ) {
+        checkNotFrozen();
         this.alpha = alpha;
     }
     
@@ -650,6 +854,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Sets the alpha value.
      */
     public void setAlphaDegrees( double alpha ) {
+        checkNotFrozen();
         this.alpha = DTR * alpha;
     }
 
@@ -667,6 +872,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Sets the lonc value.
      */
     public void setLonC( double lonc ) {
+        checkNotFrozen();
         this.lonc = lonc;
     }
     
@@ -674,6 +880,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Sets the lonc value.
      */
     public void setLonCDegrees( double lonc ) {
+    	checkNotFrozen();
     	this.lonc = DTR * lonc;
     }
 
@@ -691,6 +898,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the false Northing in projected units.
      */
     public void setFalseNorthing( double falseNorthing ) {
+        checkNotFrozen();
         this.falseNorthing = falseNorthing;
     }
 
@@ -702,6 +910,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the false Easting in projected units.
      */
     public void setFalseEasting( double falseEasting ) {
+        checkNotFrozen();
         this.falseEasting = falseEasting;
     }
 
@@ -710,6 +919,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     }
 
     public void setSouthernHemisphere(boolean isSouth) {
+        checkNotFrozen();
         throw new NoSuchElementException();
     }
 
@@ -722,6 +932,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * This value is called "k0" in PROJ.4.
      */
     public void setScaleFactor( double scaleFactor ) {
+        checkNotFrozen();
         this.scaleFactor = scaleFactor;
     }
 
@@ -743,6 +954,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * Set the conversion factor from metres to projected units. This is set to 1 by default.
      */
     public void setFromMetres( double fromMetres ) {
+        checkNotFrozen();
         this.fromMetres = fromMetres;
     }
 
@@ -751,6 +963,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     }
 
     public void setEllipsoid( Ellipsoid ellipsoid ) {
+        checkNotFrozen();
         this.ellipsoid = ellipsoid;
         a = ellipsoid.equatorRadius;
         e = ellipsoid.eccentricity;
@@ -762,6 +975,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
     }
 
     public void setRadius(double radius) {
+        checkNotFrozen();
         a = radius;
     }
 
@@ -774,6 +988,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
 
     public void setUnits(Unit unit)
     {
+        checkNotFrozen();
         this.unit = unit;
     }
 
@@ -794,6 +1009,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * @param h Height of orbit
      */
     public void setHeightOfOrbit(double h){
+        checkNotFrozen();
         throw new NoSuchElementException();
     }
 
@@ -802,6 +1018,7 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
      * This is for performance reasons as initialization may be expensive.
      */
     public void initialize() {
+        checkNotFrozen();
         spherical = (e == 0.0);
         one_es = 1-es;
         rone_es = 1.0/one_es;
@@ -830,15 +1047,48 @@ public abstract class Projection implements Cloneable, java.io.Serializable {
         return angle;
     }
 
+    /**
+     * Makes this projection immutable.
+     * Any later call to a setter or to {@link #initialize()} throws an {@link IllegalStateException}.
+     * A frozen projection may be shared between threads, provided it is frozen before it is published;
+     * {@link #clone()} returns a copy which can be changed.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * Tests whether this projection has been frozen.
+     *
+     * @return true if this projection can no longer be changed
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Checks that this projection can be changed.
+     * Setters and initialization in subclasses call this before changing any field.
+     *
+     * @throws IllegalStateException if this projection has been frozen
+     */
+    protected final void checkNotFrozen() {
+        if (frozen)
+            throw new IllegalStateException("Projection " + getName() + " is frozen");
+    }
+
     public void setGamma(double gamma) {
+        checkNotFrozen();
         // no-op, overridden for Oblique Mercator
     }
     
     public void setGammaDegrees(double gamma) {
+    	checkNotFrozen();
     	setGamma(DTR * gamma);
     }
 
     public void setNoUoff(boolean no_uoff) {
+        checkNotFrozen();
         // no-op, overridden for Oblique Mercator
     }
 
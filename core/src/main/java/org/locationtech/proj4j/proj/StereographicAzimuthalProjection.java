@@ -38,6 +38,7 @@ public class StereographicAzimuthalProjection extends AzimuthalProjection {
 	}
 
 	public void setupUPS(int pole) {
+		checkNotFrozen();
 		projectionLatitude = (pole == SOUTH_POLE) ? -ProjectionMath.HALFPI: ProjectionMath.HALFPI;
 		projectionLongitude = 0.0;
 		scaleFactor = 0.994;
@@ -168,6 +169,79 @@ public class StereographicAzimuthalProjection extends AzimuthalProjection {
 		return xy;
 	}
 
+	@Override
+	public void projectRadians(double[] x, double[] y, int off, int n) {
+		beginProject(x, off, n);
+		final int end = off + n;
+		if (spherical) {
+			ProjCoordinate xy = new ProjCoordinate();
+			for (int i = off; i < end; i++) {
+				project(x[i], y[i], xy);
+				x[i] = xy.x;
+				y[i] = xy.y;
+			}
+		} else {
+			final double akm1 = this.akm1, e = this.e, sinphi0 = this.sinphi0, cosphi0 = this.cosphi0;
+			switch (mode) {
+			case OBLIQUE:
+				for (int i = off; i < end; i++) {
+					double lam = x[i], phi = y[i];
+					double coslam = Math.cos(lam);
+					double X = 2. * Math.atan(ssfn(phi, Math.sin(phi), e)) - ProjectionMath.HALFPI;
+					double sinX = Math.sin(X);
+					double cosX = Math.cos(X);
+					double A = akm1 / (cosphi0 * (1. + sinphi0 * sinX + cosphi0 * cosX * coslam));
+					y[i] = A * (cosphi0 * sinX - sinphi0 * cosX * coslam);
+					x[i] = A * cosX * Math.sin(lam);
+				}
+				break;
+			case EQUATOR:
+				for (int i = off; i < end; i++) {
+					double lam = x[i], phi = y[i];
+					double coslam = Math.cos(lam);
+					double X = 2. * Math.atan(ssfn(phi, Math.sin(phi), e)) - ProjectionMath.HALFPI;
+					double sinX = Math.sin(X);
+					double cosX = Math.cos(X);
+					double A = akm1 / (1. + cosX * coslam);
+					y[i] = A * sinX;
+					x[i] = A * cosX * Math.sin(lam);
+				}
+				break;
+			case SOUTH_POLE:
+				for (int i = off; i < end; i++) {
+					double lam = x[i], phi = y[i];
+					double coslam = Math.cos(lam);
+					double rho = akm1 * ProjectionMath.tsfn(-phi, -Math.sin(phi), e);
+					y[i] = rho * coslam;
+					x[i] = rho * Math.sin(lam);
+				}
+				break;
+			case NORTH_POLE:
+				for (int i = off; i < end; i++) {
+					double lam = x[i], phi = y[i];
+					double coslam = Math.cos(lam);
+					double rho = akm1 * ProjectionMath.tsfn(phi, Math.sin(phi), e);
+					y[i] = - rho * coslam;
+					x[i] = rho * Math.sin(lam);
+				}
+				break;
+			}
+		}
+		endProject(x, y, off, n);
+	}
+
+	@Override
+	public void inverseProjectRadians(double[] x, double[] y, int off, int n) {
+		beginInverse(x, y, off, n);
+		ProjCoordinate lp = new ProjCoordinate();
+		for (int i = off, end = off + n; i < end; i++) {
+			projectInverse(x[i], y[i], lp);
+			x[i] = lp.x;
+			y[i] = lp.y;
+		}
+		endInverse(x, off, n);
+	}
+
 	public ProjCoordinate projectInverse(double x, double y, ProjCoordinate lp) {
 		if (spherical) {
 			double  c, rh, sinc, cosc;
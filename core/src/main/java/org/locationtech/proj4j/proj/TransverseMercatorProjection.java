@@ -70,6 +70,7 @@ public class TransverseMercatorProjection extends CylindricalProjection {
 
     @Override
     public void setSouthernHemisphere(boolean isSouth) {
+        checkNotFrozen();
         this.isSouth = isSouth;
     }
 
@@ -120,6 +121,7 @@ public class TransverseMercatorProjection extends CylindricalProjection {
     }
 
     public void setUTMZone(int zone) {
+        checkNotFrozen();
         utmZone = zone;
         zone--;
         projectionLongitude = (zone + .5) * Math.PI / 30. - Math.PI;
@@ -166,6 +168,107 @@ public class TransverseMercatorProjection extends CylindricalProjection {
         return xy;
     }
 
+    @Override
+    public void projectRadians(double[] x, double[] y, int off, int n) {
+        beginProject(x, off, n);
+        final double k0 = scaleFactor, ml0 = this.ml0, esp = this.esp, es = this.es;
+        final int end = off + n;
+        if (spherical) {
+            final double phi0 = projectionLatitude;
+            for (int i = off; i < end; i++) {
+                double lplam = x[i], lpphi = y[i];
+                double cosphi = Math.cos(lpphi);
+                double b = cosphi * Math.sin(lplam);
+
+                x[i] = ml0 * k0 * Math.log((1. + b) / (1. - b));
+                double ty = cosphi * Math.cos(lplam) / Math.sqrt(1. - b * b);
+                ty = ProjectionMath.acos(ty);
+                if (lpphi < 0.0)
+                    ty = -ty;
+                y[i] = esp * (ty - phi0);
+            }
+        } else {
+            final double[] en = this.en;
+            for (int i = off; i < end; i++) {
+                double lplam = x[i], lpphi = y[i];
+                double al, als, nn, t;
+                double sinphi = Math.sin(lpphi);
+                double cosphi = Math.cos(lpphi);
+                t = Math.abs(cosphi) > 1e-10 ? sinphi / cosphi : 0.0;
+                t *= t;
+                al = cosphi * lplam;
+                als = al * al;
+                al /= Math.sqrt(1. - es * sinphi * sinphi);
+                nn = esp * cosphi * cosphi;
+                x[i] = k0 * al * (FC1 +
+                        FC3 * als * (1. - t + nn +
+                                FC5 * als * (5. + t * (t - 18.) + nn * (14. - 58. * t)
+                                        + FC7 * als * (61. + t * (t * (179. - t) - 479.))
+                                )));
+                y[i] = k0 * (ProjectionMath.mlfn(lpphi, sinphi, cosphi, en) - ml0 +
+                        sinphi * al * lplam * FC2 * (1. +
+                                FC4 * als * (5. - t + nn * (9. + 4. * nn) +
+                                        FC6 * als * (61. + t * (t - 58.) + nn * (270. - 330 * t)
+                                                + FC8 * als * (1385. + t * (t * (543. - t) - 3111.))
+                                        ))));
+            }
+        }
+        endProject(x, y, off, n);
+    }
+
+    @Override
+    public void inverseProjectRadians(double[] x, double[] y, int off, int n) {
+        beginInverse(x, y, off, n);
+        final double k0 = scaleFactor;
+        final int end = off + n;
+        if (spherical) {
+            final double phi0 = projectionLatitude;
+            for (int i = off; i < end; i++) {
+                double xi = x[i], yi = y[i];
+                double h = Math.exp(xi / k0);
+                double g = .5 * (h - 1. / h);
+                h = Math.cos(phi0 + yi / k0);
+                double phi = ProjectionMath.asin(Math.sqrt((1. - h * h) / (1. + g * g)));
+                y[i] = yi < 0 ? -phi : phi;
+                x[i] = Math.atan2(g, h);
+            }
+        } else {
+            final double ml0 = this.ml0, esp = this.esp, es = this.es;
+            final double[] en = this.en;
+            for (int i = off; i < end; i++) {
+                double xi = x[i], yi = y[i];
+                double nn, con, cosphi, d, ds, sinphi, t;
+
+                double phi = ProjectionMath.inv_mlfn(ml0 + yi / k0, es, en);
+                if (Math.abs(yi) >= ProjectionMath.HALFPI) {
+                    y[i] = yi < 0. ? -ProjectionMath.HALFPI : ProjectionMath.HALFPI;
+                    x[i] = 0.;
+                } else {
+                    sinphi = Math.sin(phi);
+                    cosphi = Math.cos(phi);
+                    t = Math.abs(cosphi) > 1e-10 ? sinphi / cosphi : 0.;
+                    nn = esp * cosphi * cosphi;
+                    d = xi * Math.sqrt(con = 1. - es * sinphi * sinphi) / k0;
+                    con *= t;
+                    t *= t;
+                    ds = d * d;
+                    y[i] = phi - (con * ds / (1. - es)) * FC2 * (1. -
+                            ds * FC4 * (5. + t * (3. - 9. * nn) + nn * (1. - 4 * nn) -
+                                    ds * FC6 * (61. + t * (90. - 252. * nn +
+                                            45. * t) + 46. * nn
+                                            - ds * FC8 * (1385. + t * (3633. + t * (4095. + 1574. * t)))
+                                    )));
+                    x[i] = d * (FC1 -
+                            ds * FC3 * (1. + 2. * t + nn -
+                                    ds * FC5 * (5. + t * (28. + 24. * t + 8. * nn) + 6. * nn
+                                            - ds * FC7 * (61. + t * (662. + t * (1320. + 720. * t)))
+                                    ))) / cosphi;
+                }
+            }
+        }
+        endInverse(x, off, n);
+    }
+
     public ProjCoordinate projectInverse(double x, double y, ProjCoordinate out) {
         if (spherical) {
             double h = Math.exp(x / scaleFactor);
@@ -63,6 +63,7 @@ public class UrmaevFlatPolarSinusoidalProjection extends Projection {
 
 	// Properties
 	public void setN( double n ) {
+		checkNotFrozen();
 		this.n = n;
 	}
 
@@ -16,6 +16,10 @@
 
 package org.locationtech.proj4j.units;
 
+import java.util.Map;
+
+import org.locationtech.proj4j.util.NameIndex;
+
 public class Units {
 
     // Angular units
@@ -62,12 +66,31 @@ public class Units {
         NAUTICAL_MILES
     };
 
+    private static volatile UnitIndex unitIndex;
+
+    /**
+     * Finds a unit by its name, plural or abbreviation,
+     * returning {@link #METRES} if there is no such unit.
+     */
     public static Unit findUnits(String name) {
-        for (int i = 0; i < units.length; i++) {
-            if (name.equals(units[i].name) || name.equals(units[i].plural) || name.equals(units[i].abbreviation))
-                return units[i];
+        UnitIndex index = unitIndex;
+        // the index is rebuilt if the units array is replaced
+        if (index == null || index.units != units) {
+            index = new UnitIndex(units);
+            unitIndex = index;
+        }
+        Unit unit = index.unitsByName.get(name);
+        return unit != null ? unit : METRES;
+    }
+
+    private static final class UnitIndex {
+        final Unit[] units;
+        final Map<String, Unit> unitsByName;
+
+        UnitIndex(Unit[] units) {
+            this.units = units;
+            this.unitsByName = NameIndex.index(units, unit -> unit.name, unit -> unit.plural, unit -> unit.abbreviation);
         }
-        return METRES;
     }
 
     public static double convert(double value, Unit from, Unit to) {
@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe cache holding at most a fixed number of entries,
+ * evicting the least-recently used entry when full.
+ * <p>
+ * The cache may also be bounded by the total weight of its entries,
+ * as given by a function weighing each value (for instance by the memory it takes),
+ * and may discard entries which have not been used for a given time.
+ * Entries are discarded in least-recently used order until the cache is within all its bounds.
+ * <p>
+ * Values are computed outside the cache lock, so a slow computation
+ * does not block lookups of other keys.  If two threads miss on the same key
+ * at the same time both may compute a value, but only the first one stored
+ * is kept and returned to both callers.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public class BoundedCache<K, V> {
+
+    private final int maximumSize;
+    private final long maximumWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final long expireAfterAccessNanos;
+    private final LongSupplier clock;
+
+    // in access order, so the least-recently used entry is first
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
+
+    /**
+     * Creates a cache holding at most <code>maximumSize</code> entries.
+     *
+     * @param maximumSize the maximum number of entries
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public BoundedCache(int maximumSize) {
+        this(maximumSize, Long.MAX_VALUE, null, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a cache bounded by the number and total weight of its entries,
+     * which discards entries not used for a given time.
+     *
+     * @param maximumSize the maximum number of entries
+     * @param maximumWeight the maximum total weight of the entries
+     * @param weigher gives the weight of a value, or <code>null</code> to give each value a weight of 1
+     * @param expireAfterAccess the time after which an unused entry is discarded, or 0 to keep entries until evicted
+     * @param unit the unit of <code>expireAfterAccess</code>
+     * @throws IllegalArgumentException if the size or weight is not positive, or the time is negative
+     */
+    public BoundedCache(int maximumSize, long maximumWeight, ToLongFunction<? super V> weigher,
+                        long expireAfterAccess, TimeUnit unit) {
+        this(maximumSize, maximumWeight, weigher, unit.toNanos(expireAfterAccess), System::nanoTime);
+    }
+
+    BoundedCache(int maximumSize, long maximumWeight, ToLongFunction<? super V> weigher,
+                 long expireAfterAccessNanos, LongSupplier clock) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+        if (maximumWeight <= 0)
+            throw new IllegalArgumentException("Cache weight must be positive: " + maximumWeight);
+        if (expireAfterAccessNanos < 0)
+            throw new IllegalArgumentException("Expiry time must not be negative: " + expireAfterAccessNanos);
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.expireAfterAccessNanos = expireAfterAccessNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the value cached for a key,
+     * computing and caching it with the given function if it is not present.
+     * <code>null</code> values are not cached.
+     *
+     * @param key the key to look up
+     * @param loader the function used to compute a missing value
+     * @return the cached or computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = lookup(key);
+        if (value != null) {
+            hitCount.incrementAndGet();
+            return value;
+        }
+        missCount.incrementAndGet();
+
+        V loaded;
+        long start = System.nanoTime();
+        try {
+            loaded = loader.apply(key);
+        } finally {
+            totalLoadTime.addAndGet(System.nanoTime() - start);
+        }
+        if (loaded == null) return null;
+        long w = weigher == null ? 1 : weigher.applyAsLong(loaded);
+        synchronized (map) {
+            long now = clock.getAsLong();
+            Entry<V> existing = map.get(key);
+            if (existing != null && !isExpired(existing, now)) {
+                existing.accessTime = now;
+                return existing.value;
+            }
+            Entry<V> previous = map.put(key, new Entry<>(loaded, w, now));
+            if (previous != null) weight -= previous.weight;
+            weight += w;
+            evict(now);
+        }
+        return loaded;
+    }
+
+    /**
+     * Gets the value cached for a key, if any.
+     * This does not affect the hit and miss counts.
+     *
+     * @param key the key to look up
+     * @return the cached value, or <code>null</code> if none
+     */
+    public V getIfPresent(K key) {
+        return lookup(key);
+    }
+
+    private V lookup(K key) {
+        synchronized (map) {
+            Entry<V> entry = map.get(key);
+            if (entry == null) return null;
+            long now = clock.getAsLong();
+            if (isExpired(entry, now)) {
+                map.remove(key);
+                weight -= entry.weight;
+                evictionCount.incrementAndGet();
+                return null;
+            }
+            entry.accessTime = now;
+            return entry.value;
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return expireAfterAccessNanos > 0 && now - entry.accessTime >= expireAfterAccessNanos;
+    }
+
+    // discards least-recently used entries until the cache is within its bounds,
+    // including all expired entries, which come before any others
+    private void evict(long now) {
+        Iterator<Entry<V>> it = map.values().iterator();
+        while (it.hasNext()) {
+            Entry<V> entry = it.next();
+            if (map.size() <= maximumSize && weight <= maximumWeight && !isExpired(entry, now)) break;
+            it.remove();
+            weight -= entry.weight;
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+            weight = 0;
+        }
+    }
+
+    public int size() {
+        synchronized (map) {
+            evict(clock.getAsLong());
+            return map.size();
+        }
+    }
+
+    /**
+     * Gets the total weight of the entries in the cache.
+     */
+    public long weight() {
+        synchronized (map) {
+            evict(clock.getAsLong());
+            return weight;
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Gets the number of lookups which found a cached value.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of lookups which had to compute a value.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Gets the number of entries removed to keep the cache within its bounds,
+     * or because they had expired.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Gets the total time spent computing values, in nanoseconds.
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime.get();
+    }
+
+    /**
+     * Gets a snapshot of the statistics of this cache.
+     */
+    public CacheStats stats() {
+        int size;
+        long weight;
+        synchronized (map) {
+            evict(clock.getAsLong());
+            size = map.size();
+            weight = this.weight;
+        }
+        return new CacheStats(hitCount.get(), missCount.get(), evictionCount.get(), totalLoadTime.get(), size, weight);
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long weight;
+        long accessTime;
+
+        Entry(V value, long weight, long accessTime) {
+            this.value = value;
+            this.weight = weight;
+            this.accessTime = accessTime;
+        }
+    }
+}
@@ -16,61 +16,286 @@
 package org.locationtech.proj4j.util;
 
 import org.locationtech.proj4j.*;
+import org.locationtech.proj4j.datum.Grid;
+import org.locationtech.proj4j.parser.Proj4Parser;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
+/**
+ * A cache of the {@link CoordinateReferenceSystem}s created by a {@link CRSFactory}.
+ * <p>
+ * By default the cache is unbounded.
+ * A cache created from {@link BoundedCache}s is bounded as they are,
+ * by number of entries, by weight (see {@link #estimateWeight(CoordinateReferenceSystem)})
+ * and by time since last use.
+ * Either way, statistics of the cache are given by {@link #getStats()} and {@link #getEpsgStats()}.
+ * <p>
+ * Names which are not known authority codes are remembered for a while
+ * (by default up to {@link #DEFAULT_UNKNOWN_CODE_CAPACITY} names for {@link #DEFAULT_UNKNOWN_CODE_TTL_SECONDS} seconds),
+ * so that repeated requests for them are rejected without looking them up again.
+ */
 public class CRSCache {
     private static CRSFactory crsFactory = new CRSFactory();
 
-    private ConcurrentHashMap<String, CoordinateReferenceSystem> crsCache;
-    private ConcurrentHashMap<String, String> epsgCache;
+    public static final int DEFAULT_UNKNOWN_CODE_CAPACITY = 1000;
+    public static final long DEFAULT_UNKNOWN_CODE_TTL_SECONDS = 600;
+
+    /**
+     * The approximate number of bytes taken by a CRS, not counting its grids.
+     */
+    public static final long CRS_WEIGHT = 2048;
+
+    private final Store<CoordinateReferenceSystem> crsCache;
+    private final Store<String> epsgCache;
+    private final UnknownCodeCache unknownCodes;
 
     public CRSCache() {
-        crsCache = new ConcurrentHashMap<>();
-        epsgCache = new ConcurrentHashMap<>();
+        this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
     }
 
     public CRSCache(ConcurrentHashMap<String, CoordinateReferenceSystem> crsCache, ConcurrentHashMap<String, String> epsgCache) {
+        this(crsCache, epsgCache, DEFAULT_UNKNOWN_CODE_CAPACITY, DEFAULT_UNKNOWN_CODE_TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a cache which remembers unknown names as specified.
+     *
+     * @param unknownCodeCapacity the maximum number of unknown names remembered, or 0 not to remember them
+     * @param unknownCodeTtl the time for which an unknown name is remembered
+     * @param unit the unit of <code>unknownCodeTtl</code>
+     */
+    public CRSCache(int unknownCodeCapacity, long unknownCodeTtl, TimeUnit unit) {
+        this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), unknownCodeCapacity, unknownCodeTtl, unit);
+    }
+
+    /**
+     * Creates a cache holding CRSs and EPSG codes in the given bounded caches.
+     * For instance, a cache of CRSs taking at most about 100 MB,
+     * each discarded after an hour without use, is created by
+     * <pre>
+     * new BoundedCache&lt;&gt;(10000, 100 &lt;&lt; 20, CRSCache::estimateWeight, 1, TimeUnit.HOURS)
+     * </pre>
+     *
+     * @param crsCache the cache of CRSs, keyed by their name or parameters
+     * @param epsgCache the cache of EPSG codes, keyed by parameters
+     */
+    public CRSCache(BoundedCache<String, CoordinateReferenceSystem> crsCache, BoundedCache<String, String> epsgCache) {
+        this(new BoundedStore<>(crsCache), new BoundedStore<>(epsgCache),
+                DEFAULT_UNKNOWN_CODE_CAPACITY, TimeUnit.SECONDS.toNanos(DEFAULT_UNKNOWN_CODE_TTL_SECONDS), System::nanoTime);
+    }
+
+    private CRSCache(ConcurrentHashMap<String, CoordinateReferenceSystem> crsCache, ConcurrentHashMap<String, String> epsgCache,
+                     int unknownCodeCapacity, long unknownCodeTtl, TimeUnit unit) {
+        this(crsCache, epsgCache, unknownCodeCapacity, unit.toNanos(unknownCodeTtl), System::nanoTime);
+    }
+
+    CRSCache(ConcurrentHashMap<String, CoordinateReferenceSystem> crsCache, ConcurrentHashMap<String, String> epsgCache,
+             int unknownCodeCapacity, long unknownCodeTtlNanos, LongSupplier clock) {
+        this(new MapStore<>(crsCache), new MapStore<>(epsgCache), unknownCodeCapacity, unknownCodeTtlNanos, clock);
+    }
+
+    private CRSCache(Store<CoordinateReferenceSystem> crsCache, Store<String> epsgCache,
+                     int unknownCodeCapacity, long unknownCodeTtlNanos, LongSupplier clock) {
+        if (unknownCodeCapacity < 0)
+            throw new IllegalArgumentException("Capacity must not be negative: " + unknownCodeCapacity);
+        if (unknownCodeTtlNanos < 0)
+            throw new IllegalArgumentException("Time to live must not be negative: " + unknownCodeTtlNanos);
         this.crsCache = crsCache;
         this.epsgCache = epsgCache;
+        this.unknownCodes = unknownCodeCapacity == 0 ? null
+                : new UnknownCodeCache(unknownCodeCapacity, unknownCodeTtlNanos, clock);
+    }
+
+    /**
+     * Estimates the memory taken by a CRS, in bytes,
+     * for use as the weigher of a {@link BoundedCache} of CRSs.
+     * This includes the shift values of the grids of its datum, loaded or not,
+     * although grids read from the same file are shared by all the CRSs which use them.
+     *
+     * @param crs a CRS
+     * @return the approximate number of bytes taken by the CRS
+     */
+    public static long estimateWeight(CoordinateReferenceSystem crs) {
+        long weight = CRS_WEIGHT;
+        List<Grid> grids = crs.getDatum().getGrids();
+        if (grids != null) {
+            for (Grid grid : grids) {
+                // a float longitude and latitude shift for each node
+                weight += 8 * grid.getNodeCount();
+            }
+        }
+        return weight;
     }
 
     public CoordinateReferenceSystem createFromName(String name)
             throws UnsupportedParameterException, InvalidValueException, UnknownAuthorityCodeException {
-        CoordinateReferenceSystem res = crsCache.get(name);
-        if(res != null) return res;
-        return crsCache.computeIfAbsent(name, k -> crsFactory.createFromName(name));
+        return crsCache.get(name, this::createUnlessUnknown);
+    }
+
+    private CoordinateReferenceSystem createUnlessUnknown(String name) {
+        if (unknownCodes == null)
+            return crsFactory.createFromName(name);
+        if (unknownCodes.contains(name))
+            throw new UnknownAuthorityCodeException(name);
+        try {
+            return crsFactory.createFromName(name);
+        } catch (UnknownAuthorityCodeException e) {
+            unknownCodes.add(name);
+            throw e;
+        }
+    }
+
+    /**
+     * Forgets all cached CRSs, EPSG codes and unknown names.
+     */
+    public void clear() {
+        crsCache.clear();
+        epsgCache.clear();
+        if (unknownCodes != null) unknownCodes.clear();
+    }
+
+    /**
+     * Gets the number of unknown names currently remembered.
+     */
+    public int getUnknownCodeCount() {
+        return unknownCodes == null ? 0 : unknownCodes.size();
+    }
+
+    /**
+     * Gets the number of requests for names which were rejected because they were remembered as unknown.
+     */
+    public long getUnknownCodeHitCount() {
+        return unknownCodes == null ? 0 : unknownCodes.getHitCount();
     }
 
+    /**
+     * Gets the number of requests for names which were looked up and found to be unknown.
+     */
+    public long getUnknownCodeMissCount() {
+        return unknownCodes == null ? 0 : unknownCodes.getMissCount();
+    }
+
+    /**
+     * Gets a snapshot of the statistics of the cache of CRSs.
+     */
+    public CacheStats getStats() {
+        return crsCache.stats();
+    }
+
+    /**
+     * Gets a snapshot of the statistics of the cache of EPSG codes.
+     */
+    public CacheStats getEpsgStats() {
+        return epsgCache.stats();
+    }
+
+    /**
+     * Gets the CRS for a PROJ.4 parameter string.
+     * Parameter strings with the same canonical form (see {@link Proj4Parser#canonicalForm(String[])})
+     * and the same name share one CRS.
+     */
     public CoordinateReferenceSystem createFromParameters(String name, String paramStr)
             throws UnsupportedParameterException, InvalidValueException {
-        String nonNullName = name == null ? "" : name;
-        String key = nonNullName + paramStr;
-        CoordinateReferenceSystem res = crsCache.get(key);
-        if(res != null) return res;
-        return crsCache.computeIfAbsent(key, k -> crsFactory.createFromParameters(name, paramStr));
+        return createFromParameters(name, paramStr.split("\\s+"));
     }
 
+    /**
+     * Gets the CRS for a list of PROJ.4 parameters.
+     * Parameter lists with the same canonical form (see {@link Proj4Parser#canonicalForm(String[])})
+     * and the same name share one CRS.
+     */
     public CoordinateReferenceSystem createFromParameters(String name, String[] params)
             throws UnsupportedParameterException, InvalidValueException {
         String nonNullName = name == null ? "" : name;
-        String key = nonNullName + String.join(" ", params);
-        CoordinateReferenceSystem res = crsCache.get(key);
-        if(res != null) return res;
-        return crsCache.computeIfAbsent(key, k -> crsFactory.createFromParameters(name, params));
+        // separated so that no parameters can be mistaken for a name
+        String key = nonNullName + '\0' + Proj4Parser.canonicalForm(params);
+        return crsCache.get(key, k -> crsFactory.createFromParameters(name, params));
     }
 
     public String readEpsgFromParameters(String paramStr) {
-        String res = epsgCache.get(paramStr);
-        if(res != null) return res;
-        return epsgCache.computeIfAbsent(paramStr, k -> { try { return crsFactory.readEpsgFromParameters(paramStr); } catch (IOException e) {  return null; } });
+        return epsgCache.get(paramStr, k -> { try { return crsFactory.readEpsgFromParameters(paramStr); } catch (IOException e) {  return null; } });
     }
 
     public String readEpsgFromParameters(String[] params) {
         String paramStr = String.join(" ", params);
-        String res = epsgCache.get(paramStr);
-        if(res != null) return res;
-        return epsgCache.computeIfAbsent(paramStr, k -> { try { return crsFactory.readEpsgFromParameters(params); } catch (IOException e) {  return null; } });
+        return epsgCache.get(paramStr, k -> { try { return crsFactory.readEpsgFromParameters(params); } catch (IOException e) {  return null; } });
+    }
+
+    /**
+     * The map holding the cached values.
+     */
+    private interface Store<V> {
+        V get(String key, Function<String, V> loader);
+
+        void clear();
+
+        CacheStats stats();
+    }
+
+    private static final class MapStore<V> implements Store<V> {
+        private final ConcurrentHashMap<String, V> map;
+        private final AtomicLong hitCount = new AtomicLong();
+        private final AtomicLong missCount = new AtomicLong();
+        private final AtomicLong totalLoadTime = new AtomicLong();
+
+        MapStore(ConcurrentHashMap<String, V> map) {
+            this.map = map;
+        }
+
+        @Override
+        public V get(String key, Function<String, V> loader) {
+            V res = map.get(key);
+            if (res != null) {
+                hitCount.incrementAndGet();
+                return res;
+            }
+            missCount.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                return map.computeIfAbsent(key, loader);
+            } finally {
+                totalLoadTime.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+
+        @Override
+        public CacheStats stats() {
+            int size = map.size();
+            return new CacheStats(hitCount.get(), missCount.get(), 0, totalLoadTime.get(), size, size);
+        }
+    }
+
+    private static final class BoundedStore<V> implements Store<V> {
+        private final BoundedCache<String, V> cache;
+
+        BoundedStore(BoundedCache<String, V> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public V get(String key, Function<String, V> loader) {
+            return cache.get(key, loader);
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+        }
+
+        @Override
+        public CacheStats stats() {
+            return cache.stats();
+        }
     }
 }
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j.util;
+
+/**
+ * A snapshot of the statistics of a cache.
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long totalLoadTime;
+    private final int size;
+    private final long weight;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, long totalLoadTime, int size, long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.totalLoadTime = totalLoadTime;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    /**
+     * Gets the number of lookups which found a cached value.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of lookups which had to compute a value.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the fraction of lookups which found a cached value,
+     * or 1 if there have been no lookups.
+     */
+    public double getHitRate() {
+        long count = hitCount + missCount;
+        return count == 0 ? 1 : (double) hitCount / count;
+    }
+
+    /**
+     * Gets the number of entries removed to keep the cache within its bounds,
+     * or because they had not been used for longer than the cache keeps entries.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the total time spent computing values, in nanoseconds.
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    /**
+     * Gets the average time spent computing a value, in nanoseconds.
+     */
+    public double getAverageLoadPenalty() {
+        return missCount == 0 ? 0 : (double) totalLoadTime / missCount;
+    }
+
+    /**
+     * Gets the number of entries in the cache.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the total weight of the entries in the cache.
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats[hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount
+                + ", loadTime=" + totalLoadTime + "ns, size=" + size + ", weight=" + weight + "]";
+    }
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds the maps used to look up predefined objects, such as datums and units, by name.
+ */
+public final class NameIndex {
+
+    private NameIndex() {
+    }
+
+    /**
+     * Indexes values by one or more names.
+     * Where several values have the same name the first is kept,
+     * as a search through the values in order would find it.
+     *
+     * @param values the values to index
+     * @param names the functions giving the names of a value
+     * @return an unmodifiable map from each name to its value
+     */
+    @SafeVarargs
+    public static <T> Map<String, T> index(T[] values, Function<T, String>... names) {
+        Map<String, T> index = new HashMap<>();
+        for (T value : values) {
+            for (Function<T, String> name : names) {
+                index.putIfAbsent(name.apply(value), value);
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.locationtech.proj4j.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers names which are known not to identify a CRS,
+ * so that repeated requests for them can be rejected without looking them up again.
+ * <p>
+ * Each name is remembered for a fixed time after it was found to be unknown.
+ * When the cache is full the name remembered longest is forgotten.
+ */
+final class UnknownCodeCache {
+
+    private final int capacity;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    // the time each name expires, in insertion order
+    private final LinkedHashMap<String, Long> expiries;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param capacity the maximum number of names remembered
+     * @param ttlNanos the time for which a name is remembered, in nanoseconds
+     * @param clock the source of the current time, in nanoseconds
+     */
+    UnknownCodeCache(int capacity, long ttlNanos, LongSupplier clock) {
+        this.capacity = capacity;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+        this.expiries = new LinkedHashMap<String, Long>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > UnknownCodeCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Tests whether a name is known not to identify a CRS.
+     */
+    boolean contains(String name) {
+        synchronized (expiries) {
+            Long expiry = expiries.get(name);
+            if (expiry == null) return false;
+            if (clock.getAsLong() - expiry >= 0) {
+                expiries.remove(name);
+                return false;
+            }
+        }
+        hitCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Records that a name does not identify a CRS.
+     */
+    void add(String name) {
+        missCount.incrementAndGet();
+        long expiry = clock.getAsLong() + ttlNanos;
+        synchronized (expiries) {
+            // re-inserted so that it is the last to be forgotten
+            expiries.remove(name);
+            expiries.put(name, expiry);
+        }
+    }
+
+    void clear() {
+        synchronized (expiries) {
+            expiries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (expiries) {
+            return expiries.size();
+        }
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+}
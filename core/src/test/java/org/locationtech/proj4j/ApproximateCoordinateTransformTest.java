@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ApproximateCoordinateTransformTest {
+
+    private static final CRSFactory crsFactory = new CRSFactory();
+    private static final CoordinateTransformFactory ctFactory = new CoordinateTransformFactory();
+
+    @Test
+    public void testWebMercatorTileToBritishNationalGrid() {
+        // a zoom level 14 tile over southern England
+        checkApproximation("EPSG:3857", "EPSG:27700", -200000, 6700000, -197554, 6702446, 0.001);
+    }
+
+    @Test
+    public void testGeographicToLambertConformalConic() {
+        checkApproximation("EPSG:4326", "EPSG:2154", 2.0, 48.0, 2.05, 48.05, 0.005);
+    }
+
+    @Test
+    public void testGeographicToUTM() {
+        checkApproximation("EPSG:4326", "EPSG:32631", 2.0, 48.0, 2.02, 48.02, 0.001);
+    }
+
+    @Test
+    public void testPointsOutsideExtentAreExact() {
+        CoordinateTransform exact = createTransform("EPSG:4326", "EPSG:27700");
+        ApproximateCoordinateTransform approx = new ApproximateCoordinateTransform(exact, -1, 51, 0, 52, 0.01);
+
+        ProjCoordinate expected = exact.transform(new ProjCoordinate(-2.89, 55.4), new ProjCoordinate());
+        ProjCoordinate actual = approx.transform(new ProjCoordinate(-2.89, 55.4), new ProjCoordinate());
+        Assert.assertEquals(expected.x, actual.x, 0);
+        Assert.assertEquals(expected.y, actual.y, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyExtent() {
+        new ApproximateCoordinateTransform(createTransform("EPSG:4326", "EPSG:27700"), 0, 51, 0, 52, 0.01);
+    }
+
+    private static void checkApproximation(String src, String tgt,
+                                           double minX, double minY, double maxX, double maxY,
+                                           double maxError) {
+        CoordinateTransform exact = createTransform(src, tgt);
+        ApproximateCoordinateTransform approx = new ApproximateCoordinateTransform(
+                exact, minX, minY, maxX, maxY, maxError);
+
+        int n = 10000;
+        Random random = new Random(42);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = minX + random.nextDouble() * (maxX - minX);
+            ys[i] = minY + random.nextDouble() * (maxY - minY);
+        }
+        double[] approxXs = xs.clone();
+        double[] approxYs = ys.clone();
+        approx.transform(approxXs, approxYs, null, n);
+
+        double[] xy = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            xy[2 * i] = xs[i];
+            xy[2 * i + 1] = ys[i];
+        }
+        approx.transform(xy, 0, n);
+
+        for (int i = 0; i < n; i++) {
+            ProjCoordinate p = exact.transform(new ProjCoordinate(xs[i], ys[i]), new ProjCoordinate());
+            double error = Math.hypot(approxXs[i] - p.x, approxYs[i] - p.y);
+            Assert.assertTrue("error " + error + " exceeds " + maxError, error <= maxError);
+            Assert.assertEquals(approxXs[i], xy[2 * i], 0);
+            Assert.assertEquals(approxYs[i], xy[2 * i + 1], 0);
+        }
+        Assert.assertTrue(approx.getCellCount() < ApproximateCoordinateTransform.MAX_CELLS);
+    }
+
+    private static CoordinateTransform createTransform(String src, String tgt) {
+        return ctFactory.createTransform(crsFactory.createFromName(src), crsFactory.createFromName(tgt));
+    }
+}
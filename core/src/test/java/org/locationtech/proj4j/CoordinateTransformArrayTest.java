@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that the array forms of {@link CoordinateTransform#transform}
+ * give the same results as transforming one point at a time.
+ */
+public class CoordinateTransformArrayTest {
+
+    private static final CRSFactory crsFactory = new CRSFactory();
+    private static final CoordinateTransformFactory ctFactory = new CoordinateTransformFactory();
+
+    private static final double[] LONS = {-2.89, -2.03, 0.899167, 3.8142776, 5.387638889, -1.5};
+    private static final double[] LATS = {55.4, 53.35, 51.357216, 51.285914, 52.156160556, 50.5};
+
+    @Test
+    public void testSevenParamDatum() {
+        checkArrayTransform("EPSG:4326", "EPSG:27700");
+    }
+
+    @Test
+    public void testThreeParamDatum() {
+        checkArrayTransform("EPSG:4326", "EPSG:23031");
+    }
+
+    @Test
+    public void testProjectedToProjected() {
+        checkArrayTransform("EPSG:27700", "EPSG:28992", project("EPSG:27700"));
+    }
+
+    @Test
+    public void testAxisOrderAndPrimeMeridian() {
+        checkArrayTransform(
+                "+proj=longlat +ellps=GRS80 +pm=paris +axis=neu",
+                "+proj=tmerc +ellps=bessel +towgs84=565.237,50.0087,465.658,-0.406857,0.350733,-1.87035,4.0812 +axis=wsu");
+    }
+
+    @Test
+    public void testInterleavedOffset() {
+        CoordinateTransform trans = createTransform("EPSG:4326", "EPSG:27700");
+        double[] xy = {99, 99, -2.89, 55.4, 0.899167, 51.357216, 99};
+        trans.transform(xy, 2, 2);
+
+        ProjCoordinate p = trans.transform(new ProjCoordinate(-2.89, 55.4), new ProjCoordinate());
+        Assert.assertEquals(99, xy[0], 0);
+        Assert.assertEquals(99, xy[1], 0);
+        Assert.assertEquals(p.x, xy[2], 0);
+        Assert.assertEquals(p.y, xy[3], 0);
+        Assert.assertEquals(99, xy[6], 0);
+    }
+
+    @Test
+    public void testSplitOffset() {
+        CoordinateTransform trans = createTransform("EPSG:4326", "EPSG:27700");
+        double[] xs = {99, -2.89, 0.899167, 99};
+        double[] ys = {99, 55.4, 51.357216, 99};
+        double[] zs = {99, 10, 20, 99};
+        trans.transform(xs, ys, zs, 1, 2);
+
+        ProjCoordinate p = trans.transform(new ProjCoordinate(0.899167, 51.357216, 20), new ProjCoordinate());
+        Assert.assertEquals(99, xs[0], 0);
+        Assert.assertEquals(99, zs[0], 0);
+        Assert.assertEquals(p.x, xs[2], 0);
+        Assert.assertEquals(p.y, ys[2], 0);
+        Assert.assertEquals(p.z, zs[2], 0);
+        Assert.assertEquals(99, ys[3], 0);
+        Assert.assertEquals(99, zs[3], 0);
+    }
+
+    @Test
+    public void testStepsOmitNoOps() {
+        BasicCoordinateTransform trans = (BasicCoordinateTransform) createTransform("EPSG:4326", "EPSG:3857");
+        Assert.assertEquals(
+                Arrays.asList("inverse projection [longlat]", "clear z", "projection [merc]"),
+                trans.getSteps());
+    }
+
+    @Test
+    public void testStepsIncludeRequiredOperations() {
+        BasicCoordinateTransform trans = (BasicCoordinateTransform) createTransform(
+                "+proj=longlat +ellps=GRS80 +pm=paris +axis=neu", "EPSG:27700");
+        Assert.assertEquals(
+                Arrays.asList(
+                        "axis order to ENU",
+                        "inverse projection [longlat]",
+                        "prime meridian to Greenwich [paris]",
+                        "clear z",
+                        "geocentric datum shift [User -> OSGB36]",
+                        "projection [tmerc]"),
+                trans.getSteps());
+    }
+
+    private static double[][] project(String code) {
+        CoordinateTransform trans = createTransform("EPSG:4326", code);
+        double[] xs = LONS.clone();
+        double[] ys = LATS.clone();
+        trans.transform(xs, ys, null, xs.length);
+        return new double[][]{xs, ys};
+    }
+
+    private static void checkArrayTransform(String src, String tgt) {
+        checkArrayTransform(src, tgt, new double[][]{LONS, LATS});
+    }
+
+    private static void checkArrayTransform(String src, String tgt, double[][] input) {
+        CoordinateTransform trans = createTransform(src, tgt);
+        int n = input[0].length;
+
+        double[] xs = input[0].clone();
+        double[] ys = input[1].clone();
+        double[] zs = new double[n];
+        trans.transform(xs, ys, zs, n);
+
+        double[] xy = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            xy[2 * i] = input[0][i];
+            xy[2 * i + 1] = input[1][i];
+        }
+        trans.transform(xy, 0, n);
+
+        for (int i = 0; i < n; i++) {
+            ProjCoordinate expected = new ProjCoordinate();
+            trans.transform(new ProjCoordinate(input[0][i], input[1][i], 0), expected);
+            Assert.assertEquals(expected.x, xs[i], 0);
+            Assert.assertEquals(expected.y, ys[i], 0);
+            Assert.assertEquals(expected.z, zs[i], 0);
+            Assert.assertEquals(expected.x, xy[2 * i], 0);
+            Assert.assertEquals(expected.y, xy[2 * i + 1], 0);
+        }
+    }
+
+    private static CoordinateTransform createTransform(String src, String tgt) {
+        return ctFactory.createTransform(createCRS(src), createCRS(tgt));
+    }
+
+    private static CoordinateReferenceSystem createCRS(String def) {
+        if (def.startsWith("+"))
+            return crsFactory.createFromParameters(null, def);
+        return crsFactory.createFromName(def);
+    }
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CoordinateTransformFactoryTest {
+
+    private static final CRSFactory crsFactory = new CRSFactory();
+
+    private static final CoordinateReferenceSystem WGS84 = crsFactory.createFromName("EPSG:4326");
+    private static final CoordinateReferenceSystem BNG = crsFactory.createFromName("EPSG:27700");
+    private static final CoordinateReferenceSystem RD_NEW = crsFactory.createFromName("EPSG:28992");
+
+    @Test
+    public void testUncachedFactory() {
+        CoordinateTransformFactory ctf = new CoordinateTransformFactory();
+        Assert.assertNotSame(ctf.createTransform(WGS84, BNG), ctf.createTransform(WGS84, BNG));
+        Assert.assertEquals(0, ctf.getCacheHitCount());
+        Assert.assertEquals(0, ctf.getCacheSize());
+    }
+
+    @Test
+    public void testCachedTransformIsReused() {
+        CoordinateTransformFactory ctf = new CoordinateTransformFactory(10);
+        CoordinateTransform t1 = ctf.createTransform(WGS84, BNG);
+        CoordinateTransform t2 = ctf.createTransform(WGS84, BNG);
+        CoordinateTransform inverse = ctf.createTransform(BNG, WGS84);
+
+        Assert.assertSame(t1, t2);
+        Assert.assertNotSame(t1, inverse);
+        Assert.assertSame(WGS84, inverse.getTargetCRS());
+        Assert.assertEquals(1, ctf.getCacheHitCount());
+        Assert.assertEquals(2, ctf.getCacheMissCount());
+        Assert.assertEquals(2, ctf.getCacheSize());
+    }
+
+    @Test
+    public void testCacheEvictsLeastRecentlyUsed() {
+        CoordinateTransformFactory ctf = new CoordinateTransformFactory(2);
+        CoordinateTransform toBNG = ctf.createTransform(WGS84, BNG);
+        CoordinateTransform toRD = ctf.createTransform(WGS84, RD_NEW);
+        // use WGS84 -> BNG again so that WGS84 -> RD New is least recently used
+        Assert.assertSame(toBNG, ctf.createTransform(WGS84, BNG));
+        ctf.createTransform(BNG, RD_NEW);
+
+        Assert.assertEquals(2, ctf.getCacheSize());
+        Assert.assertSame(toBNG, ctf.createTransform(WGS84, BNG));
+        Assert.assertNotSame(toRD, ctf.createTransform(WGS84, RD_NEW));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCacheSize() {
+        new CoordinateTransformFactory(0);
+    }
+}
@@ -16,8 +16,10 @@
 package org.locationtech.proj4j;
 
 import junit.textui.TestRunner;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.Ignore;
+import org.locationtech.proj4j.datum.GeocentricConverter;
 
 /**
  * Tests correctness and accuracy of Coordinate System transformations.
@@ -290,4 +292,34 @@ public class CoordinateTransformTest extends BaseCoordinateTransformTest {
                 "+proj=tmerc +lat_0=-36.87986527777778 +lon_0=174.7643393611111 +k=0.9999 +x_0=300000 +y_0=700000 +datum=nzgd49 +units=m +towgs84=59.47,-5.04,187.44,0.47,-0.1,1.024,-4.5993 +nadgrids=nzgd2kgrid0005.gsb +no_defs", 301062.2010778899, 210376.65974323952,
                 0.001);
     }
+
+    /**
+     * Tests that the combined datum conversion of two datums with towgs84 parameters
+     * matches converting to WGS84 and then from WGS84.
+     */
+    @Test
+    public void testTowgs84ToTowgs84() {
+        CRSFactory factory = new CRSFactory();
+        CoordinateReferenceSystem src = factory.createFromParameters(null,
+                "+proj=longlat +ellps=airy +towgs84=446.448,-125.157,542.06,0.15,0.247,0.842,-20.489");
+        CoordinateReferenceSystem tgt = factory.createFromParameters(null,
+                "+proj=longlat +ellps=bessel +towgs84=598.1,73.7,418.2,0.202,0.045,-2.455,6.7");
+        CoordinateTransform trans = new CoordinateTransformFactory().createTransform(src, tgt);
+
+        GeocentricConverter srcConverter = new GeocentricConverter(src.getDatum().getEllipsoid());
+        GeocentricConverter tgtConverter = new GeocentricConverter(tgt.getDatum().getEllipsoid());
+        for (double lat = -80; lat <= 80; lat += 20) {
+            // the transform does not use the input Z ordinate
+            ProjCoordinate expected = new ProjCoordinate(Math.toRadians(-2.5), Math.toRadians(lat), 0);
+            srcConverter.convertGeodeticToGeocentric(expected);
+            src.getDatum().transformFromGeocentricToWgs84(expected);
+            tgt.getDatum().transformToGeocentricFromWgs84(expected);
+            tgtConverter.convertGeocentricToGeodetic(expected);
+
+            ProjCoordinate actual = trans.transform(new ProjCoordinate(-2.5, lat, 100), new ProjCoordinate());
+            Assert.assertEquals(Math.toDegrees(expected.x), actual.x, 1e-10);
+            Assert.assertEquals(Math.toDegrees(expected.y), actual.y, 1e-10);
+            Assert.assertEquals(expected.z, actual.z, 1e-6);
+        }
+    }
 }
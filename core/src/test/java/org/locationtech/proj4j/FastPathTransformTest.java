@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the direct transforms which {@link CoordinateTransformFactory} creates
+ * for common pairs of CRSs, against the general {@link BasicCoordinateTransform}.
+ */
+public class FastPathTransformTest {
+
+    private static final CRSFactory crsFactory = new CRSFactory();
+    private static final CoordinateTransformFactory ctFactory = new CoordinateTransformFactory();
+
+    // measured differences from the general transform are about 1e-8 m and 1e-13 degrees
+    private static final double UTM_METRE_TOLERANCE = 1e-6;
+    private static final double UTM_DEGREE_TOLERANCE = 1e-11;
+
+    @Test
+    public void testWebMercatorIsExact() {
+        checkFastPath("EPSG:4326", "EPSG:3857", WebMercatorTransform.class, 180, 85, 0, 0);
+    }
+
+    @Test
+    public void testUTMNorth() {
+        checkFastPath("EPSG:4326", "EPSG:32633", UTMTransform.class, 6, 84, UTM_METRE_TOLERANCE, UTM_DEGREE_TOLERANCE);
+    }
+
+    @Test
+    public void testUTMSouth() {
+        checkFastPath("EPSG:4326", "EPSG:32733", UTMTransform.class, 6, 80, UTM_METRE_TOLERANCE, UTM_DEGREE_TOLERANCE);
+    }
+
+    @Test
+    public void testUTMFarFromCentralMeridian() {
+        checkFastPath("EPSG:4326", "EPSG:32601", UTMTransform.class, 60, 84, UTM_METRE_TOLERANCE, UTM_DEGREE_TOLERANCE);
+    }
+
+    @Test
+    public void testMatchedByDefinition() {
+        checkFastPath("+proj=longlat +ellps=WGS84 +no_defs",
+                "+proj=utm +zone=18 +ellps=WGS84 +units=us-ft +no_defs",
+                UTMTransform.class, 6, 84, UTM_METRE_TOLERANCE, UTM_DEGREE_TOLERANCE);
+        checkFastPath("+proj=longlat +a=6378137 +b=6378137 +no_defs",
+                "+proj=merc +a=6378137 +b=6378137 +lon_0=10 +x_0=1000 +y_0=-500 +k=0.9 +units=km +no_defs",
+                WebMercatorTransform.class, 170, 85, 0, 0);
+    }
+
+    @Test
+    public void testGeneralFallback() {
+        // datum conversion
+        checkGeneral("EPSG:4326", "EPSG:23031");
+        // ellipsoidal Mercator
+        checkGeneral("EPSG:4326", "EPSG:3395");
+        // projected to projected
+        checkGeneral("EPSG:3857", "EPSG:32633");
+        // axis order and prime meridian
+        checkGeneral("+proj=longlat +datum=WGS84 +axis=neu", "EPSG:32633");
+        checkGeneral("+proj=longlat +datum=WGS84 +pm=paris", "EPSG:32633");
+        // a projection with the same formula but a different class
+        checkGeneral("EPSG:4326", "+proj=tmerc +datum=WGS84 +lon_0=15 +k=0.9996 +x_0=500000");
+    }
+
+    @Test
+    public void testDisabled() {
+        CoordinateTransformFactory factory = new CoordinateTransformFactory();
+        Assert.assertTrue(factory.isFastPathsEnabled());
+        factory.setFastPathsEnabled(false);
+        CoordinateTransform trans = factory.createTransform(
+                crsFactory.createFromName("EPSG:4326"), crsFactory.createFromName("EPSG:32633"));
+        Assert.assertEquals(BasicCoordinateTransform.class, trans.getClass());
+    }
+
+    @Test
+    public void testStepsAndZ() {
+        BasicCoordinateTransform trans = (BasicCoordinateTransform) createTransform("EPSG:4326", "EPSG:32633");
+        Assert.assertEquals(3, trans.getSteps().size());
+
+        ProjCoordinate p = trans.transform(new ProjCoordinate(15, 50, 100), new ProjCoordinate());
+        Assert.assertTrue(Double.isNaN(p.z));
+        double[] xs = {15}, ys = {50}, zs = {100};
+        trans.transform(xs, ys, zs, 1);
+        Assert.assertTrue(Double.isNaN(zs[0]));
+        Assert.assertEquals(p.x, xs[0], 0);
+        Assert.assertEquals(p.y, ys[0], 0);
+    }
+
+    private static CoordinateTransform createTransform(String src, String tgt) {
+        return ctFactory.createTransform(createCRS(src), createCRS(tgt));
+    }
+
+    private static CoordinateReferenceSystem createCRS(String name) {
+        return name.startsWith("+") ? crsFactory.createFromParameters(null, name) : crsFactory.createFromName(name);
+    }
+
+    private static void checkGeneral(String src, String tgt) {
+        Assert.assertEquals(src + " -> " + tgt, BasicCoordinateTransform.class, createTransform(src, tgt).getClass());
+        Assert.assertEquals(tgt + " -> " + src, BasicCoordinateTransform.class, createTransform(tgt, src).getClass());
+    }
+
+    /**
+     * Checks a direct transform both ways against the general one,
+     * at random points within a longitude range of the central meridian and a latitude range of the equator.
+     */
+    private static void checkFastPath(String geo, String projected, Class<?> type,
+                                      double lonRange, double latRange,
+                                      double projectedTolerance, double geoTolerance) {
+        CoordinateReferenceSystem geoCRS = createCRS(geo);
+        CoordinateReferenceSystem projCRS = createCRS(projected);
+        CoordinateTransform forward = ctFactory.createTransform(geoCRS, projCRS);
+        CoordinateTransform inverse = ctFactory.createTransform(projCRS, geoCRS);
+        Assert.assertEquals(type, forward.getClass());
+        Assert.assertEquals(type, inverse.getClass());
+        BasicCoordinateTransform generalForward = new BasicCoordinateTransform(geoCRS, projCRS);
+        BasicCoordinateTransform generalInverse = new BasicCoordinateTransform(projCRS, geoCRS);
+
+        double lon0 = Math.toDegrees(projCRS.getProjection().getProjectionLongitude());
+        Random random = new Random(1);
+        int n = 10000;
+        double[] xy = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            xy[2 * i] = lon0 + (2 * random.nextDouble() - 1) * lonRange;
+            xy[2 * i + 1] = (2 * random.nextDouble() - 1) * latRange;
+        }
+
+        double[] expected = xy.clone();
+        double[] actual = xy.clone();
+        generalForward.transform(expected, 0, n);
+        forward.transform(actual, 0, n);
+        for (int i = 0; i < 2 * n; i++) {
+            Assert.assertEquals(expected[i], actual[i], projectedTolerance);
+        }
+        ProjCoordinate p = forward.transform(new ProjCoordinate(xy[0], xy[1]), new ProjCoordinate());
+        Assert.assertEquals(actual[0], p.x, 0);
+        Assert.assertEquals(actual[1], p.y, 0);
+
+        double[] projectedXY = expected;
+        expected = projectedXY.clone();
+        actual = projectedXY.clone();
+        generalInverse.transform(expected, 0, n);
+        inverse.transform(actual, 0, n);
+        for (int i = 0; i < 2 * n; i += 2) {
+            // points on the antimeridian may come back as either -180 or 180
+            double dLon = Math.IEEEremainder(expected[i] - actual[i], 360);
+            Assert.assertEquals(0, dLon, geoTolerance);
+            Assert.assertEquals(expected[i + 1], actual[i + 1], geoTolerance);
+            Assert.assertEquals(xy[i + 1], actual[i + 1], 1e-9);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that {@link ParallelCoordinateTransform} gives the same results
+ * as transforming the whole array in a single thread.
+ */
+public class ParallelCoordinateTransformTest {
+
+    private static final CRSFactory crsFactory = new CRSFactory();
+    private static final CoordinateTransformFactory ctFactory = new CoordinateTransformFactory();
+
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testSevenParamDatum() {
+        checkParallelTransform(createTransform("EPSG:4326", "EPSG:27700"), -6, 50, 1, 58);
+    }
+
+    @Test
+    public void testCassini() {
+        checkParallelTransform(createTransform("EPSG:4326",
+                "+proj=cass +lat_0=10.44166666666667 +lon_0=-61.33333333333334 +x_0=86501.46392052 +y_0=65379.0134283 +a=6378293.645208759 +b=6356617.987679838 +units=m"),
+                -62, 10, -60.5, 11);
+    }
+
+    @Test
+    public void testGridShift() {
+        checkParallelTransform(
+                ctFactory.createTransform(
+                        crsFactory.createFromParameters("23031", "+proj=utm +zone=31 +ellps=intl +nadgrids=100800401.gsb +units=m +no_defs"),
+                        crsFactory.createFromName("EPSG:25831")),
+                300000, 4500000, 520000, 4680000);
+    }
+
+    @Test
+    public void testSmallArrayTransformedInCallingThread() {
+        CoordinateTransform trans = createTransform("EPSG:4326", "EPSG:27700");
+        ParallelCoordinateTransform parallel = new ParallelCoordinateTransform(trans, pool);
+        double[] xs = {-2.89, 0.899167};
+        double[] ys = {55.4, 51.357216};
+        parallel.transform(xs, ys, null, 2);
+
+        ProjCoordinate p = trans.transform(new ProjCoordinate(0.899167, 51.357216), new ProjCoordinate());
+        Assert.assertEquals(p.x, xs[1], 0);
+        Assert.assertEquals(p.y, ys[1], 0);
+    }
+
+    @Test
+    public void testSplitOffset() {
+        CoordinateTransform trans = createTransform("EPSG:4326", "EPSG:27700");
+        ParallelCoordinateTransform parallel = new ParallelCoordinateTransform(trans, pool, 10);
+        int n = 100;
+        double[] xs = new double[n + 2];
+        double[] ys = new double[n + 2];
+        for (int i = 0; i < n + 2; i++) {
+            xs[i] = -2 + 0.01 * i;
+            ys[i] = 52 + 0.01 * i;
+        }
+        double[] inputXs = xs.clone();
+        double[] inputYs = ys.clone();
+        parallel.transform(xs, ys, null, 1, n);
+
+        Assert.assertEquals(inputXs[0], xs[0], 0);
+        Assert.assertEquals(inputYs[n + 1], ys[n + 1], 0);
+        ProjCoordinate p = new ProjCoordinate();
+        for (int i = 1; i <= n; i++) {
+            trans.transform(new ProjCoordinate(inputXs[i], inputYs[i]), p);
+            Assert.assertEquals(p.x, xs[i], 0);
+            Assert.assertEquals(p.y, ys[i], 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidChunkSize() {
+        new ParallelCoordinateTransform(createTransform("EPSG:4326", "EPSG:27700"), pool, 0);
+    }
+
+    private static void checkParallelTransform(CoordinateTransform trans,
+                                               double minX, double minY, double maxX, double maxY) {
+        int n = 100000;
+        Random random = new Random(42);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        double[] zs = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = minX + random.nextDouble() * (maxX - minX);
+            ys[i] = minY + random.nextDouble() * (maxY - minY);
+        }
+
+        double[] expectedXs = xs.clone();
+        double[] expectedYs = ys.clone();
+        double[] expectedZs = zs.clone();
+        trans.transform(expectedXs, expectedYs, expectedZs, n);
+
+        // a small chunk size so that the work is spread over all the threads
+        ParallelCoordinateTransform parallel = new ParallelCoordinateTransform(trans, pool, 1000);
+        double[] xy = new double[2 * n + 1];
+        for (int i = 0; i < n; i++) {
+            xy[2 * i + 1] = xs[i];
+            xy[2 * i + 2] = ys[i];
+        }
+        parallel.transform(xs, ys, zs, n);
+        parallel.transform(xy, 1, n);
+
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(expectedXs[i], xs[i], 0);
+            Assert.assertEquals(expectedYs[i], ys[i], 0);
+            Assert.assertEquals(expectedZs[i], zs[i], 0);
+            Assert.assertEquals(expectedXs[i], xy[2 * i + 1], 0);
+            Assert.assertEquals(expectedYs[i], xy[2 * i + 2], 0);
+        }
+    }
+
+    private static CoordinateTransform createTransform(String src, String tgt) {
+        return ctFactory.createTransform(createCRS(src), createCRS(tgt));
+    }
+
+    private static CoordinateReferenceSystem createCRS(String def) {
+        if (def.startsWith("+"))
+            return crsFactory.createFromParameters(null, def);
+        return crsFactory.createFromName(def);
+    }
+}
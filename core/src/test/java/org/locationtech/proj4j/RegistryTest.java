@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.proj4j.datum.Datum;
+import org.locationtech.proj4j.datum.Ellipsoid;
+import org.locationtech.proj4j.datum.PrimeMeridian;
+import org.locationtech.proj4j.parser.Proj4Parser;
+import org.locationtech.proj4j.proj.Projection;
+import org.locationtech.proj4j.proj.TransverseMercatorProjection;
+import org.locationtech.proj4j.units.Units;
+import org.locationtech.proj4j.util.NameIndex;
+
+public class RegistryTest {
+
+    @Test
+    public void testGetProjection() {
+        Registry registry = new Registry();
+        Projection tmerc = registry.getProjection("tmerc");
+        Assert.assertTrue(tmerc instanceof TransverseMercatorProjection);
+        Assert.assertEquals("tmerc", tmerc.getName());
+        // each request creates a new projection
+        Assert.assertNotSame(tmerc, registry.getProjection("tmerc"));
+        Assert.assertNull(registry.getProjection("nosuchprojection"));
+    }
+
+    @Test
+    public void testEveryRegisteredProjectionCanBeCreated() {
+        List<Projection> projections = new Registry().getProjections();
+        Set<String> names = new HashSet<>();
+        for (Projection projection : projections) {
+            Assert.assertTrue(names.add(projection.getName()));
+        }
+        Assert.assertTrue(names.contains("utm"));
+        Assert.assertTrue(names.contains("longlat"));
+    }
+
+    @Test
+    public void testGetDatumAndEllipsoid() {
+        Registry registry = new Registry();
+        Assert.assertSame(Datum.WGS84, registry.getDatum("WGS84"));
+        Assert.assertSame(Datum.POTSDAM, registry.getDatum("potsdam"));
+        Assert.assertNull(registry.getDatum("nosuchdatum"));
+        Assert.assertSame(Ellipsoid.GRS80, registry.getEllipsoid("GRS80"));
+        Assert.assertEquals(6377104.43, registry.getEllipsoid("andrae").getA(), 0);
+        Assert.assertNull(registry.getEllipsoid("nosuchellipsoid"));
+    }
+
+    @Test
+    public void testRegisterDatumAndEllipsoid() {
+        Registry registry = new Registry();
+        Ellipsoid cgcs2000 = new Ellipsoid("CGCS2000", 6378137, 0, 298.257222101, "CGCS2000");
+        registry.registerEllipsoid(cgcs2000);
+        Assert.assertSame(cgcs2000, registry.getEllipsoid("CGCS2000"));
+        Datum hd1909 = new Datum("HD1909", 595.48, 121.69, 515.35, Ellipsoid.BESSEL, "Hungarian Datum 1909");
+        registry.registerDatum(hd1909);
+        Assert.assertSame(hd1909, registry.getDatum("HD1909"));
+        // the predefined values remain, and other registries are not affected
+        Assert.assertSame(Datum.WGS84, registry.getDatum("WGS84"));
+        Assert.assertNull(new Registry().getEllipsoid("CGCS2000"));
+
+        CoordinateReferenceSystem crs = new Proj4Parser(registry).parse("test",
+                new String[]{"+proj=longlat", "+ellps=CGCS2000"});
+        Assert.assertEquals(6378137, crs.getDatum().getEllipsoid().getA(), 0);
+        crs = new Proj4Parser(registry).parse("test", new String[]{"+proj=longlat", "+datum=HD1909"});
+        Assert.assertSame(hd1909, crs.getDatum());
+    }
+
+    @Test
+    public void testFindUnits() {
+        Assert.assertSame(Units.FEET, Units.findUnits("ft"));
+        Assert.assertSame(Units.US_FEET, Units.findUnits("U.S. feet"));
+        Assert.assertSame(Units.KILOMETRES, Units.findUnits("kilometre"));
+        Assert.assertSame(Units.METRES, Units.findUnits("nosuchunit"));
+        Assert.assertEquals("paris", PrimeMeridian.forName("paris").getName());
+        Assert.assertEquals("greenwich", PrimeMeridian.forName("nosuchmeridian").getName());
+    }
+
+    @Test
+    public void testFirstOfSeveralNamesIsIndexed() {
+        String[] values = {"a1", "b1", "a2"};
+        Map<String, String> index = NameIndex.index(values, v -> v.substring(0, 1), v -> v);
+        Assert.assertEquals("a1", index.get("a"));
+        Assert.assertEquals("b1", index.get("b"));
+        Assert.assertEquals("a2", index.get("a2"));
+    }
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link UTMZoneTransform} against transforms into the EPSG UTM zone CRSs.
+ */
+public class UTMZoneTransformTest {
+
+    private static final CRSFactory crsFactory = new CRSFactory();
+    private static final CoordinateTransformFactory ctFactory = new CoordinateTransformFactory();
+    private static final CoordinateReferenceSystem WGS84 = crsFactory.createFromName("EPSG:4326");
+
+    @Test
+    public void testZones() {
+        Assert.assertEquals(33, UTMZoneTransform.getZone(15, 50));
+        Assert.assertEquals(31, UTMZoneTransform.getZone(0, 0));
+        Assert.assertEquals(30, UTMZoneTransform.getZone(-0.000001, 0));
+        Assert.assertEquals(1, UTMZoneTransform.getZone(-180, 10));
+        Assert.assertEquals(60, UTMZoneTransform.getZone(179.9, 10));
+        Assert.assertEquals(1, UTMZoneTransform.getZone(180, 10));
+        Assert.assertEquals(33, UTMZoneTransform.getZone(375, 50));
+        for (int zone = 1; zone <= 60; zone++) {
+            Assert.assertEquals(zone, UTMZoneTransform.getZone(6 * zone - 183, -40));
+            Assert.assertEquals(zone, UTMZoneTransform.getZone(6 * zone - 186, -40));
+        }
+    }
+
+    @Test
+    public void testNorwayZone() {
+        Assert.assertEquals(32, UTMZoneTransform.getZone(5, 60));
+        Assert.assertEquals(32, UTMZoneTransform.getZone(3, 56));
+        Assert.assertEquals(31, UTMZoneTransform.getZone(2.9, 60));
+        Assert.assertEquals(31, UTMZoneTransform.getZone(5, 55.9));
+        Assert.assertEquals(31, UTMZoneTransform.getZone(5, 64));
+        Assert.assertEquals(33, UTMZoneTransform.getZone(12, 60));
+    }
+
+    @Test
+    public void testSvalbardZones() {
+        Assert.assertEquals(31, UTMZoneTransform.getZone(8.9, 78));
+        Assert.assertEquals(33, UTMZoneTransform.getZone(9, 78));
+        Assert.assertEquals(33, UTMZoneTransform.getZone(20.9, 78));
+        Assert.assertEquals(35, UTMZoneTransform.getZone(21, 78));
+        Assert.assertEquals(37, UTMZoneTransform.getZone(33, 78));
+        Assert.assertEquals(38, UTMZoneTransform.getZone(42, 78));
+        Assert.assertEquals(32, UTMZoneTransform.getZone(10, 71.9));
+        Assert.assertEquals(32, UTMZoneTransform.getZone(10, 84));
+        Assert.assertEquals(30, UTMZoneTransform.getZone(-0.1, 72));
+    }
+
+    @Test
+    public void testPoint() {
+        UTMZoneTransform trans = new UTMZoneTransform(WGS84);
+        ProjCoordinate p = new ProjCoordinate();
+        Assert.assertEquals(33, trans.transform(new ProjCoordinate(15, 50), p));
+        checkPoint(15, 50, "EPSG:32633", p);
+        Assert.assertEquals(-19, trans.transform(new ProjCoordinate(-68, -33), p));
+        checkPoint(-68, -33, "EPSG:32719", p);
+        Assert.assertEquals(32, trans.transform(new ProjCoordinate(5, 60), p));
+        checkPoint(5, 60, "EPSG:32632", p);
+    }
+
+    @Test
+    public void testBatch() {
+        UTMZoneTransform trans = new UTMZoneTransform(WGS84);
+        Random random = new Random(1);
+        int n = 3000;
+        double[] lons = new double[n];
+        double[] lats = new double[n];
+        for (int i = 0; i < n; i++) {
+            lons[i] = 360 * random.nextDouble() - 180;
+            lats[i] = 164 * random.nextDouble() - 80;
+        }
+        lons[0] = 5;
+        lats[0] = 60;
+        lons[1] = 25;
+        lats[1] = 78;
+
+        double[] xy = new double[2 * n + 1];
+        for (int i = 0; i < n; i++) {
+            xy[2 * i + 1] = lons[i];
+            xy[2 * i + 2] = lats[i];
+        }
+        int[] zones = new int[n];
+        trans.transform(xy, 1, n, zones);
+
+        double[] xs = lons.clone();
+        double[] ys = lats.clone();
+        int[] zones2 = new int[n];
+        trans.transform(xs, ys, n, zones2);
+
+        Assert.assertEquals(32, zones[0]);
+        Assert.assertEquals(35, zones[1]);
+        ProjCoordinate p = new ProjCoordinate();
+        for (int i = 0; i < n; i++) {
+            int zone = UTMZoneTransform.getZone(lons[i], lats[i]);
+            Assert.assertEquals(lats[i] < 0 ? -zone : zone, zones[i]);
+            Assert.assertEquals(zones[i], zones2[i]);
+            p.x = xy[2 * i + 1];
+            p.y = xy[2 * i + 2];
+            checkPoint(lons[i], lats[i], "EPSG:" + (zones[i] < 0 ? 32700 - zones[i] : 32600 + zones[i]), p);
+            Assert.assertEquals(p.x, xs[i], 0);
+            Assert.assertEquals(p.y, ys[i], 0);
+        }
+
+        // zones may be omitted
+        trans.transform(new double[] {15, 50}, 0, 1, null);
+    }
+
+    @Test
+    public void testTransformsAreCached() {
+        UTMZoneTransform trans = new UTMZoneTransform(WGS84);
+        CoordinateTransform north = trans.getTransform(33, false);
+        Assert.assertSame(north, trans.getTransform(33, false));
+        Assert.assertNotSame(north, trans.getTransform(33, true));
+        Assert.assertSame(WGS84, north.getSourceCRS());
+        Assert.assertTrue(north.getTargetCRS().getProjection().isFrozen());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidZone() {
+        new UTMZoneTransform(WGS84).getTransform(61, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testProjectedSource() {
+        new UTMZoneTransform(crsFactory.createFromName("EPSG:3857"));
+    }
+
+    private static void checkPoint(double lon, double lat, String utm, ProjCoordinate actual) {
+        CoordinateTransform trans = ctFactory.createTransform(WGS84, crsFactory.createFromName(utm));
+        ProjCoordinate expected = trans.transform(new ProjCoordinate(lon, lat), new ProjCoordinate());
+        Assert.assertEquals(utm, expected.x, actual.x, 1e-9);
+        Assert.assertEquals(utm, expected.y, actual.y, 1e-9);
+    }
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j.datum;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.proj4j.ProjCoordinate;
+import org.locationtech.proj4j.datum.GeocentricConverter.Algorithm;
+
+public class GeocentricConverterTest {
+
+    @Test
+    public void testBowringMatchesIterative() {
+        for (Ellipsoid ellipsoid : new Ellipsoid[]{Ellipsoid.WGS84, Ellipsoid.CLARKE_1866, Ellipsoid.BESSEL, Ellipsoid.SPHERE}) {
+            GeocentricConverter iterative = new GeocentricConverter(ellipsoid, Algorithm.ITERATIVE);
+            GeocentricConverter bowring = new GeocentricConverter(ellipsoid, Algorithm.BOWRING);
+            Random random = new Random(1);
+            for (int i = 0; i < 100000; i++) {
+                double lon = (2 * random.nextDouble() - 1) * Math.PI;
+                double lat = (2 * random.nextDouble() - 1) * Math.PI / 2;
+                // from deep underground to beyond geostationary orbit
+                double h = i % 10 == 0 ? -5e6 + 5e7 * random.nextDouble() : -1e4 + 1e5 * random.nextDouble();
+                ProjCoordinate expected = new ProjCoordinate(lon, lat, h);
+                iterative.convertGeodeticToGeocentric(expected);
+                ProjCoordinate actual = new ProjCoordinate(expected.x, expected.y, expected.z);
+                iterative.convertGeocentricToGeodetic(expected);
+                bowring.convertGeocentricToGeodetic(actual);
+
+                String message = ellipsoid.getShortName() + " " + lon + " " + lat + " " + h;
+                Assert.assertEquals(message, expected.x, actual.x, 1e-15);
+                // 1e-11 radians is less than 0.1 mm on the ground
+                Assert.assertEquals(message, expected.y, actual.y, 1e-11);
+                Assert.assertEquals(message, expected.z, actual.z, 1e-4);
+                Assert.assertEquals(message, lat, actual.y, 1e-11);
+                Assert.assertEquals(message, h, actual.z, 1e-4);
+            }
+        }
+    }
+
+    @Test
+    public void testBowringSpecialCases() {
+        GeocentricConverter bowring = new GeocentricConverter(Ellipsoid.WGS84, Algorithm.BOWRING);
+        double a = Ellipsoid.WGS84.getA();
+        double b = Ellipsoid.WGS84.getB();
+
+        ProjCoordinate p = new ProjCoordinate(0, 0, b + 100);
+        bowring.convertGeocentricToGeodetic(p);
+        assertGeodetic(0, Math.PI / 2, 100, p);
+
+        p = new ProjCoordinate(0, 0, -b);
+        bowring.convertGeocentricToGeodetic(p);
+        assertGeodetic(0, -Math.PI / 2, 0, p);
+
+        p = new ProjCoordinate(0, -a, 0);
+        bowring.convertGeocentricToGeodetic(p);
+        assertGeodetic(-Math.PI / 2, 0, 0, p);
+
+        // the centre of the ellipsoid
+        p = new ProjCoordinate(0, 0, 0);
+        bowring.convertGeocentricToGeodetic(p);
+        assertGeodetic(0, Math.PI / 2, -b, p);
+
+        // no Z ordinate is treated as Z = 0
+        p = new ProjCoordinate(a + 10, 0);
+        bowring.convertGeocentricToGeodetic(p);
+        assertGeodetic(0, 0, 10, p);
+    }
+
+    @Test
+    public void testDefaultAlgorithm() {
+        Assert.assertEquals(Algorithm.ITERATIVE, GeocentricConverter.getDefaultAlgorithm());
+        Assert.assertEquals(Algorithm.ITERATIVE, new GeocentricConverter(Ellipsoid.WGS84).getAlgorithm());
+        try {
+            GeocentricConverter.setDefaultAlgorithm(Algorithm.BOWRING);
+            Assert.assertEquals(Algorithm.BOWRING, new GeocentricConverter(Ellipsoid.WGS84).getAlgorithm());
+        } finally {
+            GeocentricConverter.setDefaultAlgorithm(Algorithm.ITERATIVE);
+        }
+    }
+
+    private static void assertGeodetic(double lon, double lat, double h, ProjCoordinate p) {
+        Assert.assertEquals(lon, p.x, 1e-15);
+        Assert.assertEquals(lat, p.y, 1e-12);
+        Assert.assertEquals(h, p.z, 1e-6);
+    }
+}
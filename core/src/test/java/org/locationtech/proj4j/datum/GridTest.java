@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j.datum;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.proj4j.ProjCoordinate;
+
+public class GridTest {
+
+    @Test
+    public void testShiftValuesLoadedOnFirstShift() throws IOException {
+        GridCache.clear();
+        List<Grid> grids = Grid.fromNadGrids("100800401.gsb");
+        Grid grid = grids.get(0);
+        Assert.assertFalse(grid.isNull());
+        Assert.assertFalse(grid.isLoaded());
+        Assert.assertNull(grid.table.cvs);
+
+        // a point outside the grid does not need the shift values
+        Grid.shift(grids, false, new ProjCoordinate(0, 0));
+        Assert.assertFalse(grid.isLoaded());
+
+        ProjCoordinate p = new ProjCoordinate(Math.toRadians(2), Math.toRadians(41.5));
+        Grid.shift(grids, false, p);
+        Assert.assertTrue(grid.isLoaded());
+        Assert.assertNotNull(grid.table.cvs);
+        Assert.assertNotEquals(Math.toRadians(2), p.x, 0);
+    }
+
+    @Test
+    public void testShiftDoesNotAllocate() throws IOException {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return;
+        com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+        if (!allocation.isThreadAllocatedMemoryEnabled()) return;
+
+        List<Grid> grids = Grid.fromNadGrids("nzgd2kgrid0005.gsb,100800401.gsb");
+        ProjCoordinate p = new ProjCoordinate();
+        int points = 2000;
+        // the first pass loads the grids
+        shiftPoints(grids, p, points);
+
+        // Grid.shift allocates nothing itself, so this does not depend on escape analysis
+        long thread = Thread.currentThread().getId();
+        long bytes = allocation.getThreadAllocatedBytes(thread);
+        double sum = shiftPoints(grids, p, points);
+        bytes = allocation.getThreadAllocatedBytes(thread) - bytes;
+
+        Assert.assertFalse(Double.isNaN(sum));
+        // allow for the allocations of the measurement itself
+        Assert.assertTrue(bytes + " bytes allocated", bytes < 1024);
+    }
+
+    private static double shiftPoints(List<Grid> grids, ProjCoordinate p, int points) {
+        double sum = 0;
+        for (int i = 0; i < points; i++) {
+            // points within the New Zealand grid, shifted forward and back
+            double lam = Math.toRadians(166.5 + 11.0 * i / points);
+            double phi = Math.toRadians(-47 + 12.0 * (i % 1000) / 1000);
+            p.x = lam;
+            p.y = phi;
+            Grid.shift(grids, false, p);
+            Grid.shift(grids, true, p);
+            sum += p.x - lam + p.y - phi;
+        }
+        return sum;
+    }
+
+    @Test
+    public void testGridsFromSameSourceAreEqual() throws IOException {
+        List<Grid> loaded = Grid.fromNadGrids("100800401.gsb");
+        Grid.shift(loaded, false, new ProjCoordinate(Math.toRadians(2), Math.toRadians(41.5)));
+        // force a second copy of the grid to be read
+        GridCache.clear();
+        List<Grid> unloaded = Grid.fromNadGrids("100800401.gsb");
+
+        Assert.assertNotSame(loaded.get(0), unloaded.get(0));
+        Assert.assertEquals(loaded, unloaded);
+        Assert.assertEquals(loaded.hashCode(), unloaded.hashCode());
+    }
+
+    @Test
+    public void testGridsFromSameSourceAreShared() throws IOException {
+        Grid grid = Grid.fromNadGrids("100800401.gsb").get(0);
+        long loads = GridCache.getLoadCount();
+        long hits = GridCache.getHitCount();
+
+        List<Grid> grids = Grid.fromNadGrids("100800401.gsb,null");
+        Assert.assertSame(grid, grids.get(0));
+        Assert.assertEquals(loads, GridCache.getLoadCount());
+        Assert.assertEquals(hits + 1, GridCache.getHitCount());
+        Assert.assertTrue(grids.get(1).isNull());
+    }
+
+    @Test
+    public void testCTableV2Interpolation() throws IOException {
+        // a 3 x 2 grid with 1 degree cells, whose shifts vary linearly
+        // so that bilinear interpolation reproduces them exactly
+        double del = Math.toRadians(1);
+        File file = File.createTempFile("grid", ".ct2");
+        try {
+            Files.write(file.toPath(), ctableV2(3, 2));
+            List<Grid> grids = Grid.fromNadGrids(file.getAbsolutePath());
+            Assert.assertEquals("test grid", grids.get(0).table.id);
+
+            ProjCoordinate p = new ProjCoordinate(1.25 * del, 0.5 * del);
+            Grid.shift(grids, false, p);
+            // the shifts are stored as floats
+            Assert.assertEquals(1.25 * del - (1e-5 + 1.25 * 1e-6 + 0.5 * 2e-6), p.x, 1e-11);
+            Assert.assertEquals(0.5 * del + (-2e-5 + 1.25 * 3e-6 + 0.5 * 4e-6), p.y, 1e-11);
+
+            checkMemoryMappedGrid(file.getAbsolutePath(), 0, 0, 2, 1);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testMemoryMappedNTV2() throws IOException {
+        checkMemoryMappedGrid("100800401.gsb", 0, 40, 3.5, 43);
+    }
+
+    /**
+     * Checks that a grid gives the same shifts when it is memory-mapped as when it is loaded onto the heap.
+     */
+    private static void checkMemoryMappedGrid(String name,
+                                              double minLon, double minLat, double maxLon, double maxLat)
+            throws IOException {
+        GridCache.clear();
+        List<Grid> heap = Grid.fromNadGrids(name);
+        GridCache.clear();
+        List<Grid> mapped = Grid.fromNadGrids(name);
+
+        for (int i = 0; i <= 20; i++) {
+            for (int j = 0; j <= 20; j++) {
+                double lon = Math.toRadians(minLon + i * (maxLon - minLon) / 20);
+                double lat = Math.toRadians(minLat + j * (maxLat - minLat) / 20);
+                for (boolean inverse : new boolean[]{false, true}) {
+                    ProjCoordinate expected = new ProjCoordinate(lon, lat);
+                    Grid.shift(heap, inverse, expected);
+                    ProjCoordinate actual = new ProjCoordinate(lon, lat);
+                    Grid.setMemoryMapping(true);
+                    try {
+                        Grid.shift(mapped, inverse, actual);
+                    } finally {
+                        Grid.setMemoryMapping(false);
+                    }
+                    Assert.assertEquals(expected.x, actual.x, 0);
+                    Assert.assertEquals(expected.y, actual.y, 0);
+                }
+            }
+        }
+        Assert.assertFalse(heap.get(0).isMapped());
+        Assert.assertTrue(mapped.get(0).isMapped());
+        Assert.assertNull(mapped.get(0).table.cvs);
+        GridCache.clear();
+    }
+
+    /**
+     * Creates a CTABLE V2 grid with 1 degree cells, whose shifts vary linearly.
+     */
+    private static byte[] ctableV2(int cols, int rows) {
+        double del = Math.toRadians(1);
+        ByteBuffer buf = ByteBuffer.allocate(160 + 8 * cols * rows).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put("CTABLE V2".getBytes(StandardCharsets.US_ASCII));
+        buf.position(16);
+        buf.put("test grid".getBytes(StandardCharsets.US_ASCII));
+        buf.position(96);
+        buf.putDouble(0).putDouble(0).putDouble(del).putDouble(del).putInt(cols).putInt(rows);
+        buf.position(160);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                buf.putFloat(lamShift(col, row)).putFloat(phiShift(col, row));
+            }
+        }
+        return buf.array();
+    }
+
+    private static float lamShift(int col, int row) {
+        return 1e-5f + col * 1e-6f + row * 2e-6f;
+    }
+
+    private static float phiShift(int col, int row) {
+        return -2e-5f + col * 3e-6f + row * 4e-6f;
+    }
+
+    @Test
+    public void testOptionalMissingGridIsSkipped() throws IOException {
+        Assert.assertTrue(Grid.fromNadGrids("@no_such_grid.gsb").isEmpty());
+    }
+
+    @Test
+    public void testTruncatedGrid() throws IOException {
+        byte[] grid = ctableV2(300, 200);
+        File file = File.createTempFile("grid", ".ct2");
+        try {
+            Files.write(file.toPath(), Arrays.copyOf(grid, grid.length - 4));
+            GridCache.clear();
+            try {
+                Grid.fromNadGrids(file.getAbsolutePath());
+                Assert.fail("truncated grid was accepted");
+            } catch (IOException e) {
+                // expected
+            }
+            GridCache.clear();
+            Assert.assertTrue(Grid.fromNadGrids("@" + file.getAbsolutePath()).isEmpty());
+        } finally {
+            file.delete();
+            GridCache.clear();
+        }
+    }
+}
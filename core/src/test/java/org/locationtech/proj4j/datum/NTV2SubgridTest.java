@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j.datum;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.proj4j.ProjCoordinate;
+
+/**
+ * Tests NTv2 files with several subgrids, using synthetic files
+ * in which every node of a subgrid has the same shift,
+ * so that the subgrid used to shift a point can be told from the result.
+ */
+public class NTV2SubgridTest {
+
+    private static final double SEC_RAD = Math.PI / 180 / 3600;
+
+    @Test
+    public void testMostRefinedSubgridIsUsed() throws IOException {
+        List<Subgrid> subgrids = new ArrayList<>();
+        subgrids.add(new Subgrid("A", "NONE", 0, 40, 4, 44, 1, 1));
+        subgrids.add(new Subgrid("A1", "A", 1, 41, 2, 42, 0.25, 2));
+        subgrids.add(new Subgrid("A1A", "A1", 1.25, 41.25, 1.5, 41.5, 0.125, 3));
+        subgrids.add(new Subgrid("B", "NONE", 3, 40, 6, 44, 1, 4));
+        // a child which follows a subgrid other than its parent
+        subgrids.add(new Subgrid("A2", "A", 2.5, 42, 3.5, 43, 0.5, 5));
+
+        File file = writeGrid(subgrids, ByteOrder.LITTLE_ENDIAN);
+        try {
+            List<Grid> grids = Grid.fromNadGrids(file.getAbsolutePath());
+            Assert.assertEquals(1, grids.size());
+
+            Assert.assertEquals(1, shiftSeconds(grids, 0.5, 40.5));
+            Assert.assertEquals(2, shiftSeconds(grids, 1.7, 41.7));
+            Assert.assertEquals(3, shiftSeconds(grids, 1.3, 41.3));
+            // A and B overlap here; A comes first
+            Assert.assertEquals(1, shiftSeconds(grids, 3.5, 40.5));
+            Assert.assertEquals(4, shiftSeconds(grids, 5, 42));
+            Assert.assertEquals(5, shiftSeconds(grids, 3, 42.5));
+            Assert.assertEquals(0, shiftSeconds(grids, 10, 10));
+
+            Grid a = grids.get(0);
+            Assert.assertEquals("A", a.table.id);
+            Assert.assertEquals("B", a.next.table.id);
+            Assert.assertEquals("A1", a.child.table.id);
+            Assert.assertEquals("A2", a.child.next.table.id);
+            Assert.assertEquals("A1A", a.child.child.table.id);
+
+            // each subgrid maps its own part of the file
+            GridCache.clear();
+            Grid.setMemoryMapping(true);
+            try {
+                List<Grid> mapped = Grid.fromNadGrids(file.getAbsolutePath());
+                Assert.assertEquals(3, shiftSeconds(mapped, 1.3, 41.3));
+                Assert.assertEquals(5, shiftSeconds(mapped, 3, 42.5));
+                Assert.assertTrue(mapped.get(0).child.child.isMapped());
+            } finally {
+                Grid.setMemoryMapping(false);
+            }
+        } finally {
+            GridCache.clear();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testIndexMatchesSubgridTreeWalk() throws IOException {
+        // a top-level grid covered by 15 x 20 children, some of which have children of their own,
+        // and a second top-level grid overlapping the first
+        List<Subgrid> subgrids = new ArrayList<>();
+        subgrids.add(new Subgrid("TOP", "NONE", 0, 0, 20, 15, 1, 1));
+        int shift = 2;
+        for (int row = 0; row < 15; row++) {
+            for (int col = 0; col < 20; col++) {
+                String name = "C" + row + "_" + col;
+                subgrids.add(new Subgrid(name, "TOP", col, row, col + 1, row + 1, 0.25, shift++));
+                if ((row + col) % 7 == 0) {
+                    subgrids.add(new Subgrid("G" + row + "_" + col, name,
+                            col + 0.25, row + 0.5, col + 0.75, row + 1, 0.125, shift++));
+                }
+            }
+        }
+        subgrids.add(new Subgrid("OTHER", "NONE", 15, 10, 25, 20, 1, shift));
+
+        File file = writeGrid(subgrids, ByteOrder.BIG_ENDIAN);
+        try {
+            Grid grid = Grid.fromNadGrids(file.getAbsolutePath()).get(0);
+            Assert.assertNotNull(grid.index);
+
+            Random random = new Random(7);
+            for (int i = 0; i < 10000; i++) {
+                double lam = Math.toRadians(-1 + random.nextDouble() * 27);
+                double phi = Math.toRadians(-1 + random.nextDouble() * 22);
+                Assert.assertSame(walk(grid, lam, phi), grid.index.find(lam, phi));
+            }
+        } finally {
+            GridCache.clear();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testUnknownParentIsTopLevel() throws IOException {
+        List<Subgrid> subgrids = new ArrayList<>();
+        subgrids.add(new Subgrid("A", "NONE", 0, 40, 4, 44, 1, 1));
+        subgrids.add(new Subgrid("ORPHAN", "MISSING", 10, 40, 12, 42, 1, 2));
+
+        File file = writeGrid(subgrids, ByteOrder.LITTLE_ENDIAN);
+        try {
+            List<Grid> grids = Grid.fromNadGrids(file.getAbsolutePath());
+            Assert.assertEquals("ORPHAN", grids.get(0).next.table.id);
+            Assert.assertEquals(1, shiftSeconds(grids, 1, 41));
+            Assert.assertEquals(2, shiftSeconds(grids, 11, 41));
+        } finally {
+            GridCache.clear();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testBadRecordCount() throws IOException {
+        List<Subgrid> subgrids = new ArrayList<>();
+        subgrids.add(new Subgrid("A", "NONE", 0, 40, 4, 44, 1, 1));
+
+        File file = writeGrid(subgrids, ByteOrder.LITTLE_ENDIAN);
+        try {
+            // the GS_COUNT value of the first subfile
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(176 + 10 * 16 + 8, 24);
+            Files.write(file.toPath(), bytes);
+            try {
+                Grid.fromNadGrids(file.getAbsolutePath());
+                Assert.fail("Expected IOException");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("records"));
+            }
+            GridCache.clear();
+            // an optional grid which cannot be read is skipped
+            Assert.assertEquals(0, Grid.fromNadGrids("@" + file.getAbsolutePath()).size());
+        } finally {
+            GridCache.clear();
+            file.delete();
+        }
+    }
+
+    /**
+     * Finds the subgrid to shift a point with by walking the subgrid tree, as proj.4 does.
+     */
+    private static Grid walk(Grid grid, double lam, double phi) {
+        Grid found = null;
+        for (Grid g = grid; g != null; g = g.next) {
+            if (contains(g, lam, phi)) {
+                found = g;
+                break;
+            }
+        }
+        while (found != null) {
+            Grid child = found.child;
+            while (child != null && !contains(child, lam, phi)) child = child.next;
+            if (child == null) break;
+            found = child;
+        }
+        return found;
+    }
+
+    private static boolean contains(Grid grid, double lam, double phi) {
+        Grid.ConversionTable t = grid.table;
+        double epsilon = (Math.abs(t.del.phi) + Math.abs(t.del.lam)) / 10000d;
+        return t.ll.phi - epsilon <= phi
+                && t.ll.lam - epsilon <= lam
+                && t.ll.phi + (t.lim.phi - 1) * t.del.phi + epsilon >= phi
+                && t.ll.lam + (t.lim.lam - 1) * t.del.lam + epsilon >= lam;
+    }
+
+    /**
+     * Shifts a point and returns the latitude shift applied, in seconds.
+     */
+    private static long shiftSeconds(List<Grid> grids, double lon, double lat) {
+        ProjCoordinate p = new ProjCoordinate(Math.toRadians(lon), Math.toRadians(lat));
+        Grid.shift(grids, false, p);
+        return Math.round((p.y - Math.toRadians(lat)) / SEC_RAD);
+    }
+
+    private static final class Subgrid {
+        final String name;
+        final String parent;
+        final double west, south, east, north, inc;
+        final float shift;
+
+        Subgrid(String name, String parent, double west, double south, double east, double north,
+                double inc, float shift) {
+            this.name = name;
+            this.parent = parent;
+            this.west = west;
+            this.south = south;
+            this.east = east;
+            this.north = north;
+            this.inc = inc;
+            this.shift = shift;
+        }
+
+        int cols() {
+            return (int) Math.round((east - west) / inc) + 1;
+        }
+
+        int rows() {
+            return (int) Math.round((north - south) / inc) + 1;
+        }
+    }
+
+    private static File writeGrid(List<Subgrid> subgrids, ByteOrder order) throws IOException {
+        int size = 176 + 16;
+        for (Subgrid s : subgrids) size += 176 + 16 * s.cols() * s.rows();
+        ByteBuffer buf = ByteBuffer.allocate(size).order(order);
+
+        putRecord(buf, "NUM_OREC").putInt(11).putInt(0);
+        putRecord(buf, "NUM_SREC").putInt(11).putInt(0);
+        putRecord(buf, "NUM_FILE").putInt(subgrids.size()).putInt(0);
+        putRecord(buf, "GS_TYPE").put(name("SECONDS"));
+        putRecord(buf, "VERSION").put(name("NTv2.0"));
+        putRecord(buf, "SYSTEM_F").put(name("TEST"));
+        putRecord(buf, "SYSTEM_T").put(name("TEST"));
+        putRecord(buf, "MAJOR_F").putDouble(6378137);
+        putRecord(buf, "MINOR_F").putDouble(6356752.314);
+        putRecord(buf, "MAJOR_T").putDouble(6378137);
+        putRecord(buf, "MINOR_T").putDouble(6356752.314);
+
+        for (Subgrid s : subgrids) {
+            putRecord(buf, "SUB_NAME").put(name(s.name));
+            putRecord(buf, "PARENT").put(name(s.parent));
+            putRecord(buf, "CREATED").put(name(""));
+            putRecord(buf, "UPDATED").put(name(""));
+            // longitudes are positive west
+            putRecord(buf, "S_LAT").putDouble(s.south * 3600);
+            putRecord(buf, "N_LAT").putDouble(s.north * 3600);
+            putRecord(buf, "E_LONG").putDouble(-s.east * 3600);
+            putRecord(buf, "W_LONG").putDouble(-s.west * 3600);
+            putRecord(buf, "LAT_INC").putDouble(s.inc * 3600);
+            putRecord(buf, "LONG_INC").putDouble(s.inc * 3600);
+            putRecord(buf, "GS_COUNT").putInt(s.cols() * s.rows()).putInt(0);
+            for (int i = 0; i < s.cols() * s.rows(); i++) {
+                buf.putFloat(s.shift).putFloat(s.shift).putFloat(0).putFloat(0);
+            }
+        }
+        putRecord(buf, "END").putDouble(0);
+
+        File file = File.createTempFile("subgrids", ".gsb");
+        Files.write(file.toPath(), buf.array());
+        return file;
+    }
+
+    private static ByteBuffer putRecord(ByteBuffer buf, String name) {
+        return buf.put(name(name));
+    }
+
+    private static byte[] name(String name) {
+        byte[] bytes = new byte[8];
+        byte[] chars = name.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(chars, 0, bytes, 0, chars.length);
+        for (int i = chars.length; i < 8; i++) bytes[i] = ' ';
+        return bytes;
+    }
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j.io;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.proj4j.catalog.CatalogWriter;
+
+public class CatalogTest {
+
+    private static final String[] AUTHORITIES = {"epsg", "esri", "nad27", "nad83", "world"};
+
+    @Test
+    public void testCatalogueMatchesDefinitions() throws IOException {
+        for (String authority : AUTHORITIES) {
+            Map<String, String[]> definitions = readDefinitions(authority);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            CatalogWriter.write(definitions, out);
+            checkCatalogue(definitions, Catalog.read(new ByteArrayInputStream(out.toByteArray())));
+        }
+    }
+
+    @Test
+    public void testWriterReadsDefinitions() throws IOException {
+        // the catalogue writer has its own copy of the parser
+        for (String authority : AUTHORITIES) {
+            Map<String, String[]> expected = readDefinitions(authority);
+            InputStream in = getClass().getClassLoader().getResourceAsStream("proj4/nad/" + authority);
+            Map<String, String[]> actual;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+                actual = CatalogWriter.read(reader);
+            }
+            Assert.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+            for (Map.Entry<String, String[]> entry : expected.entrySet()) {
+                Assert.assertArrayEquals(entry.getKey(), entry.getValue(), actual.get(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void testBundledCatalogues() throws IOException {
+        // compiled when proj4j-epsg is built
+        for (String authority : AUTHORITIES) {
+            InputStream in = getClass().getClassLoader().getResourceAsStream("proj4/catalog/" + authority);
+            Assert.assertNotNull(authority, in);
+            try {
+                checkCatalogue(readDefinitions(authority), Catalog.read(in));
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    @Test
+    public void testSmallCatalogue() throws IOException {
+        Map<String, String[]> definitions = new LinkedHashMap<>();
+        definitions.put("b", new String[]{"+proj=longlat", "+datum=WGS84"});
+        definitions.put("a", new String[]{"+proj=utm", "+zone=1", "+datum=WGS84"});
+        definitions.put("é", new String[0]);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogWriter.write(definitions, out);
+        Catalog catalog = Catalog.read(new ByteArrayInputStream(out.toByteArray()));
+
+        Assert.assertEquals(3, catalog.size());
+        Assert.assertArrayEquals(definitions.get("a"), catalog.get("a"));
+        Assert.assertArrayEquals(definitions.get("b"), catalog.get("b"));
+        Assert.assertArrayEquals(new String[0], catalog.get("é"));
+        Assert.assertNull(catalog.get(""));
+        Assert.assertNull(catalog.get("ab"));
+        Assert.assertNotSame(catalog.get("a"), catalog.get("a"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedCatalogue() throws IOException {
+        Map<String, String[]> definitions = new LinkedHashMap<>();
+        definitions.put("1", new String[]{"+proj=longlat"});
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogWriter.write(definitions, out);
+        byte[] bytes = out.toByteArray();
+        Catalog.read(new ByteArrayInputStream(bytes, 0, bytes.length - 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotACatalogue() throws IOException {
+        Catalog.read(getClass().getClassLoader().getResourceAsStream("proj4/nad/world"));
+    }
+
+    private static void checkCatalogue(Map<String, String[]> definitions, Catalog catalog) {
+        Assert.assertEquals(definitions.size(), catalog.size());
+        for (Map.Entry<String, String[]> entry : definitions.entrySet()) {
+            Assert.assertArrayEquals(entry.getKey(), entry.getValue(), catalog.get(entry.getKey()));
+        }
+        Assert.assertNull(catalog.get("no such code"));
+    }
+
+    private static Map<String, String[]> readDefinitions(String authority) throws IOException {
+        InputStream in = CatalogTest.class.getClassLoader().getResourceAsStream("proj4/nad/" + authority);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+            return new Proj4FileReader().readFile(reader);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Proj4FileReaderTest {
+
+    private final Proj4FileReader reader = new Proj4FileReader();
+
+    @Test
+    public void testLookup() {
+        String[] first = reader.getParameters("EPSG:3819");
+        Assert.assertEquals("+proj=longlat", first[0]);
+
+        // the last definition in the file
+        String[] last = reader.getParameters("epsg:9054");
+        Assert.assertEquals("+proj=longlat", last[0]);
+        Assert.assertEquals("+proj=tmerc", reader.getParameters("EPSG:32766")[0]);
+
+        Assert.assertEquals("+proj=longlat", reader.getParameters("ESRI:4326")[0]);
+        Assert.assertNull(reader.getParameters("EPSG:999999"));
+        Assert.assertNull(reader.getParameters("3819"));
+    }
+
+    @Test
+    public void testParametersAreCopied() {
+        String[] params = reader.getParameters("EPSG:4326");
+        params[0] = "+proj=merc";
+        Assert.assertEquals("+proj=longlat", reader.getParameters("EPSG:4326")[0]);
+        Assert.assertNotSame(params, reader.getParameters("EPSG:4326"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownAuthority() {
+        reader.getParameters("NOSUCHAUTHORITY:1");
+    }
+
+    @Test
+    public void testUnknownAuthoritiesAreNotRetained() {
+        reader.getParameters("EPSG:4326");
+        int catalogs = Proj4FileReader.getCatalogCount();
+        for (int i = 0; i < 100; i++) {
+            try {
+                reader.getParameters("NOSUCHAUTHORITY" + i + ":1");
+                Assert.fail("Unknown authority was accepted");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+        }
+        Assert.assertEquals(catalogs, Proj4FileReader.getCatalogCount());
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String[]>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> reader.getParameters("NAD83:2001")));
+            }
+            String[] expected = reader.getParameters("NAD83:2001");
+            for (Future<String[]> result : results) {
+                Assert.assertArrayEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testReadEpsgCode() throws Exception {
+        Assert.assertEquals("4326", reader.readEpsgCodeFromFile(params("+proj=longlat +datum=WGS84 +no_defs")));
+        // order does not matter
+        Assert.assertEquals("4326", reader.readEpsgCodeFromFile(params("+no_defs +datum=WGS84 +proj=longlat")));
+        // nor the way numbers are written
+        Assert.assertEquals("32633", reader.readEpsgCodeFromFile(
+                params("+proj=utm +zone=33.0 +units=m +datum=WGS84 +no_defs")));
+        Assert.assertEquals("2056", reader.readEpsgCodeFromFile(
+                params("+proj=somerc +lat_0=46.95240555555556 +lon_0=7.439583333333333 +k_0=1.000 +x_0=2.6e6 "
+                        + "+y_0=1200000.0 +ellps=bessel +towgs84=674.3740,15.056,405.346,0,0,-0,0 +units=m +no_defs")));
+
+        Assert.assertNull(reader.readEpsgCodeFromFile(params("+proj=longlat +datum=WGS84")));
+        Assert.assertNull(reader.readEpsgCodeFromFile(params("+proj=utm +zone=33 +datum=WGS84 +units=ft +no_defs")));
+    }
+
+    @Test
+    public void testReadEpsgCodeWithTolerance() throws Exception {
+        String[] params = params("+proj=somerc +lat_0=46.952405556 +lon_0=7.439583333 +k_0=1 +x_0=2600000 "
+                + "+y_0=1200000 +ellps=bessel +towgs84=674.374,15.056,405.346,0,0,0,0 +units=m +no_defs");
+        Assert.assertNull(reader.readEpsgCodeFromFile(params));
+        Assert.assertNull(reader.readEpsgCodeFromFile(params, 1e-12));
+        Assert.assertEquals("2056", reader.readEpsgCodeFromFile(params, 1e-6));
+
+        // UTM zones 33 and 34 are equally close to zone 33.5; the first is found
+        Assert.assertEquals("32633", reader.readEpsgCodeFromFile(
+                params("+proj=utm +zone=33.5 +datum=WGS84 +units=m +no_defs"), 0.5));
+        Assert.assertEquals("32634", reader.readEpsgCodeFromFile(
+                params("+proj=utm +zone=33.6 +datum=WGS84 +units=m +no_defs"), 0.5));
+        // text values must still match exactly
+        Assert.assertNull(reader.readEpsgCodeFromFile(
+                params("+proj=utm +zone=33 +datum=NAD83 +units=m +no_defs"), 1));
+    }
+
+    private static String[] params(String s) {
+        return s.split(" ");
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j.proj;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.proj4j.CRSFactory;
+import org.locationtech.proj4j.ProjCoordinate;
+
+/**
+ * Tests that the array forms of the projection methods
+ * give exactly the same results as the single-point forms.
+ */
+public class ProjectionBatchTest {
+
+    private static final CRSFactory factory = new CRSFactory();
+
+    @Test
+    public void testTransverseMercator() {
+        checkBatch("+proj=tmerc +lat_0=49 +lon_0=-2 +k=0.9996012717 +x_0=400000 +y_0=-100000 +ellps=airy +units=m",
+                -8, 2, 49, 61);
+        checkBatch("+proj=tmerc +lon_0=9 +k=0.9996 +x_0=500000 +R=6371000", 3, 15, -60, 60);
+    }
+
+    @Test
+    public void testExtendedTransverseMercator() {
+        checkBatch("+proj=utm +zone=33 +datum=WGS84 +units=m", 9, 21, -80, 84);
+        checkBatch("+proj=etmerc +lon_0=15 +k=0.9996 +x_0=500000 +y_0=10000000 +ellps=GRS80 +units=us-ft",
+                -40, 70, -80, 10);
+    }
+
+    @Test
+    public void testMercator() {
+        checkBatch("+proj=merc +a=6378137 +b=6378137 +lat_ts=0 +lon_0=0 +x_0=0 +y_0=0 +k=1 +units=m",
+                -180, 180, -85, 85);
+        checkBatch("+proj=merc +lon_0=100 +ellps=WGS84 +units=m", -180, 180, -80, 80);
+    }
+
+    @Test
+    public void testLambertConformalConic() {
+        checkBatch("+proj=lcc +lat_1=49 +lat_2=44 +lat_0=46.5 +lon_0=3 +x_0=700000 +y_0=6600000 +ellps=GRS80 +units=m",
+                -5, 10, 41, 52);
+        checkBatch("+proj=lcc +lat_1=-20 +lat_2=-40 +lon_0=135 +R=6371000", 110, 160, -45, -10);
+    }
+
+    @Test
+    public void testAlbers() {
+        checkBatch("+proj=aea +lat_1=29.5 +lat_2=45.5 +lat_0=23 +lon_0=-96 +x_0=0 +y_0=0 +datum=NAD83 +units=m",
+                -125, -65, 24, 50);
+        checkBatch("+proj=aea +lat_1=20 +lat_2=60 +lon_0=0 +R=6371000", -60, 60, 0, 80);
+    }
+
+    @Test
+    public void testStereographic() {
+        checkBatch("+proj=stere +lat_0=90 +lat_ts=70 +lon_0=-45 +k=1 +x_0=0 +y_0=0 +datum=WGS84 +units=m",
+                -180, 180, 50, 89);
+        checkBatch("+proj=stere +lat_0=-90 +lon_0=0 +k=0.994 +x_0=2000000 +y_0=2000000 +datum=WGS84 +units=m",
+                -180, 180, -89, -50);
+        checkBatch("+proj=stere +lat_0=40 +lon_0=10 +ellps=GRS80", -10, 30, 20, 60);
+        checkBatch("+proj=stere +lat_0=0 +lon_0=10 +ellps=GRS80", -30, 50, -40, 40);
+        checkBatch("+proj=stere +lat_0=40 +lon_0=10 +R=6371000", -10, 30, 20, 60);
+    }
+
+    @Test
+    public void testObliqueStereographic() {
+        checkBatch("+proj=sterea +lat_0=52.15616055555555 +lon_0=5.38763888888889 +k=0.9999079 "
+                + "+x_0=155000 +y_0=463000 +ellps=bessel +units=m", 3, 8, 50, 54);
+    }
+
+    @Test
+    public void testDefaultBatch() {
+        checkBatch("+proj=robin +lon_0=0 +datum=WGS84", -180, 180, -85, 85);
+        checkBatch("+proj=eqc +lat_ts=0 +lon_0=0 +ellps=WGS84", -180, 180, -85, 85);
+    }
+
+    @Test
+    public void testOffset() {
+        Projection proj = factory.createFromParameters(null, "+proj=utm +zone=31 +datum=WGS84").getProjection();
+        double[] x = {1, 2, 3, 4};
+        double[] y = {10, 20, 30, 40};
+        proj.project(x, y, 1, 2);
+        Assert.assertEquals(1, x[0], 0);
+        Assert.assertEquals(4, x[3], 0);
+        Assert.assertEquals(40, y[3], 0);
+
+        ProjCoordinate p = proj.project(new ProjCoordinate(3, 30), new ProjCoordinate());
+        Assert.assertEquals(p.x, x[2], 0);
+        Assert.assertEquals(p.y, y[2], 0);
+    }
+
+    private static void checkBatch(String params, double minLon, double maxLon, double minLat, double maxLat) {
+        Projection proj = factory.createFromParameters(null, params).getProjection();
+        Random random = new Random(params.hashCode());
+        int n = 500;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = minLon + random.nextDouble() * (maxLon - minLon);
+            y[i] = minLat + random.nextDouble() * (maxLat - minLat);
+        }
+
+        ProjCoordinate p = new ProjCoordinate();
+        double[] px = new double[n];
+        double[] py = new double[n];
+        for (int i = 0; i < n; i++) {
+            proj.project(new ProjCoordinate(x[i], y[i]), p);
+            px[i] = p.x;
+            py[i] = p.y;
+        }
+        double[] bx = x.clone();
+        double[] by = y.clone();
+        proj.project(bx, by, 0, n);
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(params, px[i], bx[i], 0);
+            Assert.assertEquals(params, py[i], by[i], 0);
+        }
+
+        for (int i = 0; i < n; i++) {
+            proj.inverseProject(new ProjCoordinate(px[i], py[i]), p);
+            px[i] = p.x;
+            py[i] = p.y;
+        }
+        proj.inverseProject(bx, by, 0, n);
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(params, px[i], bx[i], 0);
+            Assert.assertEquals(params, py[i], by[i], 0);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j.proj;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.proj4j.CRSFactory;
+import org.locationtech.proj4j.ProjCoordinate;
+import org.locationtech.proj4j.Registry;
+
+/**
+ * Tests that frozen projections cannot be changed,
+ * and that one projection instance gives the same results
+ * when it is used from many threads at once.
+ */
+public class ProjectionConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 20;
+
+    // parameters general enough for every projection to initialize;
+    // each projection is tested on the ellipsoid and on the sphere
+    private static final String[] PARAMETERS = {
+            " +ellps=WGS84 +lat_0=40 +lon_0=10 +lat_1=30 +lat_2=50 +lat_ts=35 +zone=32 +units=m",
+            " +R=6371000 +lat_0=40 +lon_0=10 +lat_1=30 +lat_2=50 +lat_ts=35 +units=m"
+    };
+
+    @Test
+    public void testParsedProjectionIsFrozen() {
+        Projection proj = new CRSFactory().createFromParameters(null, "+proj=utm +zone=33 +datum=WGS84")
+                .getProjection();
+        Assert.assertTrue(proj.isFrozen());
+        assertFrozen(() -> proj.setFalseEasting(0));
+        assertFrozen(() -> proj.setEllipsoid(null));
+        assertFrozen(() -> ((ExtendedTransverseMercatorProjection) proj).setUTMZone(34));
+        assertFrozen(proj::initialize);
+        Assert.assertEquals(500000, proj.getFalseEasting(), 0);
+
+        // a clone can be changed
+        Projection copy = (Projection) proj.clone();
+        Assert.assertFalse(copy.isFrozen());
+        copy.setFalseEasting(0);
+        copy.initialize();
+        ProjCoordinate p = proj.project(new ProjCoordinate(15, 0), new ProjCoordinate());
+        ProjCoordinate q = copy.project(new ProjCoordinate(15, 0), new ProjCoordinate());
+        Assert.assertEquals(p.x - 500000, q.x, 1e-6);
+
+        Projection longLat = new CRSFactory().createFromParameters(null, "+proj=longlat +datum=WGS84")
+                .getProjection();
+        Assert.assertTrue(longLat.isFrozen());
+        assertFrozen(longLat::initialize);
+
+        // setupUPS changes several parameters before initializing
+        Projection stere = new CRSFactory().createFromParameters(null, "+proj=stere +lat_0=90 +datum=WGS84")
+                .getProjection();
+        assertFrozen(() -> ((StereographicAzimuthalProjection) stere).setupUPS(AzimuthalProjection.NORTH_POLE));
+        Assert.assertEquals(0, stere.getFalseEasting(), 0);
+        Assert.assertEquals(1, stere.getScaleFactor(), 0);
+    }
+
+    @Test
+    public void testConcurrentProjection() throws Exception {
+        List<Case> cases = new ArrayList<>();
+        CRSFactory factory = new CRSFactory();
+        for (Projection registered : new Registry().getProjections()) {
+            for (String params : PARAMETERS) {
+                Projection proj;
+                try {
+                    proj = factory.createFromParameters(null, "+proj=" + registered.getName() + params).getProjection();
+                } catch (RuntimeException e) {
+                    continue;
+                }
+                cases.add(new Case(proj));
+            }
+        }
+        cases.add(new Case(factory.createFromParameters(null,
+                "+proj=geos +h=35785831 +lon_0=10 +ellps=WGS84 +units=m").getProjection()));
+        Assert.assertTrue(cases.size() > 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int first = t;
+                results.add(executor.submit(new Callable<String>() {
+                    public String call() {
+                        for (int round = 0; round < ROUNDS; round++) {
+                            // each thread works through the projections in a different order
+                            for (int i = 0; i < cases.size(); i++) {
+                                Case c = cases.get((first * 7 + round + i) % cases.size());
+                                String failure = c.check();
+                                if (failure != null) return failure;
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<String> result : results) {
+                Assert.assertNull(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertFrozen(Runnable change) {
+        try {
+            change.run();
+            Assert.fail("Expected the projection to be frozen");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * A projection with the results of projecting a set of points
+     * (and inverse-projecting the results) on a single thread.
+     */
+    private static class Case {
+
+        private final Projection proj;
+        private final double[] lon;
+        private final double[] lat;
+        private final double[] expected;
+
+        Case(Projection proj) {
+            this.proj = proj;
+            double lon0 = proj.getProjectionLongitudeDegrees();
+            double lat0 = proj.getProjectionLatitudeDegrees();
+            List<double[]> points = new ArrayList<>();
+            for (double dx = -20; dx <= 20; dx += 5) {
+                for (double dy = -20; dy <= 20; dy += 5) {
+                    points.add(new double[]{lon0 + dx, Math.max(-89, Math.min(89, lat0 + dy))});
+                }
+            }
+            lon = new double[points.size()];
+            lat = new double[points.size()];
+            for (int i = 0; i < lon.length; i++) {
+                lon[i] = points.get(i)[0];
+                lat[i] = points.get(i)[1];
+            }
+            expected = run();
+        }
+
+        /**
+         * Projects and inverse-projects every point,
+         * recording failures as NaN.
+         */
+        double[] run() {
+            double[] out = new double[4 * lon.length];
+            ProjCoordinate p = new ProjCoordinate();
+            ProjCoordinate q = new ProjCoordinate();
+            for (int i = 0; i < lon.length; i++) {
+                double[] r = {Double.NaN, Double.NaN, Double.NaN, Double.NaN};
+                try {
+                    proj.project(new ProjCoordinate(lon[i], lat[i]), p);
+                    r[0] = p.x;
+                    r[1] = p.y;
+                    if (proj.hasInverse()) {
+                        proj.inverseProject(p, q);
+                        r[2] = q.x;
+                        r[3] = q.y;
+                    }
+                } catch (RuntimeException e) {
+                    // recorded as NaN
+                }
+                System.arraycopy(r, 0, out, 4 * i, 4);
+            }
+            return out;
+        }
+
+        String check() {
+            double[] actual = run();
+            if (Arrays.equals(expected, actual)) return null;
+            return proj.getName() + " " + proj.getPROJ4Description() + " gave different results on another thread";
+        }
+    }
+}
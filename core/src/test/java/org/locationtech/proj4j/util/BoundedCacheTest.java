@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+    private final AtomicLong time = new AtomicLong();
+
+    private static final Function<String, String> UPPER = String::toUpperCase;
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.get("a", UPPER);
+        cache.get("b", UPPER);
+        Assert.assertEquals("A", cache.get("a", UPPER));
+        cache.get("c", UPPER);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.getIfPresent("b"));
+        Assert.assertEquals("A", cache.getIfPresent("a"));
+        Assert.assertEquals("C", cache.getIfPresent("c"));
+
+        CacheStats stats = cache.stats();
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(3, stats.getMissCount());
+        Assert.assertEquals(1, stats.getEvictionCount());
+        Assert.assertEquals(0.25, stats.getHitRate(), 0);
+        Assert.assertEquals(2, stats.getWeight());
+    }
+
+    @Test
+    public void testWeight() {
+        BoundedCache<String, String> cache = new BoundedCache<>(100, 10, String::length, 0, time::get);
+        cache.get("aaaa", UPPER);
+        cache.get("bbbb", UPPER);
+        Assert.assertEquals(8, cache.weight());
+
+        cache.get("cccc", UPPER);
+        Assert.assertEquals(8, cache.weight());
+        Assert.assertNull(cache.getIfPresent("aaaa"));
+
+        // a value heavier than the cache can hold is returned but not kept
+        Assert.assertEquals("DDDDDDDDDDD", cache.get("ddddddddddd", UPPER));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.weight());
+        Assert.assertEquals(4, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testExpireAfterAccess() {
+        BoundedCache<String, String> cache = new BoundedCache<>(100, Long.MAX_VALUE, null, 10, time::get);
+        cache.get("a", UPPER);
+        cache.get("b", UPPER);
+        time.set(5);
+        cache.get("a", UPPER);
+
+        // b has not been used for 10 units
+        time.set(10);
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("A", cache.getIfPresent("a"));
+        Assert.assertNull(cache.getIfPresent("b"));
+
+        time.set(20);
+        Assert.assertEquals("A", cache.get("a", UPPER));
+        Assert.assertEquals(3, cache.getMissCount());
+        Assert.assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testNullIsNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        Assert.assertNull(cache.get("a", k -> null));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWeight() {
+        new BoundedCache<String, String>(10, 0, String::length, 0, time::get);
+    }
+}
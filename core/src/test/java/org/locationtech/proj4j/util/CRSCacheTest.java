@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright 2009, 2017 Martin Davis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.locationtech.proj4j.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.proj4j.CRSFactory;
+import org.locationtech.proj4j.CoordinateReferenceSystem;
+import org.locationtech.proj4j.UnknownAuthorityCodeException;
+import org.locationtech.proj4j.parser.Proj4Parser;
+
+public class CRSCacheTest {
+
+    private final AtomicLong time = new AtomicLong();
+
+    @Test
+    public void testUnknownCodeIsRemembered() {
+        CRSCache cache = new CRSCache(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), 10, 100, time::get);
+        assertUnknown(cache, "EPSG:999999");
+        Assert.assertEquals(0, cache.getUnknownCodeHitCount());
+        Assert.assertEquals(1, cache.getUnknownCodeMissCount());
+
+        assertUnknown(cache, "EPSG:999999");
+        assertUnknown(cache, "EPSG:999999");
+        Assert.assertEquals(2, cache.getUnknownCodeHitCount());
+        Assert.assertEquals(1, cache.getUnknownCodeMissCount());
+        Assert.assertEquals(1, cache.getUnknownCodeCount());
+
+        // known codes are not affected
+        Assert.assertNotNull(cache.createFromName("EPSG:4326"));
+    }
+
+    @Test
+    public void testUnknownCodeExpires() {
+        CRSCache cache = new CRSCache(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), 10, 100, time::get);
+        assertUnknown(cache, "EPSG:999999");
+        time.set(99);
+        assertUnknown(cache, "EPSG:999999");
+        Assert.assertEquals(1, cache.getUnknownCodeHitCount());
+
+        time.set(100);
+        assertUnknown(cache, "EPSG:999999");
+        Assert.assertEquals(1, cache.getUnknownCodeHitCount());
+        Assert.assertEquals(2, cache.getUnknownCodeMissCount());
+    }
+
+    @Test
+    public void testUnknownCodeCapacity() {
+        CRSCache cache = new CRSCache(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), 2, 100, time::get);
+        assertUnknown(cache, "EPSG:999997");
+        assertUnknown(cache, "EPSG:999998");
+        assertUnknown(cache, "EPSG:999999");
+        Assert.assertEquals(2, cache.getUnknownCodeCount());
+
+        // the first name has been forgotten
+        assertUnknown(cache, "EPSG:999997");
+        Assert.assertEquals(0, cache.getUnknownCodeHitCount());
+        assertUnknown(cache, "EPSG:999999");
+        Assert.assertEquals(1, cache.getUnknownCodeHitCount());
+    }
+
+    @Test
+    public void testUnknownCodesNotRemembered() {
+        CRSCache cache = new CRSCache(0, 1, TimeUnit.MINUTES);
+        assertUnknown(cache, "EPSG:999999");
+        assertUnknown(cache, "EPSG:999999");
+        Assert.assertEquals(0, cache.getUnknownCodeCount());
+        Assert.assertEquals(0, cache.getUnknownCodeMissCount());
+    }
+
+    @Test
+    public void testBoundedCache() {
+        CRSCache cache = new CRSCache(new BoundedCache<>(2), new BoundedCache<>(10));
+        CoordinateReferenceSystem wgs84 = cache.createFromName("EPSG:4326");
+        Assert.assertSame(wgs84, cache.createFromName("EPSG:4326"));
+        cache.createFromName("EPSG:3857");
+        cache.createFromName("EPSG:32633");
+        Assert.assertNotSame(wgs84, cache.createFromName("EPSG:4326"));
+
+        CacheStats stats = cache.getStats();
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(4, stats.getMissCount());
+        Assert.assertEquals(2, stats.getEvictionCount());
+        Assert.assertEquals(2, stats.getSize());
+        Assert.assertTrue(stats.getTotalLoadTime() > 0);
+
+        Assert.assertEquals("4326", cache.readEpsgFromParameters("+proj=longlat +datum=WGS84 +no_defs"));
+        Assert.assertEquals(1, cache.getEpsgStats().getSize());
+    }
+
+    @Test
+    public void testUnboundedCacheStats() {
+        CRSCache cache = new CRSCache();
+        cache.createFromName("EPSG:4326");
+        cache.createFromName("EPSG:4326");
+        CacheStats stats = cache.getStats();
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(1, stats.getMissCount());
+        Assert.assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void testWeightIncludesGrids() {
+        CRSFactory factory = new CRSFactory();
+        CoordinateReferenceSystem plain = factory.createFromParameters(null, "+proj=longlat +ellps=GRS80");
+        Assert.assertEquals(CRSCache.CRS_WEIGHT, CRSCache.estimateWeight(plain));
+
+        CoordinateReferenceSystem gridded = factory.createFromParameters(null,
+                "+proj=longlat +ellps=GRS80 +nadgrids=100800401.gsb");
+        long nodes = gridded.getDatum().getGrids().get(0).getNodeCount();
+        Assert.assertTrue(nodes > 0);
+        Assert.assertEquals(CRSCache.CRS_WEIGHT + 8 * nodes, CRSCache.estimateWeight(gridded));
+
+        // the cache holds as many CRSs as fit in its weight
+        CRSCache cache = new CRSCache(
+                new BoundedCache<>(100, 3 * CRSCache.CRS_WEIGHT, CRSCache::estimateWeight, 0, TimeUnit.SECONDS),
+                new BoundedCache<>(10));
+        cache.createFromParameters(null, "+proj=longlat +ellps=GRS80 +nadgrids=100800401.gsb");
+        Assert.assertEquals(0, cache.getStats().getSize());
+        for (String code : new String[]{"EPSG:4326", "EPSG:3857", "EPSG:32633", "EPSG:32634"}) {
+            cache.createFromName(code);
+        }
+        Assert.assertEquals(3, cache.getStats().getSize());
+        Assert.assertEquals(3 * CRSCache.CRS_WEIGHT, cache.getStats().getWeight());
+    }
+
+    @Test
+    public void testEquivalentParametersShareCRS() {
+        CRSCache cache = new CRSCache();
+        CoordinateReferenceSystem crs = cache.createFromParameters(null,
+                "+proj=utm +zone=33 +datum=WGS84 +units=m +k_0=0.9996 +towgs84=0,0,0 +no_defs");
+        Assert.assertSame(crs, cache.createFromParameters(null,
+                "+units=m  +towgs84=0.0,-0,0.000 +datum=WGS84 +proj=utm +k_0=0.999600 +zone=33 +wktext"));
+        Assert.assertSame(crs, cache.createFromParameters(null, new String[]{
+                "+proj=utm", "+zone=33", "+datum=WGS84", "+units=m", "+k_0=.9996", "+towgs84=0,0,0"}));
+        Assert.assertEquals(1, cache.getStats().getSize());
+
+        // a different zone, or the same parameters under another name, is another CRS
+        Assert.assertNotSame(crs, cache.createFromParameters(null,
+                "+proj=utm +zone=34 +datum=WGS84 +units=m +k_0=0.9996 +towgs84=0,0,0 +no_defs"));
+        Assert.assertNotSame(crs, cache.createFromParameters("UTM 33",
+                "+proj=utm +zone=33 +datum=WGS84 +units=m +k_0=0.9996 +towgs84=0,0,0 +no_defs"));
+    }
+
+    @Test
+    public void testCanonicalForm() {
+        Assert.assertEquals("+datum=WGS84 +lat_0=45.0 +lon_0=-1.5E-4 +proj=tmerc +south +x_0=0.0",
+                Proj4Parser.canonicalForm(new String[]{
+                        "+proj=tmerc", "+x_0=-0", "+south", "+lon_0=-0.000150", "lat_0=45", "+datum=WGS84", "+no_defs"}));
+        // the last value of a repeated parameter is used
+        Assert.assertEquals("+proj=merc", Proj4Parser.canonicalForm(new String[]{"+proj=tmerc", "+proj=merc"}));
+        // values which are not decimal numbers, and grid names and zones, are left as they are
+        Assert.assertEquals("+lat_0=10d30'N +nadgrids=1.0 +zone=033",
+                Proj4Parser.canonicalForm(new String[]{"+zone=033", "+lat_0=10d30'N", "+nadgrids=1.0"}));
+    }
+
+    private static void assertUnknown(CRSCache cache, String name) {
+        try {
+            cache.createFromName(name);
+            Assert.fail("Expected " + name + " to be unknown");
+        } catch (UnknownAuthorityCodeException e) {
+            Assert.assertEquals(name, e.getMessage());
+        }
+    }
+}